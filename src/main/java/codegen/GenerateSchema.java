@@ -0,0 +1,21 @@
+package codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译期生成JSON Schema和结构验证器的模型类
+ * 字段名、类型和必需性取自字段上的 @JsonProperty 注解，由 {@link SchemaProcessor} 处理
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateSchema {
+
+    /**
+     * schema名称，生成 schemas/generated/&lt;name&gt;.json 和 &lt;name&gt;-list.json
+     * @return schema名称
+     */
+    String value();
+}
@@ -0,0 +1,27 @@
+package codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 字段的取值约束，与 @JsonProperty 一起由 {@link SchemaProcessor} 写入生成的schema（minimum、minLength）
+ * 和结构验证器；未指定的约束不生成
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface SchemaConstraint {
+
+    /**
+     * 整数或数值字段的最小值（包含）
+     * @return 最小值，默认不约束
+     */
+    long minimum() default Long.MIN_VALUE;
+
+    /**
+     * 字符串字段的最小长度（按码点计）
+     * @return 最小长度，默认不约束
+     */
+    int minLength() default 0;
+}
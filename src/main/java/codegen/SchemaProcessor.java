@@ -0,0 +1,445 @@
+package codegen;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译期代码生成器，为 {@link GenerateSchema} 标记的模型类生成：
+ * <ul>
+ *     <li>schemas/generated/&lt;name&gt;.json 和 &lt;name&gt;-list.json（draft-04 JSON Schema）</li>
+ *     <li>&lt;Model&gt;StructureValidator（实现 {@link StructureValidator}，直接检查JsonNode类型，不使用反射）</li>
+ * </ul>
+ * 字段名、必需性来自 @JsonProperty 的 value 和 required，取值约束来自 {@link SchemaConstraint}，
+ * 嵌套的模型类型（如 User.Address）展开为内嵌object
+ */
+public class SchemaProcessor extends AbstractProcessor {
+    private static final String SCHEMA_DIRECTORY = "schemas/generated/";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(GenerateSchema.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateSchema.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateSchema 只能用于类");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            String name = type.getAnnotation(GenerateSchema.class).value();
+            try {
+                ObjectShape shape = describe(type);
+                writeSchemas(type, name, shape);
+                writeValidator(type, name, shape);
+            } catch (IOException | IllegalStateException e) {
+                error(type, "生成schema失败: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 字段描述：JSON名称、JSON类型、是否必需、取值约束；object类型带嵌套结构，array类型带元素类型
+     */
+    private static final class FieldShape {
+        final String jsonName;
+        final String jsonType;
+        final boolean required;
+        final ObjectShape object;
+        final String itemType;
+        // 最小值，null表示不约束
+        final Long minimum;
+        // 最小长度，0表示不约束
+        final int minLength;
+
+        FieldShape(String jsonName, String jsonType, boolean required, ObjectShape object, String itemType,
+                   Long minimum, int minLength) {
+            this.jsonName = jsonName;
+            this.jsonType = jsonType;
+            this.required = required;
+            this.object = object;
+            this.itemType = itemType;
+            this.minimum = minimum;
+            this.minLength = minLength;
+        }
+    }
+
+    /**
+     * 对象结构描述
+     */
+    private static final class ObjectShape {
+        final String simpleName;
+        final List<FieldShape> fields = new ArrayList<>();
+
+        ObjectShape(String simpleName) {
+            this.simpleName = simpleName;
+        }
+    }
+
+    private ObjectShape describe(TypeElement type) {
+        ObjectShape shape = new ObjectShape(type.getSimpleName().toString());
+        for (Element member : type.getEnclosedElements()) {
+            JsonProperty property = member.getAnnotation(JsonProperty.class);
+            if (member.getKind() != ElementKind.FIELD || property == null || member.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            VariableElement field = (VariableElement) member;
+            String jsonName = property.value().isEmpty() ? field.getSimpleName().toString() : property.value();
+            TypeMirror fieldType = field.asType();
+            String jsonType = jsonType(fieldType);
+            ObjectShape nested = null;
+            String itemType = null;
+            if ("object".equals(jsonType)) {
+                TypeElement nestedType = (TypeElement) ((DeclaredType) fieldType).asElement();
+                if (nestedType.equals(type)) {
+                    throw new IllegalStateException("不支持自引用类型: " + type);
+                }
+                nested = describe(nestedType);
+            } else if ("array".equals(jsonType)) {
+                itemType = itemType(fieldType);
+            }
+            Long minimum = null;
+            int minLength = 0;
+            SchemaConstraint constraint = member.getAnnotation(SchemaConstraint.class);
+            if (constraint != null) {
+                if (constraint.minimum() != Long.MIN_VALUE) {
+                    if (!"integer".equals(jsonType) && !"number".equals(jsonType)) {
+                        throw new IllegalStateException("minimum 只能用于数值字段: " + jsonName);
+                    }
+                    minimum = constraint.minimum();
+                }
+                if (constraint.minLength() > 0) {
+                    if (!"string".equals(jsonType)) {
+                        throw new IllegalStateException("minLength 只能用于字符串字段: " + jsonName);
+                    }
+                    minLength = constraint.minLength();
+                }
+            }
+            shape.fields.add(new FieldShape(jsonName, jsonType, property.required(), nested, itemType, minimum, minLength));
+        }
+        return shape;
+    }
+
+    /**
+     * Java类型到JSON Schema类型的映射；无法识别的类型返回null（不做类型约束）
+     */
+    private String jsonType(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+            case LONG:
+            case SHORT:
+            case BYTE:
+                return "integer";
+            case FLOAT:
+            case DOUBLE:
+                return "number";
+            case BOOLEAN:
+                return "boolean";
+            case CHAR:
+                return "string";
+            case ARRAY:
+                return "array";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Short":
+            case "java.lang.Byte":
+            case "java.math.BigInteger":
+                return "integer";
+            case "java.lang.Float":
+            case "java.lang.Double":
+            case "java.math.BigDecimal":
+                return "number";
+            case "java.lang.Boolean":
+                return "boolean";
+            case "java.lang.String":
+            case "java.lang.CharSequence":
+            case "java.lang.Character":
+                return "string";
+            case "java.util.List":
+            case "java.util.Set":
+            case "java.util.Collection":
+                return "array";
+            default:
+                return hasJsonProperties(element) ? "object" : null;
+        }
+    }
+
+    private String itemType(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return jsonType(((ArrayType) type).getComponentType());
+        }
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() != 1) {
+            return null;
+        }
+        return jsonType(arguments.get(0));
+    }
+
+    private static boolean hasJsonProperties(TypeElement element) {
+        for (Element member : element.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD && member.getAnnotation(JsonProperty.class) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeSchemas(TypeElement type, String name, ObjectShape shape) throws IOException {
+        StringBuilder schema = new StringBuilder()
+                .append("{\n")
+                .append("  \"$schema\": \"http://json-schema.org/draft-04/schema#\",\n")
+                .append("  \"title\": \"").append(shape.simpleName).append("\",\n");
+        appendObjectBody(schema, shape, "  ");
+        schema.append("\n}\n");
+        writeResource(type, SCHEMA_DIRECTORY + name + ".json", schema.toString());
+
+        String listSchema = "{\n"
+                + "  \"$schema\": \"http://json-schema.org/draft-04/schema#\",\n"
+                + "  \"title\": \"" + shape.simpleName + " list\",\n"
+                + "  \"type\": \"array\",\n"
+                + "  \"items\": { \"$ref\": \"resource:/" + SCHEMA_DIRECTORY + name + ".json#\" }\n"
+                + "}\n";
+        writeResource(type, SCHEMA_DIRECTORY + name + "-list.json", listSchema);
+    }
+
+    private void appendObjectBody(StringBuilder out, ObjectShape shape, String indent) {
+        out.append(indent).append("\"type\": \"object\",\n");
+
+        List<String> required = new ArrayList<>();
+        for (FieldShape field : shape.fields) {
+            if (field.required) {
+                required.add("\"" + field.jsonName + "\"");
+            }
+        }
+        if (!required.isEmpty()) {
+            out.append(indent).append("\"required\": ").append(required).append(",\n");
+        }
+
+        out.append(indent).append("\"properties\": {");
+        for (int i = 0; i < shape.fields.size(); i++) {
+            FieldShape field = shape.fields.get(i);
+            out.append(i == 0 ? "\n" : ",\n").append(indent).append("  \"").append(field.jsonName).append("\": ");
+            if (field.object != null) {
+                out.append("{\n");
+                appendObjectBody(out, field.object, indent + "    ");
+                out.append("\n").append(indent).append("  }");
+            } else if (field.jsonType == null) {
+                out.append("{}");
+            } else if ("array".equals(field.jsonType) && field.itemType != null) {
+                out.append("{ \"type\": \"array\", \"items\": { \"type\": \"").append(field.itemType).append("\" } }");
+            } else {
+                out.append("{ \"type\": \"").append(field.jsonType).append("\"");
+                if (field.minimum != null) {
+                    out.append(", \"minimum\": ").append(field.minimum);
+                }
+                if (field.minLength > 0) {
+                    out.append(", \"minLength\": ").append(field.minLength);
+                }
+                out.append(" }");
+            }
+        }
+        out.append("\n").append(indent).append("}");
+    }
+
+    private void writeValidator(TypeElement type, String name, ObjectShape shape) throws IOException {
+        String packageName = ((PackageElement) enclosingPackage(type)).getQualifiedName().toString();
+        String className = shape.simpleName + "StructureValidator";
+
+        Map<String, ObjectShape> methods = new LinkedHashMap<>();
+        collectMethods(shape, "validate" + shape.simpleName, methods);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import codegen.StructureValidator;\n")
+                .append("import com.fasterxml.jackson.databind.JsonNode;\n\n")
+                .append("import javax.annotation.processing.Generated;\n")
+                .append("import java.util.List;\n\n")
+                .append("/**\n")
+                .append(" * ").append(type.getQualifiedName()).append(" 的结构验证器，由 ")
+                .append(SchemaProcessor.class.getName()).append(" 根据 @JsonProperty 生成，请勿手工修改\n")
+                .append(" */\n")
+                .append("@Generated(\"").append(SchemaProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(className).append(" implements StructureValidator {\n")
+                .append("    public static final ").append(className).append(" INSTANCE = new ").append(className).append("();\n\n")
+                .append("    private ").append(className).append("() {\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public String schemaName() {\n")
+                .append("        return \"").append(name).append("\";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void validate(JsonNode node, List<String> violations) {\n")
+                .append("        validate").append(shape.simpleName).append("(node, violations);\n")
+                .append("    }\n");
+
+        for (Map.Entry<String, ObjectShape> method : methods.entrySet()) {
+            appendValidateMethod(source, method.getKey(), method.getValue());
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static void collectMethods(ObjectShape shape, String methodName, Map<String, ObjectShape> methods) {
+        methods.put(methodName, shape);
+        for (FieldShape field : shape.fields) {
+            if (field.object != null) {
+                collectMethods(field.object, methodName + capitalize(field.jsonName), methods);
+            }
+        }
+    }
+
+    private static void appendValidateMethod(StringBuilder out, String methodName, ObjectShape shape) {
+        out.append("\n    private static void ").append(methodName).append("(JsonNode node, List<String> violations) {\n")
+                .append("        if (node == null || !node.isObject()) {\n")
+                .append("            violations.add(\"/: 应为object\");\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        JsonNode value;\n");
+
+        for (FieldShape field : shape.fields) {
+            out.append("\n        value = node.get(\"").append(field.jsonName).append("\");\n");
+            List<String> checks = valueChecks(methodName, field);
+            if (field.required) {
+                out.append("        if (value == null || value.isNull()) {\n")
+                        .append("            violations.add(\"/").append(field.jsonName).append(": 缺少必需字段\");\n")
+                        .append("        }");
+                for (String check : checks) {
+                    out.append(" else ").append(check);
+                }
+                out.append("\n");
+            } else if (!checks.isEmpty()) {
+                out.append("        if (value != null && !value.isNull()) {\n            ");
+                for (int i = 0; i < checks.size(); i++) {
+                    out.append(i == 0 ? "" : " else ").append(checks.get(i).replace("\n", "\n    "));
+                }
+                out.append("\n        }\n");
+            }
+        }
+        out.append("    }\n");
+    }
+
+    /**
+     * 生成字段值（非null时）的检查分支，多个分支以 else 连接
+     */
+    private static List<String> valueChecks(String methodName, FieldShape field) {
+        List<String> checks = new ArrayList<>();
+        String pointer = "/" + field.jsonName;
+        if (field.object != null) {
+            checks.add("{\n"
+                    + "            int before = violations.size();\n"
+                    + "            " + methodName + capitalize(field.jsonName) + "(value, violations);\n"
+                    + "            StructureValidator.prefix(violations, before, \"" + field.jsonName + "\");\n"
+                    + "        }");
+        } else if (field.jsonType != null) {
+            checks.add("if (!" + typeCheck("value", field.jsonType) + ") {\n"
+                    + "            violations.add(\"" + pointer + ": 应为" + field.jsonType + "\");\n"
+                    + "        }");
+            if ("array".equals(field.jsonType) && field.itemType != null) {
+                checks.add("{\n"
+                        + "            for (int i = 0; i < value.size(); i++) {\n"
+                        + "                if (!" + typeCheck("value.get(i)", field.itemType) + ") {\n"
+                        + "                    violations.add(\"" + pointer + "/\" + i + \": 应为" + field.itemType + "\");\n"
+                        + "                }\n"
+                        + "            }\n"
+                        + "        }");
+            }
+            if (field.minimum != null) {
+                checks.add("if (value." + ("integer".equals(field.jsonType) ? "asLong()" : "asDouble()") + " < " + field.minimum + "L) {\n"
+                        + "            violations.add(\"" + pointer + ": 应不小于" + field.minimum + "\");\n"
+                        + "        }");
+            }
+            if (field.minLength > 0) {
+                checks.add("if (value.asText().codePointCount(0, value.asText().length()) < " + field.minLength + ") {\n"
+                        + "            violations.add(\"" + pointer + ": 长度应不小于" + field.minLength + "\");\n"
+                        + "        }");
+            }
+        }
+        return checks;
+    }
+
+    private static String typeCheck(String expression, String jsonType) {
+        switch (jsonType) {
+            case "integer":
+                return expression + ".isIntegralNumber()";
+            case "number":
+                return expression + ".isNumber()";
+            case "boolean":
+                return expression + ".isBoolean()";
+            case "string":
+                return expression + ".isTextual()";
+            case "array":
+                return expression + ".isArray()";
+            case "object":
+                return expression + ".isObject()";
+            default:
+                throw new IllegalStateException("未知的JSON类型: " + jsonType);
+        }
+    }
+
+    private void writeResource(TypeElement type, String path, String content) throws IOException {
+        try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path, type).openWriter()) {
+            writer.write(content);
+        }
+    }
+
+    private static Element enclosingPackage(Element element) {
+        Element current = element;
+        while (current.getKind() != ElementKind.PACKAGE) {
+            current = current.getEnclosingElement();
+        }
+        return current;
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,70 @@
+package codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译期生成的结构验证器接口，按模型的 @JsonProperty 检查字段类型和必需字段，运行时不使用反射
+ * 违反项格式为 "JSON Pointer: 描述"，路径前缀只在出现违反项时才拼接
+ */
+public interface StructureValidator {
+
+    /**
+     * @return 对应的schema名称
+     */
+    String schemaName();
+
+    /**
+     * 验证单个对象节点，违反项路径相对于该节点
+     * @param node JSON节点
+     * @param violations 违反项收集列表
+     */
+    void validate(JsonNode node, List<String> violations);
+
+    /**
+     * 验证单个对象或对象数组
+     * @param node JSON节点
+     * @return 违反项列表，通过时为空
+     */
+    default List<String> validate(JsonNode node) {
+        List<String> violations = new ArrayList<>(0);
+        if (node != null && node.isArray()) {
+            validateList(node, violations);
+        } else {
+            validate(node, violations);
+        }
+        return violations;
+    }
+
+    /**
+     * 验证对象数组中的每个元素
+     * @param node JSON数组节点
+     * @param violations 违反项收集列表
+     */
+    default void validateList(JsonNode node, List<String> violations) {
+        if (node == null || !node.isArray()) {
+            violations.add("/: 应为array");
+            return;
+        }
+        for (int i = 0; i < node.size(); i++) {
+            int before = violations.size();
+            validate(node.get(i), violations);
+            prefix(violations, before, i);
+        }
+    }
+
+    /**
+     * 为新增的违反项加上父路径前缀
+     * @param violations 违反项列表
+     * @param from 新增违反项的起始下标
+     * @param segment 父路径片段（字段名或数组下标）
+     */
+    static void prefix(List<String> violations, int from, Object segment) {
+        for (int i = from; i < violations.size(); i++) {
+            String violation = violations.get(i);
+            violations.set(i, "/" + segment + (violation.startsWith("/:") ? violation.substring(1) : violation));
+        }
+    }
+}
@@ -6,6 +6,17 @@ import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
 
@@ -14,6 +25,12 @@ import static io.restassured.RestAssured.given;
  */
 public class ApiConfig {
     private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final String ACCEPT_ENCODING = ContentCoding.acceptEncoding(configManager.getAcceptEncoding());
+    private static final CachingDnsResolver DNS_RESOLVER = new CachingDnsResolver(configManager.getIntProperty("dns.cache.ttl.seconds", 60));
+    @SuppressWarnings("deprecation")
+    private static final PoolingClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+    private static final TraceContextFilter TRACE_CONTEXT_FILTER = new TraceContextFilter();
+    private static volatile String baseUrlOverride;
     
     static {
         setupRestAssured();
@@ -26,21 +43,80 @@ public class ApiConfig {
         RestAssured.baseURI = configManager.getBaseUrl();
         RestAssured.config = RestAssuredConfig.config()
                 .httpClient(HttpClientConfig.httpClientConfig()
+                        .httpClientFactory(ApiConfig::createHttpClient)
                         .setParam("http.connection.timeout", configManager.getTimeout())
                         .setParam("http.socket.timeout", configManager.getTimeout()));
         
         // 启用请求和响应日志
         RestAssured.filters(new RequestLoggingFilter(), new ResponseLoggingFilter());
+        
+        // 录制/回放放在日志之后，回放的响应同样会被记录
+        CassetteMode cassetteMode = configManager.getCassetteMode();
+        if (cassetteMode != CassetteMode.OFF) {
+            RestAssured.filters(new CassetteFilter(cassetteMode, Paths.get(configManager.getCassetteDirectory())));
+        }
+        
+        // 响应大小紧挨在传输之前统计，回放的响应不经过这里
+        RestAssured.filters(new ResponseSizeFilter());
+        
+        // HTTP/2 传输必须是最后一个过滤器：它直接发送请求，不再调用后续的 Apache HttpClient
+        if (configManager.getHttpTransport() == HttpTransport.HTTP2) {
+            RestAssured.filters(new Http2TransportFilter(configManager.getTimeout()));
+        }
+    }
+    
+    /**
+     * 创建共享连接池：Rest Assured 每个请求都会新建 HttpClient，连接池、DNS缓存和 SSLContext（TLS会话缓存）
+     * 在这些客户端之间共享，后续请求复用已建立的连接，新连接也可以恢复TLS会话；
+     * 租用连接、建立连接和TLS握手的耗时由 {@link TransportTimings} 计入当前调用的分阶段耗时
+     * @return 连接池
+     */
+    @SuppressWarnings("deprecation")
+    private static PoolingClientConnectionManager createConnectionManager() {
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(TransportTimings.schemeRegistry(),
+                configManager.getIntProperty("http.pool.ttl.seconds", 60), TimeUnit.SECONDS, DNS_RESOLVER) {
+            @Override
+            public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+                return TransportTimings.timeLease(super.requestConnection(route, state));
+            }
+        };
+        manager.setMaxTotal(configManager.getIntProperty("http.pool.max.total", 50));
+        manager.setDefaultMaxPerRoute(configManager.getIntProperty("http.pool.max.per.route", 20));
+        return manager;
+    }
+    
+    /**
+     * 创建HTTP客户端：使用共享连接池；HttpClient内置的重试只保留复用连接已被服务端关闭的情况
+     * （{@link StaleConnectionRetryHandler}），其余重试统一由 ApiHelper 按 max.retry.count 执行并计入指标；
+     * 线路字节计数拦截器先于 Rest Assured 的解压拦截器注册，计数的是压缩后的字节；
+     * 请求执行器对发送请求和等待响应头计时
+     * @return HttpClient
+     */
+    @SuppressWarnings("deprecation")
+    private static HttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(CONNECTION_MANAGER) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return TransportTimings.requestExecutor();
+            }
+        };
+        client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, configManager.getTimeout());
+        client.setHttpRequestRetryHandler(new StaleConnectionRetryHandler());
+        client.addResponseInterceptor(ResponseSizeFilter.wireByteCounter());
+        return client;
     }
     
     /**
-     * 获取基础请求规范
+     * 获取基础请求规范，Accept-Encoding 取 http.accept.encoding 配置（响应按 Content-Encoding 流式解码），
+     * 发送时附带当前跨度的 traceparent 头
      * @return RequestSpecification
      */
     public static RequestSpecification getBaseRequestSpec() {
         return given()
+                .filter(TRACE_CONTEXT_FILTER)
                 .header("Content-Type", "application/json")
-                .header("Accept", "application/json");
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", ACCEPT_ENCODING);
     }
     
     /**
@@ -63,7 +139,33 @@ public class ApiConfig {
      * @return String
      */
     public static String getBaseUrl() {
-        return configManager.getBaseUrl();
+        String override = baseUrlOverride;
+        return override != null ? override : configManager.getBaseUrl();
+    }
+    
+    /**
+     * 覆盖基础URL（如指向本地桩服务器），传入null恢复为配置文件中的地址
+     * @param baseUrl 基础URL
+     */
+    public static void setBaseUrl(String baseUrl) {
+        baseUrlOverride = baseUrl;
+        RestAssured.baseURI = getBaseUrl();
+    }
+    
+    /**
+     * 获取共享连接池的统计（已租用、空闲、等待中的连接数）
+     * @return 连接池统计
+     */
+    public static PoolStats getConnectionPoolStats() {
+        return CONNECTION_MANAGER.getTotalStats();
+    }
+    
+    /**
+     * 获取共享连接池使用的DNS缓存
+     * @return DNS解析器
+     */
+    public static CachingDnsResolver getDnsResolver() {
+        return DNS_RESOLVER;
     }
     
     /**
@@ -0,0 +1,75 @@
+package config;
+
+import org.apache.http.conn.DnsResolver;
+import utils.MetricsRegistry;
+import utils.RequestTimings;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带TTL的进程内DNS缓存，供共享连接池建立新连接时使用
+ * <p>
+ * 解析结果在 TTL 内直接复用，过期后下一次解析重新查询；解析失败不缓存。
+ * 查询次数、命中次数和查询耗时记入 transport.dns.* 指标，解析耗时（包括命中）计入当前调用的DNS阶段
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+    /**
+     * 缓存项
+     */
+    private static final class Entry {
+        private final InetAddress[] addresses;
+        private final long expiresAtNanos;
+
+        private Entry(InetAddress[] addresses, long expiresAtNanos) {
+            this.addresses = addresses;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttlSeconds 缓存时间（秒），0 表示不缓存
+     */
+    public CachingDnsResolver(long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long now = System.nanoTime();
+        try {
+            Entry entry = cache.get(host);
+            if (entry != null && now - entry.expiresAtNanos < 0) {
+                MetricsRegistry.increment("transport.dns.hits");
+                return entry.addresses.clone();
+            }
+
+            InetAddress[] addresses = InetAddress.getAllByName(host);
+            MetricsRegistry.increment("transport.dns.lookups");
+            MetricsRegistry.record("transport.dns.time", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - now));
+            if (ttlNanos > 0) {
+                cache.put(host, new Entry(addresses, System.nanoTime() + ttlNanos));
+            }
+            return addresses.clone();
+        } finally {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.add(RequestTimings.Phase.DNS, System.nanoTime() - now);
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+}
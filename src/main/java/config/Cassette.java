@@ -0,0 +1,188 @@
+package config;
+
+import utils.RecordStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单个cassette：基于 {@link RecordStore} 的录制记录（数据文件 + .idx 索引文件）
+ * 首次使用时才打开存储，回放时只加载索引，响应体以内存映射切片返回，不复制到堆内
+ * <p>
+ * 记录值格式：int 状态码 | short 头部数量 | (名称, 值)* | 响应体，字符串均为 short 长度 + UTF-8 字节
+ * <p>
+ * 请求体由套件种子生成，录制时的种子保存在cassette目录的 {@value #SEED_FILE} 中，回放时据此固定种子
+ */
+public class Cassette {
+    /** 录制时套件种子的文件名（位于cassette目录下） */
+    public static final String SEED_FILE = "suite.seed";
+
+    /**
+     * 一次录制的响应
+     */
+    public static final class Exchange {
+        private final int statusCode;
+        private final List<String[]> headers;
+        private final ByteBuffer body;
+
+        public Exchange(int statusCode, List<String[]> headers, ByteBuffer body) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * @return 响应头列表，每项为 {名称, 值}
+         */
+        public List<String[]> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * @return 响应体（回放时为内存映射上的只读切片），每次返回独立的位置
+         */
+        public ByteBuffer getBody() {
+            return body.duplicate();
+        }
+    }
+
+    private final Path file;
+    private final boolean recording;
+    private volatile RecordStore store;
+
+    /**
+     * @param file 数据文件路径
+     * @param recording 是否为录制模式（录制时同一进程内首次写入前清空旧记录）
+     */
+    public Cassette(Path file, boolean recording) {
+        this.file = file;
+        this.recording = recording;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 追加一条录制记录
+     * @param key 请求键
+     * @param exchange 响应
+     */
+    public void record(String key, Exchange exchange) {
+        store().append(key, encodeHead(exchange), exchange.getBody());
+    }
+
+    /**
+     * 查找录制记录；同一键录制多次时返回最后一次
+     * @param key 请求键
+     * @return 响应，不存在时返回null
+     */
+    public Exchange find(String key) {
+        ByteBuffer value = store().get(key);
+        return value == null ? null : decode(value);
+    }
+
+    /**
+     * @return 已索引的记录数量（会触发惰性加载）
+     */
+    public int size() {
+        return store().size();
+    }
+
+    /**
+     * 读取录制时保存的套件种子
+     * @param directory cassette目录
+     * @return 种子，未保存时返回null
+     */
+    public static Long readSeed(Path directory) {
+        Path file = directory.resolve(SEED_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取cassette种子失败: " + file, e);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("cassette种子文件格式错误: " + file, e);
+        }
+    }
+
+    /**
+     * 保存录制使用的套件种子
+     * @param directory cassette目录
+     * @param seed 套件种子
+     */
+    public static void writeSeed(Path directory, long seed) {
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(SEED_FILE), (seed + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存cassette种子失败: " + directory, e);
+        }
+    }
+
+    private RecordStore store() {
+        RecordStore current = store;
+        if (current == null) {
+            synchronized (this) {
+                current = store;
+                if (current == null) {
+                    current = recording ? RecordStore.create(file) : RecordStore.open(file);
+                    store = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static ByteBuffer encodeHead(Exchange exchange) {
+        List<byte[]> strings = new ArrayList<>(exchange.getHeaders().size() * 2);
+        int size = Integer.BYTES + Short.BYTES;
+        for (String[] header : exchange.getHeaders()) {
+            for (String value : header) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > 0xFFFF) {
+                    throw new IllegalArgumentException("响应头过长，无法写入cassette: " + header[0]);
+                }
+                strings.add(bytes);
+                size += Short.BYTES + bytes.length;
+            }
+        }
+
+        ByteBuffer head = ByteBuffer.allocate(size)
+                .putInt(exchange.getStatusCode())
+                .putShort((short) exchange.getHeaders().size());
+        for (byte[] bytes : strings) {
+            head.putShort((short) bytes.length).put(bytes);
+        }
+        head.flip();
+        return head;
+    }
+
+    private static Exchange decode(ByteBuffer value) {
+        int statusCode = value.getInt();
+        int headerCount = value.getShort() & 0xFFFF;
+        List<String[]> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new String[]{readString(value), readString(value)});
+        }
+        return new Exchange(statusCode, headers, value.slice());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
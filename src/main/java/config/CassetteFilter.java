@@ -0,0 +1,157 @@
+package config;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * HTTP录制/回放过滤器
+ * 请求键为 方法 + 路径和查询串（不含主机）+ 请求体哈希；按第一段路径（posts、comments、users…）分文件存放，
+ * 每个cassette在首次使用时才加载索引，回放的响应体直接从内存映射读取，可在 parallel="methods" 下并发使用
+ */
+public class CassetteFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(CassetteFilter.class);
+    private static final String FILE_EXTENSION = ".cassette";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final CassetteMode mode;
+    private final Path directory;
+    private final ConcurrentMap<String, Cassette> cassettes = new ConcurrentHashMap<>();
+
+    public CassetteFilter(CassetteMode mode, Path directory) {
+        if (mode == CassetteMode.OFF) {
+            throw new IllegalArgumentException("CassetteFilter 不支持 OFF 模式");
+        }
+        this.mode = mode;
+        this.directory = directory;
+        logger.info("HTTP录制/回放已启用，模式: {}, 目录: {}", mode, directory.toAbsolutePath());
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        URI uri = URI.create(requestSpec.getURI());
+        String key = key(requestSpec.getMethod(), uri, requestSpec.getBody());
+        Cassette cassette = cassettes.computeIfAbsent(cassetteName(uri),
+                name -> new Cassette(directory.resolve(name + FILE_EXTENSION), mode == CassetteMode.RECORD));
+
+        if (mode == CassetteMode.REPLAY) {
+            Cassette.Exchange exchange = cassette.find(key);
+            if (exchange == null) {
+                throw new IllegalStateException("cassette中没有该请求的录制记录: " + key
+                        + "（文件: " + cassette.getFile() + "，请先以 -Dcassette.mode=record 录制）");
+            }
+            return toResponse(exchange);
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        cassette.record(key, toExchange(response));
+        return response;
+    }
+
+    /**
+     * 生成请求键：方法 + 路径和查询串 + 请求体SHA-256前16位十六进制
+     * @param method HTTP方法
+     * @param uri 请求URI
+     * @param body 请求体（可为null）
+     * @return 请求键
+     */
+    static String key(String method, URI uri, Object body) {
+        StringBuilder key = new StringBuilder(64).append(method).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        return key.append(' ').append(bodyHash(body)).toString();
+    }
+
+    private static String bodyHash(Object body) {
+        if (body == null) {
+            return "-";
+        }
+        byte[] bytes = body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            char[] hex = new char[16];
+            for (int i = 0; i < 8; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static String cassetteName(URI uri) {
+        String path = uri.getRawPath();
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+        return segment.isEmpty() ? "root" : segment.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    /**
+     * 转换为录制记录：录制的是解码后的响应体，因此去掉描述线上编码的 Content-Encoding、Transfer-Encoding，
+     * 并把 Content-Length 改写为解码后的长度，否则回放的响应头与响应体不一致
+     */
+    private static Cassette.Exchange toExchange(Response response) {
+        byte[] body = response.asByteArray();
+        List<String[]> headers = new ArrayList<>();
+        boolean hasLength = false;
+        for (Header header : response.getHeaders()) {
+            String name = header.getName();
+            if ("Content-Encoding".equalsIgnoreCase(name) || "Transfer-Encoding".equalsIgnoreCase(name)) {
+                continue;
+            }
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                if (!hasLength) {
+                    headers.add(new String[]{name, String.valueOf(body.length)});
+                    hasLength = true;
+                }
+                continue;
+            }
+            headers.add(new String[]{name, header.getValue()});
+        }
+        return new Cassette.Exchange(response.getStatusCode(), headers, ByteBuffer.wrap(body));
+    }
+
+    private static Response toResponse(Cassette.Exchange exchange) {
+        List<Header> headers = new ArrayList<>(exchange.getHeaders().size());
+        String contentType = null;
+        for (String[] header : exchange.getHeaders()) {
+            headers.add(new Header(header[0], header[1]));
+            if ("Content-Type".equalsIgnoreCase(header[0])) {
+                contentType = header[1];
+            }
+        }
+
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(exchange.getStatusCode())
+                .setStatusLine("HTTP/1.1 " + exchange.getStatusCode())
+                .setHeaders(new Headers(headers))
+                .setBody(new ByteBufferBackedInputStream(exchange.getBody()));
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+}
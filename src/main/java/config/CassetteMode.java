@@ -0,0 +1,29 @@
+package config;
+
+/**
+ * HTTP录制/回放模式
+ */
+public enum CassetteMode {
+    /** 不录制也不回放，直接访问网络 */
+    OFF,
+    /** 访问网络，并把每次请求/响应录制到cassette */
+    RECORD,
+    /** 只从cassette回放，不产生任何网络I/O，找不到记录时报错 */
+    REPLAY;
+
+    /**
+     * 解析配置值（不区分大小写，空值视为OFF）
+     * @param value 配置值
+     * @return 模式
+     */
+    public static CassetteMode from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return OFF;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的cassette.mode: " + value + "（可选 off、record、replay）", e);
+        }
+    }
+}
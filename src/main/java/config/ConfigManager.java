@@ -40,12 +40,19 @@ public class ConfigManager {
         }
     }
     
+    /**
+     * 获取配置项，系统属性（-Dkey=value）优先于配置文件
+     * @param key 属性键
+     * @return 属性值
+     */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        String override = System.getProperty(key);
+        return override != null ? override : properties.getProperty(key);
     }
     
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
     }
     
     /**
@@ -58,8 +65,8 @@ public class ConfigManager {
      */
     @SuppressWarnings("unchecked")
     public <T> T getTypedProperty(String key, Class<T> type, T defaultValue) {
-        String value = properties.getProperty(key);
-        if (value == null) {
+        String value = getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
             return defaultValue;
         }
         
@@ -107,6 +114,30 @@ public class ConfigManager {
         return getIntProperty("api.timeout", 30000);
     }
     
+    /**
+     * 获取单个响应的最大允许耗时（毫秒），用于响应时间验证
+     * @return 最大响应时间
+     */
+    public long getMaxResponseTime() {
+        return getTypedProperty("api.max.response.time.ms", Long.class, 5000L);
+    }
+    
+    /**
+     * 获取HTTP传输实现（apache、http2）
+     * @return 传输实现
+     */
+    public HttpTransport getHttpTransport() {
+        return HttpTransport.from(getProperty("http.transport", "apache"));
+    }
+    
+    /**
+     * 获取请求的响应编码（Accept-Encoding），支持 gzip、deflate
+     * @return 配置值
+     */
+    public String getAcceptEncoding() {
+        return getProperty("http.accept.encoding", "gzip, deflate");
+    }
+    
     public String getEnvironment() {
         return getProperty("environment", "test");
     }
@@ -130,4 +161,42 @@ public class ConfigManager {
     public int getRetryDelay() {
         return getIntProperty("retry.delay.ms", 1000);
     }
+    
+    /**
+     * 获取单次重试等待的上限（包括 Retry-After 指定的时间）
+     * @return 毫秒
+     */
+    public int getMaxRetryDelay() {
+        return getIntProperty("retry.max.delay.ms", 10000);
+    }
+    
+    // 录制/回放相关配置
+    /**
+     * 获取录制/回放模式（off、record、replay）
+     * @return 模式
+     */
+    public CassetteMode getCassetteMode() {
+        return CassetteMode.from(getProperty("cassette.mode", "off"));
+    }
+    
+    public String getCassetteDirectory() {
+        return getProperty("cassette.dir", "src/test/resources/cassettes");
+    }
+    
+    // 测试数据相关配置
+    /**
+     * 获取套件级随机种子，未配置时返回null
+     * @return 种子值
+     */
+    public Long getTestSeed() {
+        return getTypedProperty("test.seed", Long.class, null);
+    }
+    
+    /**
+     * 获取强制使用的单测试种子（用于复现单个失败用例），未配置时返回null
+     * @return 种子值
+     */
+    public Long getTestMethodSeed() {
+        return getTypedProperty("test.method.seed", Long.class, null);
+    }
 }
\ No newline at end of file
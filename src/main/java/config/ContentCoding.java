@@ -0,0 +1,107 @@
+package config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 响应内容编码（Content-Encoding），解码以流的方式叠加在原始响应字节之上
+ */
+public enum ContentCoding {
+    GZIP("gzip"),
+    /** zlib 格式（RFC 1950），与 Rest Assured 默认的 DecoderConfig 一致 */
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCoding.class);
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * 按 Content-Encoding 头识别编码（不区分大小写，x-gzip 视为 gzip）
+     * @param contentEncoding Content-Encoding 头的值
+     * @return 编码，不支持的编码返回null
+     */
+    public static ContentCoding from(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.trim().isEmpty()) {
+            return IDENTITY;
+        }
+        String value = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        if ("x-gzip".equals(value)) {
+            return GZIP;
+        }
+        for (ContentCoding coding : values()) {
+            if (coding.token.equals(value)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 把配置的 Accept-Encoding 过滤为可以解码的编码，不支持的编码（如 br）记录警告后忽略
+     * @param configured 配置值，如 "gzip, deflate"
+     * @return Accept-Encoding 头的值，没有可用编码时为 "identity"
+     */
+    public static String acceptEncoding(String configured) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (configured != null) {
+            for (String part : configured.split(",")) {
+                String token = part.trim();
+                if (token.isEmpty()) {
+                    continue;
+                }
+                ContentCoding coding = from(token.split(";")[0]);
+                if (coding == null) {
+                    logger.warn("不支持的响应编码，已忽略: {}", token);
+                } else if (coding != IDENTITY) {
+                    tokens.add(coding.token);
+                }
+            }
+        }
+        return tokens.isEmpty() ? IDENTITY.token : String.join(", ", tokens);
+    }
+
+    /**
+     * 在原始响应流上叠加解码流
+     * @param wire 原始（线路上的）响应流
+     * @return 解码后的流
+     * @throws IOException gzip 头无效等
+     */
+    public InputStream decode(InputStream wire) throws IOException {
+        if (this == IDENTITY) {
+            return wire;
+        }
+        // HEAD、204 等响应可能带有 Content-Encoding 但没有响应体
+        PushbackInputStream in = new PushbackInputStream(wire, 1);
+        int first = in.read();
+        if (first < 0) {
+            return in;
+        }
+        in.unread(first);
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, 8192);
+            case DEFLATE:
+                return new InflaterInputStream(in);
+            default:
+                return in;
+        }
+    }
+}
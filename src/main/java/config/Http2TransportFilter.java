@@ -0,0 +1,154 @@
+package config;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.time.TimingFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.MetricsRegistry;
+import utils.RequestTimings;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP/2 传输过滤器：作为过滤器链的最后一环，用共享的 JDK HttpClient 发送请求，不再交给 Apache HttpClient
+ * <p>
+ * 同一主机的并发请求复用少量HTTP/2连接（多路复用），https 通过ALPN协商，http 通过 h2c 升级；
+ * 对端只支持HTTP/1.1时自动回退。日志、录制/回放等其它过滤器不受影响
+ * <p>
+ * JDK HttpClient 不暴露连接建立的各个阶段：DNS、建立连接、TLS握手和发送请求都计入首字节阶段
+ */
+public class Http2TransportFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(Http2TransportFilter.class);
+    // JDK HttpClient 不允许手动设置的请求头
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning"));
+
+    private final HttpClient client;
+    private final Duration timeout;
+
+    /**
+     * @param timeoutMillis 连接和单个请求的超时时间（毫秒）
+     */
+    public Http2TransportFilter(int timeoutMillis) {
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        logger.info("HTTP/2 传输已启用，超时: {}ms", timeoutMillis);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(requestSpec.getURI()))
+                .timeout(timeout)
+                .method(requestSpec.getMethod(), bodyPublisher(requestSpec.getBody()));
+        for (Header header : requestSpec.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+
+        HttpResponse<InputStream> response;
+        byte[] body;
+        long start = System.nanoTime();
+        try {
+            response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.add(RequestTimings.Phase.TTFB, System.nanoTime() - start);
+                timings.markHeadersReceived();
+            }
+            body = readBody(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("HTTP/2 请求被中断", e);
+        }
+        MetricsRegistry.increment("transport." + (response.version() == HttpClient.Version.HTTP_2 ? "h2" : "http1"));
+        return toResponse(response, body, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * JDK HttpClient 不处理 Content-Encoding：在计数后的原始流上直接叠加解码流读取响应体，
+     * 压缩的响应体不会先完整缓存一份；不支持的编码原样返回
+     */
+    private static byte[] readBody(HttpResponse<InputStream> response) throws IOException {
+        ContentCoding coding = ContentCoding.from(response.headers().firstValue("Content-Encoding").orElse(null));
+        try (InputStream wire = ResponseSizeFilter.countWireBytes(response.body())) {
+            return (coding != null ? coding.decode(wire) : wire).readAllBytes();
+        }
+    }
+
+    private static HttpRequest.BodyPublisher bodyPublisher(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof byte[]) {
+            return HttpRequest.BodyPublishers.ofByteArray((byte[]) body);
+        }
+        return HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static Response toResponse(HttpResponse<?> response, byte[] body, long timeMillis) {
+        List<Header> headers = new ArrayList<>();
+        String contentType = null;
+        for (Map.Entry<String, List<String>> entry : response.headers().map().entrySet()) {
+            // HTTP/2 伪头（:status）不作为普通响应头暴露
+            if (entry.getKey().startsWith(":")) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                headers.add(new Header(entry.getKey(), value));
+            }
+            if ("content-type".equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                contentType = entry.getValue().get(0);
+            }
+        }
+
+        String protocol = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(protocol + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setBody(body);
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        Response built = builder.build();
+        // 请求没有经过 Rest Assured 内置的 TimingFilter，由这里提供 Response.getTime() 的值
+        if (built instanceof RestAssuredResponseOptionsImpl) {
+            ((RestAssuredResponseOptionsImpl<?>) built).setFilterContextProperties(
+                    Collections.singletonMap(TimingFilter.RESPONSE_TIME_MILLISECONDS, timeMillis));
+        }
+        return built;
+    }
+}
@@ -0,0 +1,27 @@
+package config;
+
+/**
+ * HTTP传输实现
+ */
+public enum HttpTransport {
+    /** Rest Assured 默认的 Apache HttpClient 4（仅HTTP/1.1，每个连接同时只处理一个请求） */
+    APACHE,
+    /** JDK HttpClient：https 通过ALPN协商HTTP/2，http 通过 h2c 升级，多个请求复用同一连接；对端不支持时回退到HTTP/1.1 */
+    HTTP2;
+
+    /**
+     * 解析配置值（不区分大小写，空值视为APACHE）
+     * @param value 配置值
+     * @return 传输实现
+     */
+    public static HttpTransport from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return APACHE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("未知的http.transport: " + value + "（可选 apache、http2）", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package config;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import utils.HttpUtils;
+import utils.MetricsRegistry;
+import utils.RequestTimings;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 响应大小过滤器：记录每个响应在线路上的字节数（压缩后）和解码后的字节数
+ * <p>
+ * 线路字节由传输层在读取原始响应流时计数（Apache 传输通过 {@link #wireByteCounter()}，HTTP/2 传输直接调用），
+ * 计数与读取发生在同一线程上；两个数值写入响应的过滤器上下文属性，供 {@link HttpUtils#getResponseSize} 和
+ * {@link HttpUtils#getWireSize} 读取，同时累加到 transport.bytes.* 指标；
+ * 从传输层收到响应头到这里读完响应体的耗时计入当前调用的下载阶段
+ */
+public class ResponseSizeFilter implements Filter {
+    // 当前线程正在接收的响应的线路字节数，-1 表示传输层没有计数
+    private static final ThreadLocal<long[]> WIRE_BYTES = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long[] wireBytes = WIRE_BYTES.get();
+        wireBytes[0] = -1;
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        // 读完响应体，传输层在此之前完成线路字节计数
+        byte[] body = response.asByteArray();
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.markBodyRead();
+        }
+        long decoded = body != null ? body.length : 0;
+        long wire = wireBytes[0] >= 0 ? wireBytes[0] : decoded;
+        ContentCoding coding = ContentCoding.from(response.getHeader("Content-Encoding"));
+
+        MetricsRegistry.increment("transport.responses");
+        if (coding != null && coding != ContentCoding.IDENTITY) {
+            MetricsRegistry.increment("transport.responses." + coding.getToken());
+        }
+        MetricsRegistry.add("transport.bytes.wire", wire);
+        MetricsRegistry.add("transport.bytes.decoded", decoded);
+
+        ctx.setValue(HttpUtils.WIRE_BYTES_PROPERTY, wire);
+        ctx.setValue(HttpUtils.DECODED_BYTES_PROPERTY, decoded);
+        HttpUtils.putFilterProperty(response, HttpUtils.WIRE_BYTES_PROPERTY, wire);
+        HttpUtils.putFilterProperty(response, HttpUtils.DECODED_BYTES_PROPERTY, decoded);
+        return response;
+    }
+
+    /**
+     * 包装原始响应流，读取的字节计入当前线程的线路字节数
+     * @param wire 原始响应流（解码之前）
+     * @return 计数流
+     */
+    static InputStream countWireBytes(InputStream wire) {
+        return new FilterInputStream(wire) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    addWireBytes(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    addWireBytes(n);
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                addWireBytes(skipped);
+                return skipped;
+            }
+        };
+    }
+
+    /**
+     * Apache HttpClient 响应拦截器：必须在 Rest Assured 的解压拦截器之前注册，才能看到压缩后的原始实体
+     * @return 拦截器
+     */
+    static HttpResponseInterceptor wireByteCounter() {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                return;
+            }
+            response.setEntity(new HttpEntityWrapper(entity) {
+                @Override
+                public InputStream getContent() throws IOException {
+                    return countWireBytes(super.getContent());
+                }
+
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    try (InputStream in = getContent()) {
+                        in.transferTo(out);
+                    }
+                }
+            });
+        };
+    }
+
+    private static void addWireBytes(long bytes) {
+        long[] wireBytes = WIRE_BYTES.get();
+        wireBytes[0] = Math.max(wireBytes[0], 0) + bytes;
+    }
+}
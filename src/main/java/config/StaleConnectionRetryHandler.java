@@ -0,0 +1,49 @@
+package config;
+
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+import utils.MetricsRegistry;
+
+import java.io.IOException;
+
+/**
+ * HttpClient 内置的重试处理器：只处理从连接池取出的空闲连接已被服务端关闭的情况
+ * <p>
+ * 服务端关闭空闲的 keep-alive 连接与客户端复用该连接之间存在竞争，过期检查无法完全避免，
+ * 此时请求在服务端处理之前就失败，表现为复用连接上的 {@link NoHttpResponseException}（一个字节的响应都没有收到）。
+ * 这种失败对任何方法（包括 POST/PATCH）都可以安全地在新连接上重发一次。
+ * 新建连接上的失败和其它I/O异常不在这里重试，由 ApiHelper 按方法的幂等性决定
+ */
+@SuppressWarnings("deprecation")
+final class StaleConnectionRetryHandler implements HttpRequestRetryHandler {
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        if (executionCount > 1 || !(exception instanceof NoHttpResponseException) || !wasReused(context)) {
+            return false;
+        }
+        MetricsRegistry.increment("transport.stale.retries");
+        return true;
+    }
+
+    /**
+     * 连接在本次请求之前已经发送过请求，说明是从连接池复用的
+     */
+    private static boolean wasReused(HttpContext context) {
+        Object connection = context.getAttribute(ExecutionContext.HTTP_CONNECTION);
+        if (!(connection instanceof HttpConnection)) {
+            return false;
+        }
+        try {
+            HttpConnectionMetrics metrics = ((HttpConnection) connection).getMetrics();
+            return metrics != null && metrics.getRequestCount() > 1;
+        } catch (RuntimeException e) {
+            // 连接已从连接池分离时无法读取统计，按新连接处理
+            return false;
+        }
+    }
+}
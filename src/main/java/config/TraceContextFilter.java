@@ -0,0 +1,32 @@
+package config;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import tracing.Tracer;
+
+/**
+ * 跟踪上下文过滤器：把当前跨度的 W3C traceparent 头加入请求，后端的跨度据此挂到客户端的调用下
+ * <p>
+ * 优先级最高，先于全局的日志、录制回放和传输过滤器执行（请求日志中可以看到该头）；
+ * 重试的每次尝试都以同一个调用跨度为父跨度。没有当前跨度（跟踪关闭或不在 ApiHelper 调用中）时不加
+ */
+public class TraceContextFilter implements OrderedFilter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String traceparent = Tracer.traceparent();
+        if (traceparent != null) {
+            requestSpec.replaceHeader(Tracer.TRACEPARENT_HEADER, traceparent);
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,197 @@
+package config;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import utils.RequestTimings;
+import utils.RequestTimings.Phase;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apache HttpClient 传输层的分阶段计时：连接池租用、建立TCP连接、TLS握手、发送请求和等待响应头，
+ * 耗时计入当前线程的 {@link RequestTimings}（DNS解析由 {@link CachingDnsResolver} 计时，
+ * 下载响应体由 {@link ResponseSizeFilter} 计时）；不在 ApiHelper 调用中时不计时
+ */
+@SuppressWarnings("deprecation")
+final class TransportTimings {
+
+    private TransportTimings() {
+    }
+
+    /**
+     * 默认的 http/https 协议注册表，Socket工厂包装为计时工厂
+     * @return 协议注册表
+     */
+    static SchemeRegistry schemeRegistry() {
+        SchemeRegistry registry = SchemeRegistryFactory.createDefault();
+        for (String name : registry.getSchemeNames()) {
+            Scheme scheme = registry.getScheme(name);
+            SchemeSocketFactory factory = scheme.getSchemeSocketFactory();
+            // 协议是否分层（如 https）由工厂类型决定，包装后须保持一致
+            registry.register(new Scheme(name, scheme.getDefaultPort(), factory instanceof SchemeLayeredSocketFactory
+                    ? new TimedLayeredSocketFactory((SchemeLayeredSocketFactory) factory) : new TimedSocketFactory(factory)));
+        }
+        return registry;
+    }
+
+    /**
+     * 包装连接池的租用请求，等待连接的耗时计入连接池等待阶段
+     * @param request 租用请求
+     * @return 计时的租用请求
+     */
+    static ClientConnectionRequest timeLease(ClientConnectionRequest request) {
+        return new ClientConnectionRequest() {
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.getConnection(timeout, unit);
+                } finally {
+                    add(Phase.POOL_WAIT, start);
+                }
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    /**
+     * 请求执行器：写出请求的耗时计入发送阶段，此后到收到响应头的耗时计入首字节阶段
+     * @return 请求执行器
+     */
+    static HttpRequestExecutor requestExecutor() {
+        return new HttpRequestExecutor() {
+            @Override
+            protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                    throws IOException, HttpException {
+                long start = System.nanoTime();
+                try {
+                    return super.doSendRequest(request, conn, context);
+                } finally {
+                    add(Phase.REQUEST_WRITE, start);
+                }
+            }
+
+            @Override
+            protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                    throws HttpException, IOException {
+                long start = System.nanoTime();
+                try {
+                    return super.doReceiveResponse(request, conn, context);
+                } finally {
+                    add(Phase.TTFB, start);
+                    RequestTimings timings = RequestTimings.current();
+                    if (timings != null) {
+                        timings.markHeadersReceived();
+                    }
+                }
+            }
+        };
+    }
+
+    private static void add(Phase phase, long startNanos) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 记录TCP连接耗时的Socket
+     */
+    private static final class TimedSocket extends Socket {
+        private volatile long connectNanos = -1;
+
+        @Override
+        public void connect(SocketAddress endpoint, int timeout) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.connect(endpoint, timeout);
+            } finally {
+                connectNanos = System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * 计时的Socket工厂：总是先创建普通Socket，https 的工厂在连接后把它包装为TLS连接，
+     * 连接总耗时减去TCP连接耗时即为TLS握手耗时
+     */
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+        final SchemeSocketFactory delegate;
+
+        TimedSocketFactory(SchemeSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpParams params) {
+            return new TimedSocket();
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                long connect = socket instanceof TimedSocket ? ((TimedSocket) socket).connectNanos : -1;
+                RequestTimings timings = RequestTimings.current();
+                if (timings != null) {
+                    timings.add(Phase.CONNECT, connect >= 0 ? Math.min(connect, elapsed) : elapsed);
+                    if (connect >= 0 && delegate instanceof SchemeLayeredSocketFactory) {
+                        timings.add(Phase.TLS, elapsed - connect);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return delegate.isSecure(socket);
+        }
+    }
+
+    /**
+     * 分层协议（https）的计时Socket工厂，经代理隧道建立的TLS连接同样计入TLS握手阶段
+     */
+    private static final class TimedLayeredSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+
+        private TimedLayeredSocketFactory(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return ((SchemeLayeredSocketFactory) delegate).createLayeredSocket(socket, target, port, params);
+            } finally {
+                add(Phase.TLS, start);
+            }
+        }
+    }
+}
@@ -1,24 +1,32 @@
 package models;
 
+import codegen.GenerateSchema;
+import codegen.SchemaConstraint;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Comment模型类，用于表示JSONPlaceholder API中的Comment数据结构
  */
+@GenerateSchema("comment")
 public class Comment {
-    @JsonProperty("id")
+    @JsonProperty(value = "id", required = true)
+    @SchemaConstraint(minimum = 1)
     private Integer id;
     
-    @JsonProperty("postId")
+    @JsonProperty(value = "postId", required = true)
+    @SchemaConstraint(minimum = 1)
     private Integer postId;
     
-    @JsonProperty("name")
+    @JsonProperty(value = "name", required = true)
+    @SchemaConstraint(minLength = 1)
     private String name;
     
-    @JsonProperty("email")
+    @JsonProperty(value = "email", required = true)
+    @SchemaConstraint(minLength = 1)
     private String email;
     
-    @JsonProperty("body")
+    @JsonProperty(value = "body", required = true)
+    @SchemaConstraint(minLength = 1)
     private String body;
     
     // 默认构造函数
@@ -0,0 +1,107 @@
+package models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import utils.JsonUtils.IntColumns;
+
+/**
+ * Comment的紧凑只读模型，使用基本类型ID和构造函数绑定，适用于大批量数据验证
+ * 缺失或为null的ID保存为 {@link IntColumns#MISSING}，转换回Comment时还原为null
+ */
+public final class CompactComment {
+    private final int id;
+    private final int postId;
+    private final String name;
+    private final String email;
+    private final String body;
+
+    @JsonCreator
+    public CompactComment(@JsonProperty("id") Integer id,
+                          @JsonProperty("postId") Integer postId,
+                          @JsonProperty("name") String name,
+                          @JsonProperty("email") String email,
+                          @JsonProperty("body") String body) {
+        this.id = IntColumns.orMissing(id);
+        this.postId = IntColumns.orMissing(postId);
+        this.name = name;
+        this.email = email;
+        this.body = body;
+    }
+
+    /**
+     * 从Comment对象转换
+     * @param comment Comment对象
+     * @return CompactComment对象
+     */
+    public static CompactComment from(Comment comment) {
+        return new CompactComment(
+                comment.getId(),
+                comment.getPostId(),
+                comment.getName(),
+                comment.getEmail(),
+                comment.getBody());
+    }
+
+    /**
+     * 转换为Comment对象
+     * @return Comment对象
+     */
+    public Comment toComment() {
+        return new Comment(IntColumns.toInteger(id), IntColumns.toInteger(postId), name, email, body);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getPostId() {
+        return postId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactComment{" +
+                "id=" + id +
+                ", postId=" + postId +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                ", body='" + body + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CompactComment that = (CompactComment) o;
+
+        if (id != that.id) return false;
+        if (postId != that.postId) return false;
+        if (name != null ? !name.equals(that.name) : that.name != null) return false;
+        if (email != null ? !email.equals(that.email) : that.email != null) return false;
+        return body != null ? body.equals(that.body) : that.body == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id;
+        result = 31 * result + postId;
+        result = 31 * result + (name != null ? name.hashCode() : 0);
+        result = 31 * result + (email != null ? email.hashCode() : 0);
+        result = 31 * result + (body != null ? body.hashCode() : 0);
+        return result;
+    }
+}
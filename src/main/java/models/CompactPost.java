@@ -0,0 +1,96 @@
+package models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import utils.JsonUtils.IntColumns;
+
+/**
+ * Post的紧凑只读模型，使用基本类型ID和构造函数绑定，适用于大批量数据验证
+ * 缺失或为null的ID保存为 {@link IntColumns#MISSING}，转换回Post时还原为null
+ */
+public final class CompactPost {
+    private final int id;
+    private final int userId;
+    private final String title;
+    private final String body;
+
+    @JsonCreator
+    public CompactPost(@JsonProperty("id") Integer id,
+                       @JsonProperty("userId") Integer userId,
+                       @JsonProperty("title") String title,
+                       @JsonProperty("body") String body) {
+        this.id = IntColumns.orMissing(id);
+        this.userId = IntColumns.orMissing(userId);
+        this.title = title;
+        this.body = body;
+    }
+
+    /**
+     * 从Post对象转换
+     * @param post Post对象
+     * @return CompactPost对象
+     */
+    public static CompactPost from(Post post) {
+        return new CompactPost(
+                post.getId(),
+                post.getUserId(),
+                post.getTitle(),
+                post.getBody());
+    }
+
+    /**
+     * 转换为Post对象
+     * @return Post对象
+     */
+    public Post toPost() {
+        return new Post(IntColumns.toInteger(id), IntColumns.toInteger(userId), title, body);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactPost{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", title='" + title + '\'' +
+                ", body='" + body + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CompactPost that = (CompactPost) o;
+
+        if (id != that.id) return false;
+        if (userId != that.userId) return false;
+        if (title != null ? !title.equals(that.title) : that.title != null) return false;
+        return body != null ? body.equals(that.body) : that.body == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id;
+        result = 31 * result + userId;
+        result = 31 * result + (title != null ? title.hashCode() : 0);
+        result = 31 * result + (body != null ? body.hashCode() : 0);
+        return result;
+    }
+}
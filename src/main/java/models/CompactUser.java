@@ -0,0 +1,197 @@
+package models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import utils.JsonUtils.IntColumns;
+import utils.StringPool;
+
+/**
+ * User的紧凑只读模型，适用于大批量数据验证
+ * 嵌套的Address/Geo/Company在绑定时被展平为字段；在用户之间重复出现的城市和公司名通过StringPool去重，
+ * 每个用户各不相同的字段（街道、邮编、网站、公司口号等）不进入池；缺失或为null的ID保存为 {@link IntColumns#MISSING}
+ */
+public final class CompactUser {
+    private final int id;
+    private final String name;
+    private final String username;
+    private final String email;
+    private final String phone;
+    private final String website;
+
+    // 地址（展平）
+    private final String street;
+    private final String suite;
+    private final String city;
+    private final String zipcode;
+    private final String lat;
+    private final String lng;
+
+    // 公司（展平）
+    private final String companyName;
+    private final String catchPhrase;
+    private final String bs;
+
+    private CompactUser(int id, String name, String username, String email, String phone, String website,
+                        String street, String suite, String city, String zipcode, String lat, String lng,
+                        String companyName, String catchPhrase, String bs) {
+        StringPool pool = StringPool.shared();
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.email = email;
+        this.phone = phone;
+        this.website = website;
+        this.street = street;
+        this.suite = suite;
+        this.city = pool.dedup(city);
+        this.zipcode = zipcode;
+        this.lat = lat;
+        this.lng = lng;
+        this.companyName = pool.dedup(companyName);
+        this.catchPhrase = catchPhrase;
+        this.bs = bs;
+    }
+
+    /**
+     * JSON绑定入口，嵌套对象仅作为临时载体，绑定后立即展平
+     */
+    @JsonCreator
+    public static CompactUser of(@JsonProperty("id") Integer id,
+                                 @JsonProperty("name") String name,
+                                 @JsonProperty("username") String username,
+                                 @JsonProperty("email") String email,
+                                 @JsonProperty("address") User.Address address,
+                                 @JsonProperty("phone") String phone,
+                                 @JsonProperty("website") String website,
+                                 @JsonProperty("company") User.Company company) {
+        User.Geo geo = address != null ? address.getGeo() : null;
+        return new CompactUser(IntColumns.orMissing(id), name, username, email, phone, website,
+                address != null ? address.getStreet() : null,
+                address != null ? address.getSuite() : null,
+                address != null ? address.getCity() : null,
+                address != null ? address.getZipcode() : null,
+                geo != null ? geo.getLat() : null,
+                geo != null ? geo.getLng() : null,
+                company != null ? company.getName() : null,
+                company != null ? company.getCatchPhrase() : null,
+                company != null ? company.getBs() : null);
+    }
+
+    /**
+     * 从User对象转换
+     * @param user User对象
+     * @return CompactUser对象
+     */
+    public static CompactUser from(User user) {
+        return of(user.getId(), user.getName(), user.getUsername(), user.getEmail(),
+                user.getAddress(), user.getPhone(), user.getWebsite(), user.getCompany());
+    }
+
+    /**
+     * 转换为User对象（重建嵌套结构）
+     * @return User对象
+     */
+    public User toUser() {
+        User user = new User(name, username, email);
+        user.setId(IntColumns.toInteger(id));
+        user.setPhone(phone);
+        user.setWebsite(website);
+
+        if (street != null || suite != null || city != null || zipcode != null || lat != null || lng != null) {
+            User.Address address = new User.Address();
+            address.setStreet(street);
+            address.setSuite(suite);
+            address.setCity(city);
+            address.setZipcode(zipcode);
+            if (lat != null || lng != null) {
+                User.Geo geo = new User.Geo();
+                geo.setLat(lat);
+                geo.setLng(lng);
+                address.setGeo(geo);
+            }
+            user.setAddress(address);
+        }
+
+        if (companyName != null || catchPhrase != null || bs != null) {
+            User.Company company = new User.Company();
+            company.setName(companyName);
+            company.setCatchPhrase(catchPhrase);
+            company.setBs(bs);
+            user.setCompany(company);
+        }
+
+        return user;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getWebsite() {
+        return website;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public String getSuite() {
+        return suite;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getZipcode() {
+        return zipcode;
+    }
+
+    public String getLat() {
+        return lat;
+    }
+
+    public String getLng() {
+        return lng;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public String getCatchPhrase() {
+        return catchPhrase;
+    }
+
+    public String getBs() {
+        return bs;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactUser{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", username='" + username + '\'' +
+                ", email='" + email + '\'' +
+                ", city='" + city + '\'' +
+                ", companyName='" + companyName + '\'' +
+                '}';
+    }
+}
@@ -1,21 +1,28 @@
 package models;
 
+import codegen.GenerateSchema;
+import codegen.SchemaConstraint;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Post模型类，用于表示JSONPlaceholder API中的Post数据结构
  */
+@GenerateSchema("post")
 public class Post {
-    @JsonProperty("id")
+    @JsonProperty(value = "id", required = true)
+    @SchemaConstraint(minimum = 1)
     private Integer id;
     
-    @JsonProperty("userId")
+    @JsonProperty(value = "userId", required = true)
+    @SchemaConstraint(minimum = 1)
     private Integer userId;
     
-    @JsonProperty("title")
+    @JsonProperty(value = "title", required = true)
+    @SchemaConstraint(minLength = 1)
     private String title;
     
-    @JsonProperty("body")
+    @JsonProperty(value = "body", required = true)
+    @SchemaConstraint(minLength = 1)
     private String body;
     
     // 默认构造函数
@@ -1,33 +1,40 @@
 package models;
 
+import codegen.GenerateSchema;
+import codegen.SchemaConstraint;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * User模型类，用于表示JSONPlaceholder API中的User数据结构
  */
+@GenerateSchema("user")
 public class User {
-    @JsonProperty("id")
+    @JsonProperty(value = "id", required = true)
+    @SchemaConstraint(minimum = 1)
     private Integer id;
     
-    @JsonProperty("name")
+    @JsonProperty(value = "name", required = true)
+    @SchemaConstraint(minLength = 1)
     private String name;
     
-    @JsonProperty("username")
+    @JsonProperty(value = "username", required = true)
+    @SchemaConstraint(minLength = 1)
     private String username;
     
-    @JsonProperty("email")
+    @JsonProperty(value = "email", required = true)
+    @SchemaConstraint(minLength = 1)
     private String email;
     
-    @JsonProperty("address")
+    @JsonProperty(value = "address", required = true)
     private Address address;
     
-    @JsonProperty("phone")
+    @JsonProperty(value = "phone", required = true)
     private String phone;
     
-    @JsonProperty("website")
+    @JsonProperty(value = "website", required = true)
     private String website;
     
-    @JsonProperty("company")
+    @JsonProperty(value = "company", required = true)
     private Company company;
     
     // 默认构造函数
@@ -121,19 +128,19 @@ public class User {
     
     // 内部类：地址
     public static class Address {
-        @JsonProperty("street")
+        @JsonProperty(value = "street", required = true)
         private String street;
         
-        @JsonProperty("suite")
+        @JsonProperty(value = "suite", required = true)
         private String suite;
         
-        @JsonProperty("city")
+        @JsonProperty(value = "city", required = true)
         private String city;
         
-        @JsonProperty("zipcode")
+        @JsonProperty(value = "zipcode", required = true)
         private String zipcode;
         
-        @JsonProperty("geo")
+        @JsonProperty(value = "geo", required = true)
         private Geo geo;
         
         // Getter和Setter方法
@@ -191,10 +198,10 @@ public class User {
     
     // 内部类：地理位置
     public static class Geo {
-        @JsonProperty("lat")
+        @JsonProperty(value = "lat", required = true)
         private String lat;
         
-        @JsonProperty("lng")
+        @JsonProperty(value = "lng", required = true)
         private String lng;
         
         public String getLat() {
@@ -224,13 +231,13 @@ public class User {
     
     // 内部类：公司
     public static class Company {
-        @JsonProperty("name")
+        @JsonProperty(value = "name", required = true)
         private String name;
         
-        @JsonProperty("catchPhrase")
+        @JsonProperty(value = "catchPhrase", required = true)
         private String catchPhrase;
         
-        @JsonProperty("bs")
+        @JsonProperty(value = "bs", required = true)
         private String bs;
         
         public String getName() {
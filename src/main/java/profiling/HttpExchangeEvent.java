@@ -0,0 +1,44 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR事件：一次 ApiHelper 调用（包括重试），持续时间为整个调用的耗时
+ */
+@Name("apitest.HttpExchange")
+@Label("HTTP Exchange")
+@Category({"API Tests", "HTTP"})
+@Description("一次 ApiHelper 调用（包括重试）")
+public class HttpExchangeEvent extends jdk.jfr.Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("端点模板，如 /posts/{id}")
+    public String endpoint;
+
+    @Label("Status")
+    @Description("最后一次尝试的状态码，没有得到响应时为0")
+    public int status;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Response Size")
+    @Description("解码后的响应体大小")
+    @DataAmount(DataAmount.BYTES)
+    public long responseBytes;
+
+    @Label("Wire Size")
+    @Description("线路上传输的响应体大小，压缩时小于解码后的大小")
+    @DataAmount(DataAmount.BYTES)
+    public long wireBytes;
+
+    @Label("Error")
+    @Description("调用抛出的异常类型，成功时为空")
+    public String error;
+}
@@ -0,0 +1,29 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR事件：JSON解析并绑定到模型（JsonUtils 的反序列化方法）
+ */
+@Name("apitest.JsonParse")
+@Label("JSON Parse")
+@Category({"API Tests", "JSON"})
+@Description("JSON解析并绑定到模型")
+public class JsonParseEvent extends jdk.jfr.Event {
+    @Label("Type")
+    @Description("绑定的类型，如 Post、List<Post>、JsonNode")
+    public String type;
+
+    @Label("Size")
+    @Description("输入大小：字节数组和缓冲区为字节数，字符串为字符数")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Elements")
+    @Description("解析出的元素数：列表和数组为元素个数，单个对象为1")
+    public int elements;
+}
@@ -0,0 +1,159 @@
+package profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 客户端资源用量：按线程统计的CPU时间和分配字节数（基于 {@link ThreadMXBean}）
+ * <p>
+ * 一个用量对象代表一个测试，由 {@link #begin()} 绑定到测试线程；测试提交到其它线程的工作
+ * （ApiHelper.batch 的工作线程、PagedStream 的预取线程、RequestPipeline 的各阶段线程）通过 {@link #attribute}
+ * 把该线程上的用量计入同一个对象。
+ * JVM 不支持线程CPU时间或分配统计时对应的值为-1
+ */
+public final class ResourceUsage {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = THREADS instanceof com.sun.management.ThreadMXBean
+            ? (com.sun.management.ThreadMXBean) THREADS : null;
+    private static final boolean CPU_TIME_SUPPORTED = enableCpuTime();
+    private static final boolean ALLOCATION_SUPPORTED = enableAllocation();
+    private static final ThreadLocal<ResourceUsage> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final long startCpu;
+    private final long startAllocated;
+    private volatile boolean ended;
+
+    private ResourceUsage() {
+        this.startCpu = threadCpuNanos();
+        this.startAllocated = threadAllocatedBytes();
+    }
+
+    /**
+     * 开始统计当前线程的用量，并绑定到当前线程
+     * @return 用量
+     */
+    public static ResourceUsage begin() {
+        ResourceUsage usage = new ResourceUsage();
+        CURRENT.set(usage);
+        return usage;
+    }
+
+    /**
+     * @return 当前线程绑定的用量，没有时为null
+     */
+    public static ResourceUsage current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在其它线程上执行工作，并把该线程上的CPU时间和分配计入用量
+     * @param usage 用量（null时直接执行）
+     * @param work 工作
+     * @param <T> 返回类型
+     * @return 工作的返回值
+     */
+    public static <T> T attribute(ResourceUsage usage, Supplier<T> work) {
+        if (usage == null || usage.ended) {
+            return work.get();
+        }
+        long cpu = threadCpuNanos();
+        long allocated = threadAllocatedBytes();
+        ResourceUsage previous = CURRENT.get();
+        CURRENT.set(usage);
+        try {
+            return work.get();
+        } finally {
+            usage.add(cpu, allocated);
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * 结束统计：计入当前线程自 {@link #begin()} 以来的用量并解除绑定，此后其它线程的用量不再计入
+     */
+    public void end() {
+        add(startCpu, startAllocated);
+        ended = true;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    private void add(long cpuStart, long allocatedStart) {
+        if (cpuStart >= 0) {
+            cpuNanos.add(Math.max(0, threadCpuNanos() - cpuStart));
+        }
+        if (allocatedStart >= 0) {
+            allocatedBytes.add(Math.max(0, threadAllocatedBytes() - allocatedStart));
+        }
+    }
+
+    /**
+     * @return CPU时间（纳秒），不支持时为-1
+     */
+    public long getCpuNanos() {
+        return CPU_TIME_SUPPORTED ? cpuNanos.sum() : -1;
+    }
+
+    /**
+     * @return 分配的字节数，不支持时为-1
+     */
+    public long getAllocatedBytes() {
+        return ALLOCATION_SUPPORTED ? allocatedBytes.sum() : -1;
+    }
+
+    /**
+     * @return 当前线程累计的CPU时间（纳秒），不支持时为-1
+     */
+    public static long threadCpuNanos() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return 当前线程累计分配的字节数，不支持时为-1
+     */
+    public static long threadAllocatedBytes() {
+        return ALLOCATION_SUPPORTED ? ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    public static boolean isCpuTimeSupported() {
+        return CPU_TIME_SUPPORTED;
+    }
+
+    public static boolean isAllocationSupported() {
+        return ALLOCATION_SUPPORTED;
+    }
+
+    private static boolean enableCpuTime() {
+        try {
+            if (THREADS.isCurrentThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+            return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static boolean enableAllocation() {
+        try {
+            if (ALLOCATIONS == null || !ALLOCATIONS.isThreadAllocatedMemorySupported()) {
+                return false;
+            }
+            if (!ALLOCATIONS.isThreadAllocatedMemoryEnabled()) {
+                ALLOCATIONS.setThreadAllocatedMemoryEnabled(true);
+            }
+            return ALLOCATIONS.isThreadAllocatedMemoryEnabled();
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR事件：一个测试方法的执行，附带测试线程（及其提交的批量请求）的CPU时间和分配字节数
+ */
+@Name("apitest.Test")
+@Label("Test")
+@Category({"API Tests"})
+@Description("一个测试方法的执行")
+@StackTrace(false)
+public class TestEvent extends jdk.jfr.Event {
+    @Label("Test")
+    public String test;
+
+    @Label("Status")
+    public String status;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    public long allocated;
+}
@@ -0,0 +1,22 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR事件：一次响应数据验证
+ */
+@Name("apitest.Validation")
+@Label("Validation")
+@Category({"API Tests", "Validation"})
+@Description("一次响应数据验证")
+public class ValidationEvent extends jdk.jfr.Event {
+    @Label("Validator")
+    public String validator;
+
+    @Label("Elements")
+    @Description("验证的元素数：列表为元素个数，单个对象为1")
+    public int elements;
+}
@@ -0,0 +1,90 @@
+package tracing;
+
+import utils.LogUtils;
+import utils.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 批量导出已结束的跨度：跨度进入有界队列，后台线程每隔 delayMillis 或攒够一批时导出；
+ * 队列满时丢弃新跨度（计入 tracing.spans.dropped），导出不会阻塞测试线程
+ */
+final class BatchSpanProcessor {
+    private final SpanExporter exporter;
+    private final BlockingQueue<Span> queue;
+    private final int batchSize;
+    private final long delayMillis;
+    private final Object signal = new Object();
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    /**
+     * @param exporter 导出器
+     * @param queueSize 队列容量
+     * @param batchSize 每批最多的跨度数
+     * @param delayMillis 两次导出的最大间隔（毫秒）
+     */
+    BatchSpanProcessor(SpanExporter exporter, int queueSize, int batchSize, long delayMillis) {
+        this.exporter = exporter;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.batchSize = Math.max(1, batchSize);
+        this.delayMillis = Math.max(1, delayMillis);
+        Thread worker = new Thread(this::run, "trace-exporter");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void add(Span span) {
+        if (!queue.offer(span)) {
+            MetricsRegistry.increment("tracing.spans.dropped");
+            return;
+        }
+        if (queue.size() >= batchSize) {
+            synchronized (signal) {
+                signal.notify();
+            }
+        }
+    }
+
+    /**
+     * 在调用线程上导出队列中的全部跨度
+     */
+    synchronized void flush() {
+        List<Span> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            export(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                synchronized (signal) {
+                    if (queue.size() < batchSize) {
+                        signal.wait(delayMillis);
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            flush();
+        }
+    }
+
+    private void export(List<Span> batch) {
+        try {
+            exporter.export(batch);
+            MetricsRegistry.add("tracing.spans.exported", batch.size());
+        } catch (Exception e) {
+            MetricsRegistry.add("tracing.spans.failed", batch.size());
+            // 接收端不可用时每批都会失败，只提示一次
+            if (warned.compareAndSet(false, true)) {
+                LogUtils.logWarning("导出跨度失败（后续失败只计入 tracing.spans.failed）: " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package tracing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把跨度按 OTLP/JSON 追加写入文件，每批一行（与 OpenTelemetry Collector 文件导出器的格式相同，
+ * 可由 otlpjsonfile 接收器导入）；文件在首次导出时清空，只保留本次运行的跨度
+ */
+public class FileSpanExporter implements SpanExporter {
+    private final Path file;
+    private final Map<String, Object> resource;
+    private boolean truncated;
+
+    /**
+     * @param file 输出文件
+     * @param resource 资源属性
+     */
+    public FileSpanExporter(Path file, Map<String, Object> resource) {
+        this.file = file;
+        this.resource = resource;
+    }
+
+    @Override
+    public void export(List<Span> spans) throws IOException {
+        byte[] line = (OtlpJson.encode(spans, resource) + "\n").getBytes(StandardCharsets.UTF_8);
+        if (!truncated) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, line);
+            truncated = true;
+        } else {
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
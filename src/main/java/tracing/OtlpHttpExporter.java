@@ -0,0 +1,51 @@
+package tracing;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 通过 OTLP/HTTP（JSON 编码）把跨度发送到 Collector，如 http://localhost:4318/v1/traces
+ */
+public class OtlpHttpExporter implements SpanExporter {
+    private final URI endpoint;
+    private final Duration timeout;
+    private final Map<String, Object> resource;
+    private final HttpClient client;
+
+    /**
+     * @param endpoint 接收地址
+     * @param timeoutMillis 连接和请求超时（毫秒）
+     * @param resource 资源属性
+     */
+    public OtlpHttpExporter(String endpoint, int timeoutMillis, Map<String, Object> resource) {
+        this.endpoint = URI.create(endpoint);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.resource = resource;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void export(List<Span> spans) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(OtlpJson.encode(spans, resource)))
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("发送跨度时被中断", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("OTLP 接收端返回 " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
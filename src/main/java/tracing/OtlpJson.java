@@ -0,0 +1,84 @@
+package tracing;
+
+import utils.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 OTLP/JSON 编码跨度（ExportTraceServiceRequest）：ID为十六进制字符串，64位整数为十进制字符串，
+ * 枚举为数值，OpenTelemetry Collector 的 OTLP/HTTP 接收器和 otlpjsonfile 接收器都能读取
+ */
+final class OtlpJson {
+    private static final String SCOPE = "api-tests";
+
+    private OtlpJson() {
+    }
+
+    /**
+     * @param spans 跨度
+     * @param resource 资源属性（如 service.name）
+     * @return 一行JSON
+     */
+    static String encode(List<Span> spans, Map<String, Object> resource) {
+        List<Object> encoded = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            encoded.add(span(span));
+        }
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Map.of("name", SCOPE));
+        scopeSpans.put("spans", encoded);
+
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Map.of("attributes", attributes(resource)));
+        resourceSpans.put("scopeSpans", List.of(scopeSpans));
+        return JsonUtils.toJson(Map.of("resourceSpans", List.of(resourceSpans)));
+    }
+
+    private static Map<String, Object> span(Span span) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("traceId", span.getTraceId());
+        values.put("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            values.put("parentSpanId", span.getParentSpanId());
+        }
+        values.put("name", span.getName());
+        values.put("kind", span.getKind().getCode());
+        values.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        values.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        values.put("attributes", attributes(span.getAttributes()));
+        if (span.isError()) {
+            // STATUS_CODE_ERROR；成功的跨度保持 UNSET
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("code", 2);
+            if (span.getStatusMessage() != null) {
+                status.put("message", span.getStatusMessage());
+            }
+            values.put("status", status);
+        }
+        return values;
+    }
+
+    private static List<Object> attributes(Map<String, Object> attributes) {
+        List<Object> encoded = new ArrayList<>(attributes.size());
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            encoded.add(Map.of("key", entry.getKey(), "value", value(entry.getValue())));
+        }
+        return encoded;
+    }
+
+    private static Map<String, Object> value(Object value) {
+        if (value instanceof Boolean) {
+            return Map.of("boolValue", value);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return Map.of("intValue", value.toString());
+        }
+        if (value instanceof Number) {
+            return Map.of("doubleValue", ((Number) value).doubleValue());
+        }
+        return Map.of("stringValue", String.valueOf(value));
+    }
+}
@@ -0,0 +1,182 @@
+package tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 跨度（span）：一次操作的起止时间、属性和状态，字段与 OpenTelemetry 的跨度模型一致
+ * <p>
+ * 由 {@link Tracer#startSpan} 创建并成为当前线程的当前跨度，{@link #end()} 后恢复为父跨度。
+ * 未采样的跨度只有ID，用于向后端传递上下文，不记录属性、不导出
+ */
+public final class Span {
+    /** 跟踪关闭时返回的无效跨度：不成为当前跨度，也不传递上下文 */
+    static final Span INVALID = new Span("00000000000000000000000000000000", "0000000000000000", null, "", Kind.INTERNAL, false, null);
+
+    /**
+     * 跨度类型，取值与 OTLP 的 SpanKind 相同
+     */
+    public enum Kind {
+        /** 进程内的操作，如一个测试方法 */
+        INTERNAL(1),
+        /** 发往后端的请求 */
+        CLIENT(3);
+
+        private final int code;
+
+        Kind(int code) {
+            this.code = code;
+        }
+
+        int getCode() {
+            return code;
+        }
+    }
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final boolean sampled;
+    // 成为当前跨度之前的当前跨度，结束时恢复
+    private final Span previous;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes;
+    private volatile long endEpochNanos;
+    private volatile boolean error;
+    private volatile String statusMessage;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, Kind kind, boolean sampled, Span previous) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.previous = previous;
+        this.startEpochNanos = Tracer.epochNanos();
+        this.attributes = sampled ? Collections.synchronizedMap(new LinkedHashMap<>()) : Collections.emptyMap();
+    }
+
+    /**
+     * 设置属性（属性名采用 OpenTelemetry 语义约定，如 http.response.status_code），未采样时忽略
+     * @param key 属性名
+     * @param value 属性值（字符串、整数、浮点数或布尔值），null时忽略
+     * @return 当前跨度
+     */
+    public Span setAttribute(String key, Object value) {
+        if (sampled && value != null && endEpochNanos == 0) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * 标记为失败
+     * @param type 错误类型（记入 error.type 属性）
+     * @param message 状态说明（可为null）
+     * @return 当前跨度
+     */
+    public Span setError(String type, String message) {
+        if (sampled) {
+            error = true;
+            statusMessage = message;
+            setAttribute("error.type", type);
+        }
+        return this;
+    }
+
+    /**
+     * 结束跨度：恢复当前线程的父跨度，已采样时交给导出器；重复调用无效
+     */
+    public void end() {
+        if (this == INVALID || endEpochNanos != 0) {
+            return;
+        }
+        endEpochNanos = Tracer.epochNanos();
+        Tracer.ended(this);
+    }
+
+    /**
+     * @return W3C traceparent 头的值：00-{trace-id}-{parent-id}-{flags}
+     */
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return 父跨度ID，根跨度为null
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return 是否采样（记录属性并导出）
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return 是否是有效跨度（跟踪关闭时为false）
+     */
+    public boolean isValid() {
+        return this != INVALID;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * @return 结束时间（纪元纳秒），未结束时为0
+     */
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    /**
+     * @return 属性的副本
+     */
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    Span getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + toTraceparent();
+    }
+}
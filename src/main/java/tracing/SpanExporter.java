@@ -0,0 +1,17 @@
+package tracing;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 跨度导出器，由 {@link BatchSpanProcessor} 在单个线程上按批调用
+ */
+public interface SpanExporter {
+
+    /**
+     * 导出一批已结束的跨度
+     * @param spans 跨度
+     * @throws IOException 导出失败时（该批跨度丢弃）
+     */
+    void export(List<Span> spans) throws IOException;
+}
@@ -0,0 +1,197 @@
+package tracing;
+
+import config.ConfigManager;
+import utils.LogUtils;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 轻量的跟踪器，产生与 OpenTelemetry 兼容的跨度（W3C Trace Context 的ID和 traceparent 头、OTLP/JSON 导出），
+ * 不依赖 OpenTelemetry SDK
+ * <p>
+ * 当前跨度按线程保存：{@link #startSpan} 创建当前跨度的子跨度并使其成为当前跨度，跨度结束时恢复；
+ * 提交到其它线程的工作通过 {@link #withParent} 沿用提交方的跨度。
+ * <p>
+ * 采样在根跨度上按 tracing.sample.ratio 决定（与 OpenTelemetry 的 TraceIdRatioBased 算法相同），子跨度沿用父跨度的决定。
+ * 未采样的跨度仍然产生ID并传递给后端（flags=00），但不记录属性、不导出，开销只有生成ID。
+ * 已采样的跨度结束后进入 {@link BatchSpanProcessor} 批量导出到 tracing.exporter 指定的位置
+ */
+public final class Tracer {
+    /** W3C Trace Context 请求头 */
+    public static final String TRACEPARENT_HEADER = "traceparent";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    // 纪元纳秒 = System.nanoTime() + 偏移，跨度时间只需要单调且与墙钟大致对齐
+    private static final long EPOCH_OFFSET_NANOS = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    private static final boolean ENABLED;
+    private static final long SAMPLE_BOUND;
+    private static final BatchSpanProcessor PROCESSOR;
+
+    static {
+        ConfigManager configManager = ConfigManager.getInstance();
+        ENABLED = configManager.getBooleanProperty("tracing.enabled", true);
+        SAMPLE_BOUND = sampleBound(configManager.getTypedProperty("tracing.sample.ratio", Double.class, 1.0));
+        SpanExporter exporter = ENABLED ? createExporter(configManager) : null;
+        PROCESSOR = exporter != null ? new BatchSpanProcessor(exporter,
+                configManager.getIntProperty("tracing.queue.size", 4096),
+                configManager.getIntProperty("tracing.batch.size", 512),
+                configManager.getIntProperty("tracing.batch.delay.ms", 2000)) : null;
+        if (PROCESSOR != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(PROCESSOR::flush, "trace-flush"));
+        }
+    }
+
+    private Tracer() {
+    }
+
+    /**
+     * 创建当前跨度的子跨度（没有当前跨度时创建根跨度并决定是否采样），并使其成为当前跨度
+     * @param name 跨度名
+     * @param kind 跨度类型
+     * @return 跨度，跟踪关闭时为不传递上下文的无效跨度；调用方必须调用 {@link Span#end()}
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        if (!ENABLED) {
+            return Span.INVALID;
+        }
+        Span parent = CURRENT.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Span span;
+        if (parent != null) {
+            span = new Span(parent.getTraceId(), spanId(random), parent.getSpanId(), name, kind, parent.isSampled(), parent);
+        } else {
+            long high = random.nextLong();
+            long low = nonZero(random.nextLong());
+            span = new Span(hex(high) + hex(low), spanId(random), null, name, kind, Math.abs(low) < SAMPLE_BOUND, null);
+        }
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * @return 当前线程的当前跨度，没有时为null
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 当前跨度的 traceparent 头，没有当前跨度时为null
+     */
+    public static String traceparent() {
+        Span span = CURRENT.get();
+        return span != null ? span.toTraceparent() : null;
+    }
+
+    /**
+     * 以指定跨度为当前跨度执行工作（工作中创建的跨度成为它的子跨度），结束后恢复原来的当前跨度
+     * @param parent 父跨度（null时直接执行）
+     * @param work 工作
+     * @param <T> 返回类型
+     * @return 工作的返回值
+     */
+    public static <T> T withParent(Span parent, Supplier<T> work) {
+        if (parent == null || !parent.isValid()) {
+            return work.get();
+        }
+        Span previous = CURRENT.get();
+        CURRENT.set(parent);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * 同步导出所有已结束但尚未导出的跨度
+     */
+    public static void flush() {
+        if (PROCESSOR != null) {
+            PROCESSOR.flush();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static void ended(Span span) {
+        if (CURRENT.get() == span) {
+            Span previous = span.getPrevious();
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        if (span.isSampled() && PROCESSOR != null) {
+            PROCESSOR.add(span);
+        }
+    }
+
+    static long epochNanos() {
+        return System.nanoTime() + EPOCH_OFFSET_NANOS;
+    }
+
+    /**
+     * 按 tracing.exporter 创建导出器：file（默认，OTLP/JSON 行写入 tracing.file）、otlp（OTLP/HTTP 发送到
+     * tracing.otlp.endpoint）或 none（只传递上下文，不导出）
+     */
+    private static SpanExporter createExporter(ConfigManager configManager) {
+        Map<String, Object> resource = new LinkedHashMap<>();
+        resource.put("service.name", configManager.getProperty("tracing.service.name", "api-tests"));
+        resource.put("deployment.environment", configManager.getEnvironment());
+        resource.put("telemetry.sdk.language", "java");
+
+        String exporter = configManager.getProperty("tracing.exporter", "file").trim();
+        switch (exporter) {
+            case "file":
+                String file = configManager.getProperty("tracing.file", "").trim();
+                return new FileSpanExporter(file.isEmpty()
+                        ? Paths.get(configManager.getProperty("report.path", "target/reports"), "traces.jsonl") : Paths.get(file), resource);
+            case "otlp":
+                return new OtlpHttpExporter(configManager.getProperty("tracing.otlp.endpoint", "http://localhost:4318/v1/traces"),
+                        configManager.getIntProperty("tracing.otlp.timeout.ms", 5000), resource);
+            case "none":
+                return null;
+            default:
+                LogUtils.logWarning("未知的 tracing.exporter: " + exporter + "，跨度不导出");
+                return null;
+        }
+    }
+
+    /**
+     * 采样上界：trace-id 低64位的绝对值小于该值时采样
+     */
+    private static long sampleBound(double ratio) {
+        if (ratio <= 0) {
+            return Long.MIN_VALUE;
+        }
+        if (ratio >= 1) {
+            return Long.MAX_VALUE;
+        }
+        return (long) (ratio * Long.MAX_VALUE);
+    }
+
+    private static String spanId(ThreadLocalRandom random) {
+        return hex(nonZero(random.nextLong()));
+    }
+
+    private static long nonZero(long value) {
+        return value != 0 ? value : 1;
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return digits.length() == 16 ? digits : "0000000000000000".substring(digits.length()) + digits;
+    }
+}
@@ -1,5 +1,6 @@
 package utils;
 
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
 import io.restassured.response.Response;
 import org.apache.commons.lang3.StringUtils;
 
@@ -10,6 +11,10 @@ import java.util.Map;
  * HTTP工具类，用于处理HTTP相关的通用操作
  */
 public class HttpUtils {
+    /** 响应的线路字节数（过滤器上下文属性，由 config.ResponseSizeFilter 写入） */
+    public static final String WIRE_BYTES_PROPERTY = "http.bytes.wire";
+    /** 响应解码后的字节数（过滤器上下文属性，由 config.ResponseSizeFilter 写入） */
+    public static final String DECODED_BYTES_PROPERTY = "http.bytes.decoded";
     
     /**
      * 检查HTTP状态码类型
@@ -164,13 +169,70 @@ public class HttpUtils {
     }
     
     /**
-     * 获取响应大小（字节）
+     * 获取响应大小（解码后的字节数）
      * @param response 响应对象
      * @return 响应大小
      */
     public static long getResponseSize(Response response) {
-        String responseBody = response.getBody().asString();
-        return responseBody != null ? responseBody.getBytes().length : 0;
+        Long size = getSizeProperty(response, DECODED_BYTES_PROPERTY);
+        if (size != null) {
+            return size;
+        }
+        byte[] responseBody = response.getBody().asByteArray();
+        return responseBody != null ? responseBody.length : 0;
+    }
+    
+    /**
+     * 获取响应在线路上的大小（压缩后的字节数，不含响应头），未经过传输层计数（如回放的响应）时等于解码后的大小
+     * @param response 响应对象
+     * @return 线路字节数
+     */
+    public static long getWireSize(Response response) {
+        Long size = getSizeProperty(response, WIRE_BYTES_PROPERTY);
+        return size != null ? size : getResponseSize(response);
+    }
+    
+    private static Long getSizeProperty(Response response, String name) {
+        Object value = getFilterProperty(response, name);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+    
+    /**
+     * 读取附加在响应上的过滤器上下文属性
+     * @param response 响应对象
+     * @param name 属性名
+     * @return 属性值，不存在或响应不支持属性时为null
+     */
+    public static Object getFilterProperty(Response response, String name) {
+        if (response instanceof RestAssuredResponseOptionsImpl) {
+            Map<String, Object> properties = filterProperties((RestAssuredResponseOptionsImpl<?>) response);
+            return properties != null ? properties.get(name) : null;
+        }
+        return null;
+    }
+    
+    /**
+     * 把值附加到响应的过滤器上下文属性上（复制后替换，不修改响应已有的属性表），响应不支持属性时忽略
+     * @param response 响应对象
+     * @param name 属性名
+     * @param value 属性值
+     */
+    public static void putFilterProperty(Response response, String name, Object value) {
+        if (response instanceof RestAssuredResponseOptionsImpl) {
+            RestAssuredResponseOptionsImpl<?> options = (RestAssuredResponseOptionsImpl<?>) response;
+            Map<String, Object> existing = filterProperties(options);
+            Map<String, Object> properties = existing != null ? new HashMap<>(existing) : new HashMap<>();
+            properties.put(name, value);
+            options.setFilterContextProperties(properties);
+        }
+    }
+    
+    /**
+     * Rest Assured 以原始类型 Map 保存属性，键总是属性名
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> filterProperties(RestAssuredResponseOptionsImpl<?> options) {
+        return options.getFilterContextProperties();
     }
     
     /**
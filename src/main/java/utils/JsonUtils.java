@@ -1,18 +1,26 @@
 package utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import profiling.JsonParseEvent;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 /**
  * JSON工具类，用于处理JSON数据的序列化和反序列化
+ * <p>
+ * 反序列化方法产生 apitest.JsonParse JFR事件（绑定类型、输入大小、元素数和耗时），解析失败时不产生
  */
 public class JsonUtils {
     private static final Logger logger = LoggerFactory.getLogger(JsonUtils.class);
@@ -40,8 +48,30 @@ public class JsonUtils {
      * @return 转换后的对象
      */
     public static <T> T fromJson(String json, Class<T> clazz) {
+        JsonParseEvent event = beginParse();
         try {
-            return objectMapper.readValue(json, clazz);
+            T value = objectMapper.readValue(json, clazz);
+            commitParse(event, clazz, false, json.length(), 1);
+            return value;
+        } catch (IOException e) {
+            logger.error("JSON转换为对象失败: {}", e.getMessage());
+            throw new RuntimeException("JSON反序列化失败", e);
+        }
+    }
+    
+    /**
+     * 将JSON字节数组转换为指定类型的对象（直接从字节解析，不构造字符串）
+     * @param json JSON字节数组（UTF-8）
+     * @param clazz 目标类型
+     * @param <T> 泛型类型
+     * @return 转换后的对象
+     */
+    public static <T> T fromJson(byte[] json, Class<T> clazz) {
+        JsonParseEvent event = beginParse();
+        try {
+            T value = objectMapper.readValue(json, clazz);
+            commitParse(event, clazz, false, json.length, 1);
+            return value;
         } catch (IOException e) {
             logger.error("JSON转换为对象失败: {}", e.getMessage());
             throw new RuntimeException("JSON反序列化失败", e);
@@ -56,23 +86,222 @@ public class JsonUtils {
      * @return List对象
      */
     public static <T> List<T> fromJsonToList(String json, Class<T> clazz) {
+        JsonParseEvent event = beginParse();
+        try {
+            List<T> values = objectMapper.readValue(json, 
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, clazz));
+            commitParse(event, clazz, true, json.length(), values.size());
+            return values;
+        } catch (IOException e) {
+            logger.error("JSON转换为List失败: {}", e.getMessage());
+            throw new RuntimeException("JSON反序列化为List失败", e);
+        }
+    }
+    
+    /**
+     * 将JSON字节数组转换为List（直接从字节解析，避免构造完整的响应字符串）
+     * @param json JSON字节数组
+     * @param clazz 列表元素类型
+     * @param <T> 泛型类型
+     * @return List对象
+     */
+    public static <T> List<T> fromJsonToList(byte[] json, Class<T> clazz) {
+        JsonParseEvent event = beginParse();
         try {
-            return objectMapper.readValue(json, 
+            List<T> values = objectMapper.readValue(json, 
                     objectMapper.getTypeFactory().constructCollectionType(List.class, clazz));
+            commitParse(event, clazz, true, json.length, values.size());
+            return values;
         } catch (IOException e) {
             logger.error("JSON转换为List失败: {}", e.getMessage());
             throw new RuntimeException("JSON反序列化为List失败", e);
         }
     }
     
+    /**
+     * 以流式方式从JSON对象数组中提取整数字段，按列返回（不绑定对象、不装箱）
+     * 例如 readIntColumns(json, "id", "postId") 返回 ids 和 postIds 两列；
+     * 缺失、为null、不是整数或超出int范围的字段记为 {@link IntColumns#MISSING} 并计入该列的缺失数
+     * @param json JSON字节数组（顶层为对象数组）
+     * @param fieldNames 顶层整数字段名
+     * @return 每个字段一列，行数相同
+     * @throws RuntimeException 顶层不是数组、数组元素不是对象或JSON不完整
+     */
+    public static IntColumns readIntColumns(byte[] json, String... fieldNames) {
+        if (fieldNames.length == 0) {
+            throw new IllegalArgumentException("至少需要指定一个字段");
+        }
+        JsonParseEvent event = beginParse();
+        int[][] columns = new int[fieldNames.length][16];
+        int[] missing = new int[fieldNames.length];
+        boolean[] seen = new boolean[fieldNames.length];
+        int rows = 0;
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("JSON列提取失败: 顶层不是数组");
+            }
+            
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                if (rows == columns[0].length) {
+                    for (int c = 0; c < columns.length; c++) {
+                        columns[c] = Arrays.copyOf(columns[c], rows * 2);
+                    }
+                }
+                
+                Arrays.fill(seen, false);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken valueToken = parser.nextToken();
+                    int column = indexOf(fieldNames, field);
+                    if (column >= 0 && valueToken == JsonToken.VALUE_NUMBER_INT
+                            && parser.getNumberType() == JsonParser.NumberType.INT) {
+                        columns[column][rows] = parser.getIntValue();
+                        seen[column] = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                for (int c = 0; c < columns.length; c++) {
+                    if (!seen[c]) {
+                        columns[c][rows] = IntColumns.MISSING;
+                        missing[c]++;
+                    }
+                }
+                rows++;
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new RuntimeException(token == null
+                        ? "JSON列提取失败: 数组不完整"
+                        : "JSON列提取失败: 第" + (rows + 1) + "个元素不是对象: " + token);
+            }
+        } catch (IOException e) {
+            logger.error("JSON列提取失败: {}", e.getMessage());
+            throw new RuntimeException("JSON列提取失败", e);
+        }
+        
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], rows);
+        }
+        commitParse(event, int[][].class, false, json.length, rows);
+        return new IntColumns(fieldNames, columns, missing);
+    }
+    
+    /**
+     * readIntColumns 的结果：按列存储的整数字段，以及每列缺失的行数
+     */
+    public static final class IntColumns {
+        /** 缺失或不是int的字段在列中的取值 */
+        public static final int MISSING = Integer.MIN_VALUE;
+        
+        private final String[] fieldNames;
+        private final int[][] columns;
+        private final int[] missing;
+        
+        /**
+         * @param value 可能为null的整数字段
+         * @return 字段值，null时为 {@link #MISSING}
+         */
+        public static int orMissing(Integer value) {
+            return value != null ? value : MISSING;
+        }
+        
+        /**
+         * @param value 以 {@link #MISSING} 标记缺失的整数字段
+         * @return 字段值，缺失时为null
+         */
+        public static Integer toInteger(int value) {
+            return value != MISSING ? value : null;
+        }
+        
+        private IntColumns(String[] fieldNames, int[][] columns, int[] missing) {
+            this.fieldNames = fieldNames;
+            this.columns = columns;
+            this.missing = missing;
+        }
+        
+        /**
+         * @param column 列下标（与字段名的顺序一致）
+         * @return 列数据，缺失的行为 {@link #MISSING}
+         */
+        public int[] get(int column) {
+            return columns[column];
+        }
+        
+        /**
+         * @param column 列下标
+         * @return 该列缺失的行数
+         */
+        public int missingCount(int column) {
+            return missing[column];
+        }
+        
+        /**
+         * 获取列数据，任何一行缺失该字段时失败
+         * @param column 列下标
+         * @return 列数据
+         * @throws IllegalStateException 存在缺失的行
+         */
+        public int[] require(int column) {
+            if (missing[column] > 0) {
+                throw new IllegalStateException(String.format("%d个元素中有%d个缺少整数字段 %s",
+                        size(), missing[column], fieldNames[column]));
+            }
+            return columns[column];
+        }
+        
+        /**
+         * @return 行数（数组元素个数）
+         */
+        public int size() {
+            return columns[0].length;
+        }
+    }
+    
+    private static JsonParseEvent beginParse() {
+        JsonParseEvent event = new JsonParseEvent();
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * 解析成功后提交JFR事件；没有在录制该事件时只有一次判断，不拼接类型名
+     * @param event 事件
+     * @param type 绑定的类型（列表时为元素类型）
+     * @param list 是否绑定为列表
+     * @param size 输入大小
+     * @param elements 元素数
+     */
+    private static void commitParse(JsonParseEvent event, Class<?> type, boolean list, long size, int elements) {
+        if (event.shouldCommit()) {
+            event.type = list ? "List<" + type.getSimpleName() + ">" : type.getSimpleName();
+            event.bytes = size;
+            event.elements = elements;
+            event.commit();
+        }
+    }
+    
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * 将JSON字符串转换为Map
      * @param json JSON字符串
      * @return Map对象
      */
     public static Map<String, Object> fromJsonToMap(String json) {
+        JsonParseEvent event = beginParse();
         try {
-            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+            Map<String, Object> map = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+            commitParse(event, Map.class, false, json.length(), 1);
+            return map;
         } catch (IOException e) {
             logger.error("JSON转换为Map失败: {}", e.getMessage());
             throw new RuntimeException("JSON反序列化为Map失败", e);
@@ -85,14 +314,70 @@ public class JsonUtils {
      * @return JsonNode
      */
     public static JsonNode getJsonNode(String json) {
+        JsonParseEvent event = beginParse();
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            commitParse(event, JsonNode.class, false, json.length(), node.isArray() ? node.size() : 1);
+            return node;
+        } catch (IOException e) {
+            logger.error("解析JSON节点失败: {}", e.getMessage());
+            throw new RuntimeException("JSON解析失败", e);
+        }
+    }
+    
+    /**
+     * 从字节数组解析JSON节点（避免先构造字符串）
+     * @param json JSON字节数组
+     * @return JsonNode
+     */
+    public static JsonNode getJsonNode(byte[] json) {
+        JsonParseEvent event = beginParse();
         try {
-            return objectMapper.readTree(json);
+            JsonNode node = objectMapper.readTree(json);
+            commitParse(event, JsonNode.class, false, json.length, node.isArray() ? node.size() : 1);
+            return node;
         } catch (IOException e) {
             logger.error("解析JSON节点失败: {}", e.getMessage());
             throw new RuntimeException("JSON解析失败", e);
         }
     }
     
+    /**
+     * 从ByteBuffer解析JSON节点（可直接传入内存映射切片，不先复制到堆内数组）
+     * @param json JSON数据
+     * @return JsonNode
+     */
+    public static JsonNode getJsonNode(ByteBuffer json) {
+        JsonParseEvent event = beginParse();
+        try {
+            JsonNode node = objectMapper.readTree(new ByteBufferBackedInputStream(json.duplicate()));
+            commitParse(event, JsonNode.class, false, json.remaining(), node.isArray() ? node.size() : 1);
+            return node;
+        } catch (IOException e) {
+            logger.error("解析JSON节点失败: {}", e.getMessage());
+            throw new RuntimeException("JSON解析失败", e);
+        }
+    }
+    
+    /**
+     * 从ByteBuffer将JSON数组转换为对象列表
+     * @param json JSON数据
+     * @param clazz 目标元素类型
+     * @return 对象列表
+     */
+    public static <T> List<T> fromJsonToList(ByteBuffer json, Class<T> clazz) {
+        JsonParseEvent event = beginParse();
+        try {
+            List<T> values = objectMapper.readValue(new ByteBufferBackedInputStream(json.duplicate()),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, clazz));
+            commitParse(event, clazz, true, json.remaining(), values.size());
+            return values;
+        } catch (IOException e) {
+            logger.error("JSON转换为List失败: {}", e.getMessage());
+            throw new RuntimeException("JSON转换为List失败", e);
+        }
+    }
+    
     /**
      * 从JSON中提取指定路径的值
      * @param json JSON字符串
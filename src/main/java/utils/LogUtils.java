@@ -4,11 +4,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.util.function.Supplier;
+
 /**
  * 日志工具类，用于统一管理测试日志记录
  */
 public class LogUtils {
     private static final Logger logger = LoggerFactory.getLogger(LogUtils.class);
+    // DEBUG日志中响应体的最大字符数
+    private static final int MAX_LOGGED_BODY_CHARS = 2000;
     
     /**
      * 记录测试开始信息
@@ -52,12 +56,21 @@ public class LogUtils {
      * 记录API响应信息
      * @param statusCode 状态码
      * @param responseTime 响应时间
-     * @param responseBody 响应体
+     * @param responseBody 响应体，仅在开启DEBUG日志时读取，超过 {@value #MAX_LOGGED_BODY_CHARS} 个字符时截断
      */
-    public static void logApiResponse(int statusCode, long responseTime, String responseBody) {
+    public static void logApiResponse(int statusCode, long responseTime, Supplier<String> responseBody) {
         logger.info("API响应 - 状态码: {}, 响应时间: {}ms", statusCode, responseTime);
-        if (responseBody != null && !responseBody.isEmpty()) {
-            logger.info("响应体: {}", responseBody);
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        String body = responseBody.get();
+        if (body == null || body.isEmpty()) {
+            return;
+        }
+        if (body.length() > MAX_LOGGED_BODY_CHARS) {
+            logger.debug("响应体（前{}个字符，共{}个）: {}", MAX_LOGGED_BODY_CHARS, body.length(), body.substring(0, MAX_LOGGED_BODY_CHARS));
+        } else {
+            logger.debug("响应体: {}", body);
         }
     }
     
@@ -73,6 +86,22 @@ public class LogUtils {
         logger.info("验证 [{}] - 期望: {}, 实际: {}, 结果: {}", field, expected, actual, status);
     }
     
+    /**
+     * 记录单项验证信息，参数只在实际输出时求值：失败在INFO级别输出，通过只在开启DEBUG日志时输出。
+     * 用于每次断言都会调用的验证方法，避免通过时拼接描述和期望值
+     * @param result 验证结果
+     * @param field 验证字段
+     * @param expected 期望值
+     * @param actual 实际值
+     */
+    public static void logValidation(boolean result, Supplier<String> field, Supplier<?> expected, Supplier<?> actual) {
+        if (!result) {
+            logger.info("验证 [{}] - 期望: {}, 实际: {}, 结果: 失败", field.get(), expected.get(), actual.get());
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("验证 [{}] - 期望: {}, 实际: {}, 结果: 通过", field.get(), expected.get(), actual.get());
+        }
+    }
+    
     /**
      * 记录错误信息
      * @param message 错误消息
@@ -82,6 +111,14 @@ public class LogUtils {
         logger.error("错误: {}", message, throwable);
     }
     
+    /**
+     * 记录一般信息
+     * @param message 信息内容
+     */
+    public static void logInfo(String message) {
+        logger.info("信息: {}", message);
+    }
+    
     /**
      * 记录警告信息
      * @param message 警告消息
@@ -98,6 +135,16 @@ public class LogUtils {
         logger.debug("调试: {}", message);
     }
     
+    /**
+     * 记录调试信息，消息只在开启DEBUG日志时构建
+     * @param message 调试消息
+     */
+    public static void logDebug(Supplier<String> message) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("调试: {}", message.get());
+        }
+    }
+    
     /**
      * 记录步骤信息
      * @param stepNumber 步骤号
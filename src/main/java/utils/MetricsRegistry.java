@@ -0,0 +1,289 @@
+package utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内指标注册表，按名称保存计数器、耗时分布和最大值
+ * 计数和最大值基于 LongAdder/LongAccumulator，可在并行测试中无锁更新；
+ * 耗时分布按对数-线性分桶计数（见 {@link Timer}），内存固定，分位数由桶计数得出
+ */
+public class MetricsRegistry {
+    private static final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongAccumulator> maximums = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * 耗时分布，按对数-线性分桶计数（与 HdrHistogram 相同的桶布局）：
+     * 小于 {@value #EXACT_LIMIT} 的值各占一个桶，之后每个2的幂区间再等分为 {@value #SUB_BUCKETS} 个桶，
+     * 相对误差不超过 1/{@value #SUB_BUCKETS}；大于等于 2^{@value #MAX_EXPONENT} 的值计入最后一个桶。
+     * 内存固定为 {@value #BUCKETS} 个计数，记录时无锁
+     */
+    public static final class Timer {
+        static final int SUB_BUCKET_BITS = 5;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        static final int EXACT_LIMIT = SUB_BUCKETS * 2;
+        static final int MAX_EXPONENT = 36;
+        static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * @param value 观测值，负数按0计
+         */
+        public void record(long value) {
+            record(value, 1);
+        }
+
+        /**
+         * 记录多次相同的观测值（如从保存的分布恢复）
+         * @param value 观测值，负数按0计
+         * @param times 次数
+         */
+        public void record(long value, long times) {
+            long normalized = Math.max(0, value);
+            buckets.addAndGet(indexOf(normalized), times);
+            sum.add(normalized * times);
+            max.accumulate(normalized);
+        }
+
+        /**
+         * @return 当前各桶计数的快照
+         */
+        public Snapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+            return new Snapshot(counts, count, sum.sum(), max.get());
+        }
+
+        static int indexOf(long value) {
+            if (value < EXACT_LIMIT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent >= MAX_EXPONENT) {
+                return BUCKETS - 1;
+            }
+            int shift = exponent - SUB_BUCKET_BITS;
+            return shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        static long lowerBound(int index) {
+            if (index < EXACT_LIMIT) {
+                return index;
+            }
+            int shift = (index >>> SUB_BUCKET_BITS) - 1;
+            return (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+        }
+
+        static long upperBound(int index) {
+            if (index < EXACT_LIMIT) {
+                return index;
+            }
+            if (index == BUCKETS - 1) {
+                return Long.MAX_VALUE;
+            }
+            int shift = (index >>> SUB_BUCKET_BITS) - 1;
+            return ((long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS + 1) << shift) - 1;
+        }
+    }
+
+    /**
+     * 耗时分布快照，分位数按桶计算，取所在桶的上界（不超过最大值）
+     */
+    public static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new long[Timer.BUCKETS], 0, 0, 0);
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * 非空的桶，按值升序；值为桶上界（不超过最大值），按同样的值重新记录会落入同一个桶
+         * @return 值 -&gt; 次数
+         */
+        public Map<Long, Long> getBuckets() {
+            Map<Long, Long> buckets = new TreeMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    buckets.put(valueOf(i), counts[i]);
+                }
+            }
+            return buckets;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * 按最近秩法计算分位数
+         * @param percentile 分位（0~100）
+         * @return 分位值，无样本时返回0
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, Math.min(count, (long) Math.ceil(percentile / 100.0 * count)));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return valueOf(i);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * @param threshold 阈值（毫秒）
+         * @return 大于阈值的样本数量，阈值所在的桶不计入
+         */
+        public long countAbove(long threshold) {
+            long above = 0;
+            for (int i = counts.length - 1; i >= 0 && Timer.lowerBound(i) > threshold; i--) {
+                above += counts[i];
+            }
+            return above;
+        }
+
+        private long valueOf(int index) {
+            return Math.min(Timer.upperBound(index), max);
+        }
+    }
+
+    /**
+     * 计数器加一
+     * @param name 指标名称
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * 计数器累加
+     * @param name 指标名称
+     * @param delta 增量
+     */
+    public static void add(String name, long delta) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 更新最大值
+     * @param name 指标名称
+     * @param value 观测值
+     */
+    public static void max(String name, long value) {
+        maximums.computeIfAbsent(name, key -> new LongAccumulator(Math::max, Long.MIN_VALUE)).accumulate(value);
+    }
+
+    /**
+     * 记录一次耗时
+     * @param name 指标名称
+     * @param millis 耗时（毫秒）
+     */
+    public static void record(String name, long millis) {
+        timer(name).record(millis);
+    }
+
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * @param name 指标名称
+     * @return 计数值，不存在时返回0
+     */
+    public static long count(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * @param name 指标名称
+     * @return 最大值，不存在时返回0
+     */
+    public static long maxValue(String name) {
+        LongAccumulator maximum = maximums.get(name);
+        return maximum == null ? 0 : Math.max(0, maximum.get());
+    }
+
+    /**
+     * @param name 指标名称
+     * @return 耗时分布快照，不存在时为空快照
+     */
+    public static Snapshot snapshot(String name) {
+        Timer timer = timers.get(name);
+        return timer == null ? Snapshot.EMPTY : timer.snapshot();
+    }
+
+    /**
+     * 获取指定前缀的所有计数器（按名称排序）
+     * @param prefix 名称前缀
+     * @return 名称 -&gt; 计数值
+     */
+    public static Map<String, Long> counters(String prefix) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, counter) -> {
+            if (name.startsWith(prefix)) {
+                result.put(name, counter.sum());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取指定前缀的所有耗时分布快照（按名称排序）
+     * @param prefix 名称前缀
+     * @return 名称 -&gt; 快照
+     */
+    public static Map<String, Snapshot> snapshots(String prefix) {
+        Map<String, Snapshot> result = new TreeMap<>();
+        timers.forEach((name, timer) -> {
+            if (name.startsWith(prefix)) {
+                result.put(name, timer.snapshot());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 清空所有指标（套件开始时调用）
+     */
+    public static void reset() {
+        counters.clear();
+        maximums.clear();
+        timers.clear();
+    }
+}
@@ -0,0 +1,253 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 只追加的二进制键值存储：数据文件 + 独立的索引文件（键 -&gt; 偏移/长度）
+ * <ul>
+ *     <li>打开时只读取索引文件，耗时与索引大小成正比，与数据量无关</li>
+ *     <li>读取返回数据文件内存映射（MappedByteBuffer）上的只读切片，不复制到堆内，可直接交给JSON解析器</li>
+ *     <li>先写数据再写索引，录制中断时未完成的记录不会出现在索引中</li>
+ * </ul>
+ * 同一键多次写入时以最后一次为准；追加操作串行化，读取无锁
+ * <p>
+ * 索引记录格式：short 键长度 | 键(UTF-8) | long 偏移 | int 长度
+ */
+public class RecordStore implements Closeable {
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final ConcurrentMap<String, long[]> index;
+    private final Object writeLock = new Object();
+
+    private FileChannel dataWriter;
+    private FileChannel indexWriter;
+    private long dataSize;
+    private long indexSize;
+    private volatile MappedByteBuffer mapped;
+
+    private RecordStore(Path dataFile, ConcurrentMap<String, long[]> index, long dataSize, long indexSize) {
+        this.dataFile = dataFile;
+        this.indexFile = indexFileOf(dataFile);
+        this.index = index;
+        this.dataSize = dataSize;
+        this.indexSize = indexSize;
+    }
+
+    /**
+     * 打开已有存储（不存在时视为空存储），只加载索引
+     * @param dataFile 数据文件路径，索引文件为同名加 .idx 后缀
+     * @return RecordStore
+     */
+    public static RecordStore open(Path dataFile) {
+        Path indexFile = indexFileOf(dataFile);
+        ConcurrentMap<String, long[]> index = new ConcurrentHashMap<>();
+        if (!Files.exists(dataFile) || !Files.exists(indexFile)) {
+            return new RecordStore(dataFile, index, 0, 0);
+        }
+
+        try {
+            long dataSize = Files.size(dataFile);
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            long validDataSize = 0;
+            int validIndexSize = 0;
+            while (buffer.remaining() >= Short.BYTES) {
+                int keyLength = buffer.getShort() & 0xFFFF;
+                if (buffer.remaining() < keyLength + Long.BYTES + Integer.BYTES) {
+                    break;
+                }
+                byte[] key = new byte[keyLength];
+                buffer.get(key);
+                long offset = buffer.getLong();
+                int length = buffer.getInt();
+                // 指向数据文件之外的条目说明数据写入未完成，从此处截止
+                if (offset + length > dataSize) {
+                    break;
+                }
+                index.put(new String(key, StandardCharsets.UTF_8), new long[]{offset, length});
+                validDataSize = Math.max(validDataSize, offset + length);
+                validIndexSize = buffer.position();
+            }
+            return new RecordStore(dataFile, index, validDataSize, validIndexSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取存储索引失败: " + indexFile, e);
+        }
+    }
+
+    /**
+     * 创建新存储，已存在的数据和索引会被清空
+     * @param dataFile 数据文件路径
+     * @return RecordStore
+     */
+    public static RecordStore create(Path dataFile) {
+        try {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(indexFileOf(dataFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("清空存储失败: " + dataFile, e);
+        }
+        return new RecordStore(dataFile, new ConcurrentHashMap<>(), 0, 0);
+    }
+
+    /**
+     * 追加一条记录，值由多个片段顺序拼接而成（避免调用方先合并数组）
+     * @param key 键
+     * @param chunks 值片段
+     */
+    public void append(String key, ByteBuffer... chunks) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("键过长: " + keyBytes.length + " 字节");
+        }
+
+        synchronized (writeLock) {
+            try {
+                long offset = dataSize;
+                long length = 0;
+                for (ByteBuffer chunk : chunks) {
+                    length += chunk.remaining();
+                }
+                if (offset + length > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("存储文件超过2GB上限: " + dataFile);
+                }
+
+                openWriters();
+                for (ByteBuffer chunk : chunks) {
+                    ByteBuffer source = chunk.duplicate();
+                    while (source.hasRemaining()) {
+                        dataWriter.write(source);
+                    }
+                }
+
+                ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + keyBytes.length + Long.BYTES + Integer.BYTES)
+                        .putShort((short) keyBytes.length).put(keyBytes).putLong(offset).putInt((int) length);
+                entry.flip();
+                while (entry.hasRemaining()) {
+                    indexWriter.write(entry);
+                }
+
+                dataSize = offset + length;
+                indexSize += entry.capacity();
+                index.put(key, new long[]{offset, length});
+            } catch (IOException e) {
+                throw new UncheckedIOException("写入存储失败: " + dataFile, e);
+            }
+        }
+    }
+
+    /**
+     * 追加一条记录
+     * @param key 键
+     * @param value 值
+     */
+    public void append(String key, byte[] value) {
+        append(key, ByteBuffer.wrap(value));
+    }
+
+    /**
+     * 读取记录，返回内存映射上的只读切片（零复制）
+     * @param key 键
+     * @return 只读ByteBuffer，不存在时返回null
+     */
+    public ByteBuffer get(String key) {
+        long[] location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+
+        long end = location[0] + location[1];
+        MappedByteBuffer buffer = mapped;
+        if (buffer == null || end > buffer.capacity()) {
+            buffer = remap(end);
+        }
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) location[0]).limit((int) end);
+        return slice.slice().asReadOnlyBuffer();
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public Set<String> keys() {
+        return index.keySet();
+    }
+
+    public Path getDataFile() {
+        return dataFile;
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            try {
+                if (dataWriter != null) {
+                    dataWriter.close();
+                    indexWriter.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("关闭存储失败: " + dataFile, e);
+            } finally {
+                dataWriter = null;
+                indexWriter = null;
+            }
+        }
+    }
+
+    /**
+     * 映射数据文件；追加后的新记录超出当前映射范围时重新映射
+     */
+    private MappedByteBuffer remap(long requiredSize) {
+        synchronized (writeLock) {
+            MappedByteBuffer buffer = mapped;
+            if (buffer != null && requiredSize <= buffer.capacity()) {
+                return buffer;
+            }
+            try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                mapped = buffer;
+                return buffer;
+            } catch (IOException e) {
+                throw new UncheckedIOException("映射存储文件失败: " + dataFile, e);
+            }
+        }
+    }
+
+    private void openWriters() throws IOException {
+        if (dataWriter == null) {
+            if (dataFile.getParent() != null) {
+                Files.createDirectories(dataFile.getParent());
+            }
+            dataWriter = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            indexWriter = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            // 截掉上次中断时未被索引的数据尾部和不完整的索引条目
+            if (dataWriter.size() > dataSize) {
+                dataWriter.truncate(dataSize);
+            }
+            if (indexWriter.size() > indexSize) {
+                indexWriter.truncate(indexSize);
+            }
+        }
+    }
+
+    private static Path indexFileOf(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + INDEX_SUFFIX);
+    }
+}
@@ -0,0 +1,267 @@
+package utils;
+
+import io.restassured.response.Response;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单次API调用的分阶段耗时：连接池等待、DNS解析、建立连接、TLS握手、发送请求、等待首字节、下载响应体，
+ * 以及客户端的序列化、反序列化和验证
+ * <p>
+ * 调用开始时由 {@link #start()} 绑定到当前线程，传输层（连接池、DNS缓存、Socket工厂、请求执行器）在同一线程上
+ * 通过 {@link #current()} 累加各阶段耗时，重试时各次尝试的耗时相加。记录附加在响应的过滤器上下文属性上，
+ * 通过 {@link #of(Response)} 读取；调用结束后对该响应的反序列化和验证继续计入同一记录（可以在其它线程上）。
+ * <p>
+ * 各阶段耗时以微秒记入 api.phase.{阶段}.us 指标：调用结束时记录已发生的阶段和未归入任何阶段的其它耗时
+ * （过滤器、日志等），之后的阶段在发生时记录。没有经过的阶段（如复用连接时的DNS和建立连接）不记录
+ */
+public final class RequestTimings {
+    /** 响应的过滤器上下文属性名 */
+    public static final String PROPERTY = "http.timings";
+    /** 未归入任何阶段的调用耗时的指标名 */
+    public static final String OTHER_METRIC = "api.phase.other.us";
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 阶段，按在一次调用中发生的顺序排列
+     */
+    public enum Phase {
+        /** 请求体序列化为JSON */
+        SERIALIZE("serialize"),
+        /** 等待从连接池租用连接 */
+        POOL_WAIT("pool"),
+        /** 解析主机名（包括缓存命中） */
+        DNS("dns"),
+        /** 建立TCP连接 */
+        CONNECT("connect"),
+        /** TLS握手 */
+        TLS("tls"),
+        /** 写出请求头和请求体 */
+        REQUEST_WRITE("write"),
+        /** 请求写完到收到响应头：服务端处理时间加一个往返 */
+        TTFB("ttfb"),
+        /** 收到响应头到读完（并解码）响应体 */
+        DOWNLOAD("download"),
+        /** 重试前的退避等待 */
+        BACKOFF("backoff"),
+        /** 响应体反序列化 */
+        DESERIALIZE("deserialize"),
+        /** 响应验证 */
+        VALIDATE("validate");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return 报告和指标中使用的名称
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return 指标名 api.phase.{名称}.us
+         */
+        public String getMetric() {
+            return "api.phase." + key + ".us";
+        }
+
+        /**
+         * @return 是否发生在调用结束之后
+         */
+        private boolean isPostCall() {
+            return this == DESERIALIZE || this == VALIDATE;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    // 各阶段累计的纳秒数，-1 表示没有经过该阶段
+    private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+    private volatile long totalNanos = -1;
+    private volatile long headersReceivedNanos;
+
+    private RequestTimings() {
+        for (int i = 0; i < nanos.length(); i++) {
+            nanos.set(i, -1);
+        }
+    }
+
+    /**
+     * 开始记录一次调用，并绑定到当前线程
+     * @return 记录
+     */
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * @return 当前线程正在进行的调用的记录，不在 ApiHelper 调用中时为null
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 读取附加在响应上的记录
+     * @param response 响应对象
+     * @return 记录，响应不是通过 ApiHelper 获得时为null
+     */
+    public static RequestTimings of(Response response) {
+        Object value = HttpUtils.getFilterProperty(response, PROPERTY);
+        return value instanceof RequestTimings ? (RequestTimings) value : null;
+    }
+
+    /**
+     * 把从 startNanos 到现在的耗时计入响应的某个阶段，便于连续计时：
+     * <pre>
+     * long start = System.nanoTime();
+     * Post post = JsonUtils.fromJson(response.asByteArray(), Post.class);
+     * start = RequestTimings.record(response, RequestTimings.Phase.DESERIALIZE, start);
+     * validatePost(post);
+     * RequestTimings.record(response, RequestTimings.Phase.VALIDATE, start);
+     * </pre>
+     * @param response 响应对象（没有记录时忽略）
+     * @param phase 阶段
+     * @param startNanos 开始时间（System.nanoTime()）
+     * @return 当前时间（System.nanoTime()），作为下一阶段的开始时间
+     */
+    public static long record(Response response, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        RequestTimings timings = of(response);
+        if (timings != null) {
+            timings.add(phase, now - startNanos);
+        }
+        return now;
+    }
+
+    /**
+     * 累加某个阶段的耗时；调用结束后累加的阶段立即记入指标
+     * @param phase 阶段
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void add(Phase phase, long elapsedNanos) {
+        long elapsed = Math.max(0, elapsedNanos);
+        nanos.getAndUpdate(phase.ordinal(), value -> Math.max(value, 0) + elapsed);
+        if (totalNanos >= 0 && phase.isPostCall()) {
+            MetricsRegistry.record(phase.getMetric(), TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+    }
+
+    /**
+     * 传输层收到响应头（首字节阶段结束，下载阶段开始）
+     */
+    public void markHeadersReceived() {
+        headersReceivedNanos = System.nanoTime();
+    }
+
+    /**
+     * 响应体已读完，从收到响应头起的耗时计入下载阶段
+     */
+    public void markBodyRead() {
+        long received = headersReceivedNanos;
+        if (received != 0) {
+            add(Phase.DOWNLOAD, System.nanoTime() - received);
+            headersReceivedNanos = 0;
+        }
+    }
+
+    /**
+     * 把记录附加到响应的过滤器上下文属性上
+     * @param response 响应对象
+     */
+    public void attachTo(Response response) {
+        HttpUtils.putFilterProperty(response, PROPERTY, this);
+    }
+
+    /**
+     * 调用结束：解除与当前线程的绑定，记录总耗时，并把已发生的阶段和其它耗时记入指标
+     */
+    public void finish() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        long total = System.nanoTime() - startNanos;
+        long measured = 0;
+        for (Phase phase : Phase.values()) {
+            long value = nanos.get(phase.ordinal());
+            if (value >= 0) {
+                measured += value;
+                MetricsRegistry.record(phase.getMetric(), TimeUnit.NANOSECONDS.toMicros(value));
+            }
+        }
+        MetricsRegistry.record(OTHER_METRIC, TimeUnit.NANOSECONDS.toMicros(Math.max(0, total - measured)));
+        totalNanos = total;
+    }
+
+    /**
+     * @param phase 阶段
+     * @return 该阶段累计的耗时（纳秒），没有经过该阶段时为-1
+     */
+    public long getNanos(Phase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    /**
+     * @param phase 阶段
+     * @return 该阶段累计的耗时（毫秒），没有经过该阶段时为-1
+     */
+    public double getMillis(Phase phase) {
+        long value = getNanos(phase);
+        return value < 0 ? -1 : value / 1_000_000.0;
+    }
+
+    /**
+     * @return 是否经过该阶段
+     */
+    public boolean has(Phase phase) {
+        return getNanos(phase) >= 0;
+    }
+
+    /**
+     * @return 调用总耗时（纳秒，从开始到 ApiHelper 返回，不含之后的反序列化和验证），调用未结束时为-1
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return 调用期间未归入任何阶段的耗时（纳秒），调用未结束时为-1
+     */
+    public long getOtherNanos() {
+        long total = totalNanos;
+        if (total < 0) {
+            return -1;
+        }
+        for (Phase phase : Phase.values()) {
+            if (!phase.isPostCall()) {
+                total -= Math.max(0, getNanos(phase));
+            }
+        }
+        return Math.max(0, total);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        if (totalNanos >= 0) {
+            text.append(String.format(Locale.ROOT, "total=%.1fms", totalNanos / 1_000_000.0));
+        }
+        for (Phase phase : Phase.values()) {
+            if (has(phase)) {
+                text.append(text.length() > 0 ? ", " : "")
+                        .append(String.format(Locale.ROOT, "%s=%.1fms", phase.getKey(), getMillis(phase)));
+            }
+        }
+        if (totalNanos >= 0) {
+            text.append(String.format(Locale.ROOT, ", other=%.1fms", getOtherNanos() / 1_000_000.0));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 字符串去重池，用于在绑定大量数据时复用重复出现的字符串（如公司名、城市）
+ * <p>
+ * 池是固定槽位数的有损缓存：按哈希值定位槽位，槽位中是相等的字符串时返回池内实例，否则用新字符串替换槽位。
+ * 占用的内存有固定上限，池满之后仍然持续去重（新值挤掉冲突的旧值），不会像只增不减的表那样在达到上限后失效。
+ * 只应用于在大量对象之间重复出现的字段，每个对象都不同的字段放入池中只会不断挤掉有用的条目
+ */
+public class StringPool {
+    private static final int DEFAULT_SLOTS = 4096;
+    private static final StringPool SHARED = new StringPool(DEFAULT_SLOTS);
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    /**
+     * @param slots 槽位数（向上取整为2的幂）
+     */
+    public StringPool(int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("槽位数应大于0: " + slots);
+        }
+        int capacity = Integer.highestOneBit(Math.min(slots, 1 << 30));
+        if (capacity < slots) {
+            capacity <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 获取全局共享的字符串池
+     * @return StringPool
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * 返回与给定字符串相等的池内实例；池中没有时放入该字符串（替换同一槽位上的旧值）并原样返回
+     * @param value 字符串
+     * @return 去重后的字符串
+     */
+    public String dedup(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String pooled = slots.get(slot);
+        if (pooled != null && pooled.hashCode() == hash && pooled.equals(value)) {
+            return pooled;
+        }
+        slots.lazySet(slot, value);
+        return value;
+    }
+
+    /**
+     * 获取槽位数（池中字符串数量的上限）
+     * @return 槽位数
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * 获取池中字符串数量
+     * @return 数量
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 清空字符串池
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
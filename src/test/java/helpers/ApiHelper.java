@@ -1,12 +1,35 @@
 package helpers;
 
 import config.ApiConfig;
+import config.ConfigManager;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import profiling.HttpExchangeEvent;
+import profiling.ResourceUsage;
+import tracing.Span;
+import tracing.Tracer;
+import utils.HttpUtils;
 import utils.JsonUtils;
 import utils.LogUtils;
+import utils.MetricsRegistry;
+import utils.RequestTimings;
 
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 
 
@@ -14,9 +37,30 @@ import java.util.Map;
  * API助手类，用于封装通用的API请求操作
  */
 public class ApiHelper {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(429, 502, 503, 504);
+    // 429/503 表示服务端没有处理请求，非幂等请求只对这两种状态重试；502/504 时请求可能已被上游处理
+    private static final Set<Integer> NON_IDEMPOTENT_RETRYABLE_STATUS_CODES = Set.of(429, 503);
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    // 响应的过滤器上下文属性中调用跨度的键
+    private static final String SPAN_PROPERTY = "tracing.span";
+    /** 按端点模板记录的调用耗时（api.endpoint.GET /posts/{id}），用于性能基线 */
+    public static final String ENDPOINT_METRIC_PREFIX = "api.endpoint.";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final ExecutorService BATCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "batch-request");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     /**
      * 通用的请求执行方法
+     * 幂等请求对 429/502/503/504 响应和I/O异常（超时、连接重置、响应截断）按 max.retry.count 重试，
+     * POST/PATCH 只对 429/503 响应重试（复用连接已被关闭的情况由 HttpClient 在新连接上重发），DNS解析失败不重试；
+     * 退避时间从 retry.delay.ms 起按指数增长，并遵守 Retry-After（不超过 retry.max.delay.ms）；
+     * 每次尝试和调用的耗时、重试和失败原因记入 {@link MetricsRegistry}（api.*），
+     * 分阶段耗时附加在返回的响应上（{@link RequestTimings#of}）
      * @param method HTTP方法
      * @param endpoint API端点
      * @param requestBody 请求体（可选）
@@ -26,7 +70,15 @@ public class ApiHelper {
      */
     private static Response executeRequest(String method, String endpoint, Object requestBody, 
                                          RequestSpecification spec, Map<String, Object> queryParams) {
-        String jsonBody = requestBody != null ? JsonUtils.toJson(requestBody) : null;
+        HttpExchangeEvent event = new HttpExchangeEvent();
+        event.begin();
+        RequestTimings timings = RequestTimings.start();
+        String jsonBody = null;
+        if (requestBody != null) {
+            long serializeStart = System.nanoTime();
+            jsonBody = JsonUtils.toJson(requestBody);
+            timings.add(RequestTimings.Phase.SERIALIZE, System.nanoTime() - serializeStart);
+        }
         LogUtils.logApiRequest(method, ApiConfig.getBaseUrl() + endpoint, jsonBody);
         
         if (queryParams != null && !queryParams.isEmpty()) {
@@ -37,10 +89,198 @@ public class ApiHelper {
             spec.body(jsonBody);
         }
         
-        Response response = spec.when().request(method, endpoint);
-        LogUtils.logApiResponse(response.getStatusCode(), response.getTime(), response.getBody().asString());
+        int maxRetries = configManager.getMaxRetryCount();
+        long callStart = System.nanoTime();
+        Response result = null;
+        Throwable error = null;
+        int attempts = 0;
+        MetricsRegistry.increment("api.calls");
+        MetricsRegistry.max("api.inflight.max", IN_FLIGHT.incrementAndGet());
+        String template = endpointTemplate(endpoint);
+        // 调用跨度是测试跨度的子跨度，所有尝试都以它为父跨度发送 traceparent
+        Span span = Tracer.startSpan(method + " " + template, Span.Kind.CLIENT);
+        if (span.isSampled()) {
+            span.setAttribute("http.request.method", method)
+                    .setAttribute("url.template", template)
+                    .setAttribute("url.full", ApiConfig.getBaseUrl() + endpoint);
+        }
+        try {
+            for (int attempt = 0; ; attempt++) {
+                MetricsRegistry.increment("api.attempts");
+                attempts++;
+                long attemptStart = System.nanoTime();
+                Response response;
+                try {
+                    response = spec.when().request(method, endpoint);
+                } catch (Exception e) {
+                    // Rest Assured（Groovy）会直接抛出未声明的受检I/O异常
+                    String failure = classifyFailure(e);
+                    recordAttempt(attemptStart, failure);
+                    if (failure == null || "dns".equals(failure) || attempt >= maxRetries || !IDEMPOTENT_METHODS.contains(method)) {
+                        MetricsRegistry.increment("api.failed");
+                        throw e;
+                    }
+                    backoff(method, endpoint, attempt, failure, null);
+                    continue;
+                }
+                
+                int statusCode = response.getStatusCode();
+                boolean retryable = (IDEMPOTENT_METHODS.contains(method) ? RETRYABLE_STATUS_CODES
+                        : NON_IDEMPOTENT_RETRYABLE_STATUS_CODES).contains(statusCode);
+                recordAttempt(attemptStart, retryable ? "status_" + statusCode : null);
+                if (retryable && attempt < maxRetries) {
+                    backoff(method, endpoint, attempt, "status_" + statusCode, response.getHeader("Retry-After"));
+                    continue;
+                }
+                if (retryable) {
+                    MetricsRegistry.increment("api.failed");
+                } else if (attempt > 0) {
+                    MetricsRegistry.increment("api.recovered");
+                }
+                
+                LogUtils.logApiResponse(statusCode, response.getTime(), () -> response.getBody().asString());
+                result = response;
+                return response;
+            }
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            timings.finish();
+            if (result != null) {
+                timings.attachTo(result);
+                attachSpan(result, span);
+                LogUtils.logDebug(() -> "分阶段耗时: " + timings);
+            }
+            IN_FLIGHT.decrementAndGet();
+            long callMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - callStart);
+            MetricsRegistry.record("api.call.time", callMillis);
+            MetricsRegistry.record(ENDPOINT_METRIC_PREFIX + method + " " + template, callMillis);
+            // 没有在录制该事件时跳过，不计算响应大小等字段
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.endpoint = template;
+                event.attempts = attempts;
+                if (result != null) {
+                    event.status = result.getStatusCode();
+                    event.responseBytes = HttpUtils.getResponseSize(result);
+                    event.wireBytes = HttpUtils.getWireSize(result);
+                }
+                event.error = error != null ? error.getClass().getName() : null;
+                event.commit();
+            }
+            endSpan(span, result, error, attempts);
+        }
+    }
+    
+    /**
+     * 获取响应所属调用的客户端跨度，即各次尝试发送 traceparent 时所用的父跨度
+     * @param response ApiHelper 返回的响应
+     * @return 调用跨度，跟踪关闭或响应不是由 ApiHelper 返回时为null
+     */
+    public static Span spanOf(Response response) {
+        Object value = HttpUtils.getFilterProperty(response, SPAN_PROPERTY);
+        return value instanceof Span ? (Span) value : null;
+    }
+    
+    /**
+     * 与 RequestTimings 相同，把调用跨度放入响应的过滤器上下文属性
+     */
+    private static void attachSpan(Response response, Span span) {
+        if (span.isValid()) {
+            HttpUtils.putFilterProperty(response, SPAN_PROPERTY, span);
+        }
+    }
+    
+    /**
+     * 按 OpenTelemetry HTTP 客户端语义约定记录调用结果：4xx/5xx 和异常标记为失败
+     */
+    private static void endSpan(Span span, Response result, Throwable error, int attempts) {
+        if (span.isSampled()) {
+            if (attempts > 1) {
+                span.setAttribute("http.request.resend_count", attempts - 1);
+            }
+            if (result != null) {
+                int statusCode = result.getStatusCode();
+                span.setAttribute("http.response.status_code", statusCode)
+                        .setAttribute("http.response.body.size", HttpUtils.getResponseSize(result));
+                if (statusCode >= 400) {
+                    span.setError(Integer.toString(statusCode), null);
+                }
+            } else if (error != null) {
+                span.setError(error.getClass().getName(), error.getMessage());
+            }
+        }
+        span.end();
+    }
+    
+    /**
+     * 端点模板：去掉查询串，数字路径段替换为 {id}，如 /posts/1/comments -&gt; /posts/{id}/comments
+     * @param endpoint API端点
+     * @return 端点模板
+     */
+    static String endpointTemplate(String endpoint) {
+        int query = endpoint.indexOf('?');
+        String path = query >= 0 ? endpoint.substring(0, query) : endpoint;
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+    
+    /**
+     * 识别I/O失败：timeout、reset、partial、io（幂等请求可重试）和 dns（不重试），其它异常（如cassette未命中）返回null
+     */
+    private static String classifyFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) {
+                return "timeout";
+            }
+            if (cause instanceof UnknownHostException) {
+                // 主机名无法解析不是瞬时故障，重试只会延迟失败
+                return "dns";
+            }
+            String type = cause.getClass().getSimpleName();
+            if ("ConnectionClosedException".equals(type) || "TruncatedChunkException".equals(type)) {
+                return "partial";
+            }
+            if (cause instanceof SocketException || "NoHttpResponseException".equals(type)) {
+                return "reset";
+            }
+            if (cause instanceof IOException) {
+                return "io";
+            }
+        }
+        return null;
+    }
+    
+    private static void recordAttempt(long attemptStart, String failure) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStart);
+        MetricsRegistry.record("api.attempt.time", elapsed);
+        if (failure != null) {
+            MetricsRegistry.increment("api.error." + failure);
+        } else {
+            MetricsRegistry.record("api.attempt.success.time", elapsed);
+        }
+    }
+    
+    private static void backoff(String method, String endpoint, int attempt, String reason, String retryAfter) {
+        long delay = (long) configManager.getRetryDelay() << Math.min(attempt, 16);
+        if (retryAfter != null && retryAfter.trim().matches("\\d+")) {
+            delay = Math.max(delay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+        }
+        delay = Math.min(delay, configManager.getMaxRetryDelay());
         
-        return response;
+        MetricsRegistry.increment("api.retries");
+        MetricsRegistry.record("api.backoff.time", delay);
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.add(RequestTimings.Phase.BACKOFF, TimeUnit.MILLISECONDS.toNanos(delay));
+        }
+        LogUtils.logWarning(String.format("%s %s 第%d次尝试失败（%s），%dms 后重试", method, endpoint, attempt + 1, reason, delay));
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待重试时被中断", e);
+        }
     }
     
     /**
@@ -69,6 +309,118 @@ public class ApiHelper {
         return executeRequest("GET", endpoint, null, ApiConfig.getBaseRequestSpec(), queryParams);
     }
     
+    /**
+     * 分页流式获取列表端点的全部元素：按 _page/_limit 懒加载，
+     * 在消费当前页时后台预取后续页（预取深度由 stream.prefetch.pages 配置）
+     * 使用完毕后应关闭流（try-with-resources），以中断尚未完成的预取
+     * @param endpoint 列表端点（如 "/comments"）
+     * @param pageSize 每页条数
+     * @param type 元素类型
+     * @param <T> 泛型类型
+     * @return 元素流
+     */
+    public static <T> Stream<T> stream(String endpoint, int pageSize, Class<T> type) {
+        return stream(endpoint, null, pageSize, type);
+    }
+    
+    /**
+     * 带过滤参数的分页流式获取
+     * @param endpoint 列表端点
+     * @param queryParams 过滤参数（如 postId）
+     * @param pageSize 每页条数
+     * @param type 元素类型
+     * @param <T> 泛型类型
+     * @return 元素流
+     */
+    public static <T> Stream<T> stream(String endpoint, Map<String, Object> queryParams, int pageSize, Class<T> type) {
+        int prefetch = configManager.getIntProperty("stream.prefetch.pages", 2);
+        return new PagedStream<>(endpoint, queryParams, pageSize, prefetch, type).stream();
+    }
+    
+    /**
+     * 并发执行一组请求（并发上限 batch.parallelism，收集全部结果）
+     * @param requests 请求列表
+     * @return 与请求顺序一致的结果
+     */
+    public static BatchResult batch(List<BatchRequest> requests) {
+        return batch(requests, BatchPolicy.COLLECT_ALL, configManager.getIntProperty("batch.parallelism", 8));
+    }
+    
+    /**
+     * 并发执行一组请求：最多 parallelism 个工作线程依次领取下一项，结果按提交顺序返回
+     * @param requests 请求列表
+     * @param policy 部分失败策略
+     * @param parallelism 并发上限
+     * @return 与请求顺序一致的结果
+     * @throws BatchFailedException FAIL_FAST 策略下出现失败项时（携带批量结果）
+     */
+    public static BatchResult batch(List<BatchRequest> requests, BatchPolicy policy, int parallelism) {
+        int size = requests.size();
+        BatchResult.Item[] items = new BatchResult.Item[size];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger firstFailure = new AtomicInteger(-1);
+        int workers = Math.max(1, Math.min(parallelism, size));
+        CountDownLatch done = new CountDownLatch(workers);
+        // 工作线程上的CPU时间和分配计入发起批量请求的测试
+        ResourceUsage usage = ResourceUsage.current();
+        // 工作线程上的调用跨度挂在发起批量请求的测试跨度下
+        Span parent = Tracer.current();
+        long start = System.nanoTime();
+        
+        for (int w = 0; w < workers; w++) {
+            BATCH_EXECUTOR.execute(() -> {
+                try {
+                    int index;
+                    while ((index = next.getAndIncrement()) < size) {
+                        if (policy == BatchPolicy.FAIL_FAST && firstFailure.get() >= 0) {
+                            return;
+                        }
+                        BatchRequest request = requests.get(index);
+                        items[index] = ResourceUsage.attribute(usage, () -> Tracer.withParent(parent, () -> executeBatchItem(request)));
+                        if (items[index].isFailed()) {
+                            firstFailure.compareAndSet(-1, index);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待批量请求时被中断", e);
+        }
+        
+        List<BatchResult.Item> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(items[i] != null ? items[i] : new BatchResult.Item(requests.get(i), null, 0, null));
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        MetricsRegistry.record("api.batch.time", totalMillis);
+        BatchResult result = new BatchResult(results, totalMillis);
+        LogUtils.logPerformance(result.toString(), totalMillis);
+        
+        if (policy == BatchPolicy.FAIL_FAST && firstFailure.get() >= 0) {
+            BatchResult.Item failure = results.get(firstFailure.get());
+            throw new BatchFailedException("批量请求失败（fail-fast）: " + failure, failure.getError(), result);
+        }
+        return result;
+    }
+    
+    private static BatchResult.Item executeBatchItem(BatchRequest request) {
+        long start = System.nanoTime();
+        try {
+            Response response = executeRequest(request.getMethod(), request.getEndpoint(), request.getBody(),
+                    ApiConfig.getBaseRequestSpec(), request.getQueryParams());
+            return new BatchResult.Item(request, response, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null);
+        } catch (Exception | AssertionError e) {
+            return new BatchResult.Item(request, null, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e);
+        }
+    }
+    
     /**
      * 执行POST请求
      * @param endpoint API端点
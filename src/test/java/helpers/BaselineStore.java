@@ -0,0 +1,146 @@
+package helpers;
+
+import config.ConfigManager;
+import utils.JsonUtils;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 性能基线存储：每次运行保存为 {baseline.dir}/{环境}/{时间}-{git版本}.json，
+ * 文件名按时间排序，每个环境只保留最近 baseline.keep.runs 次运行
+ */
+public class BaselineStore {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String FILE_EXTENSION = ".json";
+
+    private final Path directory;
+    private final int keepRuns;
+
+    /**
+     * @param directory 存储目录
+     * @param keepRuns 每个环境保留的运行数
+     */
+    public BaselineStore(Path directory, int keepRuns) {
+        this.directory = directory;
+        this.keepRuns = Math.max(1, keepRuns);
+    }
+
+    /**
+     * 按 baseline.dir、baseline.keep.runs 配置创建
+     * @return 基线存储
+     */
+    public static BaselineStore fromConfig() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        return new BaselineStore(Paths.get(configManager.getProperty("baseline.dir", "perf-baselines")),
+                configManager.getIntProperty("baseline.keep.runs", 50));
+    }
+
+    /**
+     * 保存一次运行，并删除该环境超出保留数量的旧记录
+     * @param run 运行记录
+     * @return 保存的文件
+     */
+    public Path save(PerformanceRun run) {
+        Path environmentDirectory = directory.resolve(sanitize(run.getEnvironment()));
+        Path file = environmentDirectory.resolve(LocalDateTime.now().format(FILE_TIMESTAMP) + "-"
+                + sanitize(run.getRevision()) + FILE_EXTENSION);
+        try {
+            Files.createDirectories(environmentDirectory);
+            Files.write(file, JsonUtils.toJson(run).getBytes(StandardCharsets.UTF_8));
+            List<Path> files = list(environmentDirectory);
+            for (int i = keepRuns; i < files.size(); i++) {
+                Files.deleteIfExists(files.get(i));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("保存性能基线失败: " + file, e);
+        }
+        return file;
+    }
+
+    /**
+     * 读取某个环境最近的运行记录（不包括被判定为回退的运行）
+     * @param environment 环境
+     * @param limit 最多返回的数量
+     * @return 运行记录，从新到旧
+     */
+    public List<PerformanceRun> recent(String environment, int limit) {
+        Path environmentDirectory = directory.resolve(sanitize(environment));
+        List<PerformanceRun> runs = new ArrayList<>();
+        if (!Files.isDirectory(environmentDirectory)) {
+            return runs;
+        }
+        try {
+            for (Path file : list(environmentDirectory)) {
+                if (runs.size() >= limit) {
+                    break;
+                }
+                try {
+                    PerformanceRun run = JsonUtils.fromJson(Files.readAllBytes(file), PerformanceRun.class);
+                    if (!run.isRegressed()) {
+                        runs.add(run);
+                    }
+                } catch (RuntimeException e) {
+                    LogUtils.logWarning("跳过无法解析的性能基线: " + file + "（" + e.getMessage() + "）");
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("读取性能基线失败: " + environmentDirectory, e);
+        }
+        return runs;
+    }
+
+    /**
+     * 当前的git版本：优先取 baseline.revision 配置和 CI 环境变量（GIT_COMMIT、GITHUB_SHA），
+     * 否则执行 git rev-parse，都不可用时为 "unknown"
+     * @return 短版本号
+     */
+    public static String currentRevision() {
+        String configured = ConfigManager.getInstance().getProperty("baseline.revision", "");
+        for (String candidate : new String[]{configured, System.getenv("GIT_COMMIT"), System.getenv("GITHUB_SHA")}) {
+            if (candidate != null && !candidate.trim().isEmpty()) {
+                String revision = candidate.trim();
+                return revision.length() > 12 ? revision.substring(0, 12) : revision;
+            }
+        }
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short=12", "HEAD").redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0 && !output.isEmpty()) {
+                return output;
+            }
+        } catch (IOException e) {
+            // 没有安装git
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+
+    /**
+     * 列出目录中的运行记录，从新到旧
+     */
+    private static List<Path> list(Path environmentDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(environmentDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name == null || name.isEmpty() ? "unknown" : name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,22 @@
+package helpers;
+
+/**
+ * FAIL_FAST 策略下批量请求出现失败项时抛出，携带完整的批量结果：
+ * 第一个失败项之后尚未发出的请求在结果中为 {@link BatchResult.Item#isSkipped()}
+ */
+public class BatchFailedException extends IllegalStateException {
+    private final transient BatchResult result;
+
+    public BatchFailedException(String message, Throwable cause, BatchResult result) {
+        super(message, cause);
+        this.result = result;
+    }
+
+    /**
+     * 获取批量结果（与请求顺序一致，包含失败项和未执行项）
+     * @return BatchResult
+     */
+    public BatchResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package helpers;
+
+/**
+ * 批量请求的部分失败策略
+ */
+public enum BatchPolicy {
+    /** 第一个失败出现后不再发出新请求，等待已发出的请求结束后抛出异常 */
+    FAIL_FAST,
+    /** 执行全部请求，失败项记录在结果中，由调用方决定如何处理 */
+    COLLECT_ALL
+}
@@ -0,0 +1,65 @@
+package helpers;
+
+import java.util.Map;
+
+/**
+ * 批量请求中的一项请求描述
+ */
+public final class BatchRequest {
+    private final String method;
+    private final String endpoint;
+    private final Object body;
+    private final Map<String, Object> queryParams;
+
+    private BatchRequest(String method, String endpoint, Object body, Map<String, Object> queryParams) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.body = body;
+        this.queryParams = queryParams;
+    }
+
+    public static BatchRequest get(String endpoint) {
+        return new BatchRequest("GET", endpoint, null, null);
+    }
+
+    public static BatchRequest get(String endpoint, Map<String, Object> queryParams) {
+        return new BatchRequest("GET", endpoint, null, queryParams);
+    }
+
+    public static BatchRequest post(String endpoint, Object body) {
+        return new BatchRequest("POST", endpoint, body, null);
+    }
+
+    public static BatchRequest put(String endpoint, Object body) {
+        return new BatchRequest("PUT", endpoint, body, null);
+    }
+
+    public static BatchRequest patch(String endpoint, Object body) {
+        return new BatchRequest("PATCH", endpoint, body, null);
+    }
+
+    public static BatchRequest delete(String endpoint) {
+        return new BatchRequest("DELETE", endpoint, null, null);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Object getBody() {
+        return body;
+    }
+
+    public Map<String, Object> getQueryParams() {
+        return queryParams;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + endpoint + (queryParams != null && !queryParams.isEmpty() ? " " + queryParams : "");
+    }
+}
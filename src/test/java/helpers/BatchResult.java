@@ -0,0 +1,166 @@
+package helpers;
+
+import io.restassured.response.Response;
+import org.testng.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量请求的结果，与请求列表一一对应（按提交顺序），记录每项的状态码、耗时和异常
+ */
+public final class BatchResult {
+
+    /**
+     * 单项结果
+     */
+    public static final class Item {
+        private final BatchRequest request;
+        private final Response response;
+        private final long latencyMillis;
+        private final Throwable error;
+
+        Item(BatchRequest request, Response response, long latencyMillis, Throwable error) {
+            this.request = request;
+            this.response = response;
+            this.latencyMillis = latencyMillis;
+            this.error = error;
+        }
+
+        public BatchRequest getRequest() {
+            return request;
+        }
+
+        /**
+         * @return 响应，请求异常或未执行时为null
+         */
+        public Response getResponse() {
+            return response;
+        }
+
+        /**
+         * @return 状态码，请求异常或未执行时为-1
+         */
+        public int getStatusCode() {
+            return response != null ? response.getStatusCode() : -1;
+        }
+
+        /**
+         * @return 耗时（毫秒，包括重试），未执行时为0
+         */
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * @return 是否因 FAIL_FAST 而未执行
+         */
+        public boolean isSkipped() {
+            return response == null && error == null;
+        }
+
+        /**
+         * @return 是否失败：请求异常或状态码不是2xx
+         */
+        public boolean isFailed() {
+            return error != null || (response != null && (response.getStatusCode() < 200 || response.getStatusCode() >= 300));
+        }
+
+        @Override
+        public String toString() {
+            String outcome = error != null ? error.getClass().getSimpleName() + ": " + error.getMessage()
+                    : isSkipped() ? "未执行" : String.valueOf(getStatusCode());
+            return request + " -> " + outcome + " (" + latencyMillis + "ms)";
+        }
+    }
+
+    private final List<Item> items;
+    private final long totalMillis;
+
+    BatchResult(List<Item> items, long totalMillis) {
+        this.items = Collections.unmodifiableList(items);
+        this.totalMillis = totalMillis;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public Item get(int index) {
+        return items.get(index);
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    /**
+     * @return 批量请求总耗时（毫秒）
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * @return 按顺序排列的响应（未执行或异常的项为null）
+     */
+    public List<Response> responses() {
+        List<Response> responses = new ArrayList<>(items.size());
+        for (Item item : items) {
+            responses.add(item.response);
+        }
+        return responses;
+    }
+
+    /**
+     * @return 失败项
+     */
+    public List<Item> failures() {
+        List<Item> failures = new ArrayList<>();
+        for (Item item : items) {
+            if (item.isFailed()) {
+                failures.add(item);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 断言每一项的状态码都等于期望值
+     * @param expectedStatusCode 期望的状态码
+     */
+    public void assertAllStatus(int expectedStatusCode) {
+        List<Item> mismatches = new ArrayList<>();
+        for (Item item : items) {
+            if (item.getStatusCode() != expectedStatusCode) {
+                mismatches.add(item);
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            Assert.fail(String.format("批量请求中%d/%d项状态码不是%d: %s", mismatches.size(), items.size(),
+                    expectedStatusCode, mismatches.subList(0, Math.min(10, mismatches.size()))));
+        }
+    }
+
+    /**
+     * 每一项的耗时
+     * @return 毫秒数组，与请求顺序一致
+     */
+    public long[] latencies() {
+        long[] latencies = new long[items.size()];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = items.get(i).latencyMillis;
+        }
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("批量请求 %d项，失败%d项，总耗时%dms", items.size(), failures().size(), totalMillis);
+    }
+}
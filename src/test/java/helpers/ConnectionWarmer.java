@@ -0,0 +1,100 @@
+package helpers;
+
+import config.ApiConfig;
+import io.restassured.response.Response;
+import utils.LogUtils;
+import utils.MetricsRegistry;
+
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接预热：套件开始前预先解析基础URL的主机名，并用并发请求在共享连接池中建立指定数量的连接
+ * <p>
+ * 预热分两轮：第一轮（冷启动）每个请求都要经历DNS、TCP和TLS握手，第二轮（预热后）复用第一轮留在池中的连接，
+ * 两轮的耗时分别记入 warmup.cold.time 和 warmup.warm.time，不计入 api.* 指标
+ */
+public final class ConnectionWarmer {
+
+    private ConnectionWarmer() {
+    }
+
+    /**
+     * 预热连接，失败只记录警告，不影响测试
+     * @param connections 并发连接数，不大于0时跳过
+     * @param path 预热请求的路径（GET，如 "/posts/1"）
+     */
+    public static void warmUp(int connections, String path) {
+        if (connections <= 0) {
+            return;
+        }
+        URI baseUri = URI.create(ApiConfig.getBaseUrl());
+        long dnsStart = System.nanoTime();
+        try {
+            ApiConfig.getDnsResolver().resolve(baseUri.getHost());
+        } catch (UnknownHostException e) {
+            LogUtils.logWarning("连接预热跳过，无法解析主机: " + baseUri.getHost());
+            return;
+        }
+        long dnsMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dnsStart);
+
+        long[] cold = round(connections, path, "warmup.cold.time");
+        long[] warm = round(connections, path, "warmup.warm.time");
+        LogUtils.logInfo(String.format("连接预热 %s: DNS %dms，%d个连接 冷启动 最大%dms，预热后 最大%dms，池中空闲连接 %d",
+                baseUri.getHost(), dnsMillis, connections, max(cold), max(warm),
+                ApiConfig.getConnectionPoolStats().getAvailable()));
+    }
+
+    /**
+     * 并发发送一轮请求：所有线程在同一时刻开始，每个请求占用各自的连接
+     * @return 每个成功请求的耗时（毫秒）
+     */
+    private static long[] round(int connections, String path, String metric) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long[] latencies = new long[connections];
+        for (int i = 0; i < connections; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    Response response = ApiConfig.getBaseRequestSpec().get(path);
+                    response.asByteArray();
+                    latencies[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                    MetricsRegistry.record(metric, latencies[index]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    // Rest Assured 可能直接抛出未声明的受检I/O异常
+                    LogUtils.logWarning("连接预热请求失败: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+                }
+            }, "connection-warmup-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return latencies;
+    }
+
+    private static long max(long[] values) {
+        long max = 0;
+        for (long value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,44 @@
+package helpers;
+
+import java.util.stream.IntStream;
+
+/**
+ * ID区间（闭区间），作为数据提供者的一行数据，代表一个分片内的全部资源ID
+ */
+public final class IdRange {
+    private final int start;
+    private final int end;
+
+    public IdRange(int start, int end) {
+        if (start > end) {
+            throw new IllegalArgumentException("ID区间起点不能大于终点: " + start + " > " + end);
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public int size() {
+        return end - start + 1;
+    }
+
+    /**
+     * 以流的形式遍历区间内的ID，不物化数组
+     * @return IntStream
+     */
+    public IntStream ids() {
+        return IntStream.rangeClosed(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ".." + end + "]";
+    }
+}
@@ -0,0 +1,255 @@
+package helpers;
+
+import config.ConfigManager;
+import org.testng.Assert;
+import utils.LogUtils;
+import utils.MetricsRegistry;
+import utils.RequestTimings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 延迟SLO断言：对一个端点先预热，再按样本数或持续时间重复请求，把耗时收集到分布中，
+ * 对 p50/p95/p99 等分位和错误率预算做断言
+ * <p>
+ * 样本通过 {@link ApiHelper#batch} 发送，耗时是调用方看到的完整耗时（包括重试）；
+ * 异常或非2xx的样本计入错误率，不进入耗时分布。未达标时失败信息中附带分布、最慢的样本（含分阶段耗时）和错误样本
+ * <pre>
+ * LatencySlo.get("/posts").samples(30).p50(500).p95(1500).p99(3000).maxErrorRate(0.01).verify();
+ * </pre>
+ */
+public final class LatencySlo {
+    private static final int OUTLIERS_SHOWN = 5;
+
+    /**
+     * 一个样本
+     */
+    private static final class Sample {
+        private final int index;
+        private final BatchResult.Item item;
+
+        private Sample(int index, BatchResult.Item item) {
+            this.index = index;
+            this.item = item;
+        }
+
+        @Override
+        public String toString() {
+            String outcome = item.getError() != null
+                    ? item.getError().getClass().getSimpleName() + ": " + item.getError().getMessage()
+                    : String.valueOf(item.getStatusCode());
+            RequestTimings timings = item.getResponse() != null ? RequestTimings.of(item.getResponse()) : null;
+            return "#" + index + " " + item.getLatencyMillis() + "ms " + outcome + (timings != null ? " [" + timings + "]" : "");
+        }
+    }
+
+    private final BatchRequest request;
+    private final Map<Double, Long> percentileLimits = new TreeMap<>();
+    private int warmUpRequests;
+    private int samples;
+    private Duration duration;
+    private int concurrency = 1;
+    private double maxErrorRate;
+
+    private LatencySlo(BatchRequest request) {
+        ConfigManager configManager = ConfigManager.getInstance();
+        this.request = request;
+        this.warmUpRequests = configManager.getIntProperty("slo.warmup.requests", 3);
+        this.samples = configManager.getIntProperty("slo.samples", 30);
+    }
+
+    /**
+     * 对任意请求定义SLO
+     * @param request 请求
+     * @return SLO
+     */
+    public static LatencySlo of(BatchRequest request) {
+        return new LatencySlo(request);
+    }
+
+    /**
+     * 对GET端点定义SLO
+     * @param endpoint API端点
+     * @return SLO
+     */
+    public static LatencySlo get(String endpoint) {
+        return of(BatchRequest.get(endpoint));
+    }
+
+    /**
+     * @param requests 预热请求数（不计入样本），默认取 slo.warmup.requests
+     * @return this
+     */
+    public LatencySlo warmUp(int requests) {
+        this.warmUpRequests = Math.max(0, requests);
+        return this;
+    }
+
+    /**
+     * @param count 样本数，默认取 slo.samples
+     * @return this
+     */
+    public LatencySlo samples(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("样本数必须大于0: " + count);
+        }
+        this.samples = count;
+        this.duration = null;
+        return this;
+    }
+
+    /**
+     * 按持续时间采样（代替样本数）：每轮发送 concurrency 个请求，直到超过该时间
+     * @param duration 持续时间
+     * @return this
+     */
+    public LatencySlo duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * @param concurrency 同时进行的请求数，默认1
+     * @return this
+     */
+    public LatencySlo concurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    public LatencySlo p50(long maxMillis) {
+        return percentile(50, maxMillis);
+    }
+
+    public LatencySlo p95(long maxMillis) {
+        return percentile(95, maxMillis);
+    }
+
+    public LatencySlo p99(long maxMillis) {
+        return percentile(99, maxMillis);
+    }
+
+    /**
+     * 任意分位的上限
+     * @param percentile 分位（0~100）
+     * @param maxMillis 上限（毫秒）
+     * @return this
+     */
+    public LatencySlo percentile(double percentile, long maxMillis) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("分位必须在 (0, 100] 之间: " + percentile);
+        }
+        percentileLimits.put(percentile, maxMillis);
+        return this;
+    }
+
+    /**
+     * @param rate 允许的错误率（0~1），默认0
+     * @return this
+     */
+    public LatencySlo maxErrorRate(double rate) {
+        this.maxErrorRate = rate;
+        return this;
+    }
+
+    /**
+     * 预热、采样并断言，未达标时失败
+     * @return 成功样本的耗时分布
+     */
+    public MetricsRegistry.Snapshot verify() {
+        if (warmUpRequests > 0) {
+            ApiHelper.batch(Collections.nCopies(warmUpRequests, request), BatchPolicy.COLLECT_ALL, concurrency);
+        }
+
+        List<Sample> collected = collect();
+        MetricsRegistry.Timer timer = new MetricsRegistry.Timer();
+        List<Sample> errors = new ArrayList<>();
+        for (Sample sample : collected) {
+            if (sample.item.isFailed()) {
+                errors.add(sample);
+            } else {
+                timer.record(sample.item.getLatencyMillis());
+            }
+        }
+        MetricsRegistry.Snapshot snapshot = timer.snapshot();
+        double errorRate = (double) errors.size() / collected.size();
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<Double, Long> limit : percentileLimits.entrySet()) {
+            long actual = snapshot.getPercentile(limit.getKey());
+            if (snapshot.getCount() > 0 && actual > limit.getValue()) {
+                violations.add(String.format("p%s = %dms > %dms", format(limit.getKey()), actual, limit.getValue()));
+            }
+        }
+        if (errorRate > maxErrorRate) {
+            violations.add(String.format("错误率 %.2f%% > %.2f%%", errorRate * 100, maxErrorRate * 100));
+        }
+
+        String summary = String.format("SLO %s（%d个样本，并发%d，错误%d）%s", request, collected.size(), concurrency,
+                errors.size(), distribution(snapshot));
+        if (!violations.isEmpty()) {
+            Assert.fail("SLO未达标: " + String.join("; ", violations) + "\n" + summary + diagnostics(collected, errors));
+        }
+        LogUtils.logPerformance(summary, snapshot.getPercentile(50));
+        return snapshot;
+    }
+
+    private List<Sample> collect() {
+        List<Sample> collected = new ArrayList<>();
+        if (duration == null) {
+            addAll(collected, ApiHelper.batch(Collections.nCopies(samples, request), BatchPolicy.COLLECT_ALL, concurrency));
+            return collected;
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        do {
+            addAll(collected, ApiHelper.batch(Collections.nCopies(concurrency, request), BatchPolicy.COLLECT_ALL, concurrency));
+        } while (System.nanoTime() - deadline < 0);
+        return collected;
+    }
+
+    private static void addAll(List<Sample> collected, BatchResult result) {
+        for (BatchResult.Item item : result.getItems()) {
+            collected.add(new Sample(collected.size(), item));
+        }
+    }
+
+    private String distribution(MetricsRegistry.Snapshot snapshot) {
+        StringBuilder text = new StringBuilder(" 分布: ");
+        text.append("p50=").append(snapshot.getPercentile(50)).append("ms");
+        for (double percentile : percentileLimits.keySet()) {
+            if (percentile != 50) {
+                text.append(", p").append(format(percentile)).append('=').append(snapshot.getPercentile(percentile)).append("ms");
+            }
+        }
+        text.append(", max=").append(snapshot.getMax()).append("ms");
+        text.append(String.format(", mean=%.1fms", snapshot.getMean()));
+        return text.toString();
+    }
+
+    /**
+     * 离群诊断：最慢的样本及其在采样序列中的位置（集中在开头通常说明预热不足），以及错误样本
+     */
+    private static String diagnostics(List<Sample> collected, List<Sample> errors) {
+        List<Sample> slowest = new ArrayList<>(collected);
+        slowest.removeAll(errors);
+        slowest.sort(Comparator.comparingLong((Sample sample) -> sample.item.getLatencyMillis()).reversed());
+        StringBuilder text = new StringBuilder();
+        if (!slowest.isEmpty()) {
+            text.append("\n最慢的样本: ").append(slowest.subList(0, Math.min(OUTLIERS_SHOWN, slowest.size())));
+        }
+        if (!errors.isEmpty()) {
+            text.append("\n错误样本: ").append(errors.subList(0, Math.min(OUTLIERS_SHOWN, errors.size())));
+        }
+        return text.toString();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,184 @@
+package helpers;
+
+import io.restassured.response.Response;
+import profiling.ResourceUsage;
+import tracing.Span;
+import tracing.Tracer;
+import utils.JsonUtils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 列表端点的分页迭代器，按 _page/_limit 逐页请求，并在调用方处理当前页时在后台预取后续页
+ * <p>
+ * 同时最多有 prefetch 个页面在请求或等待消费，内存占用与集合总大小无关；
+ * 响应的 X-Total-Count 头用于确定总页数，缺失时以返回条数少于 pageSize 作为最后一页。
+ * 关闭或丢弃超出范围的预取时中断预取线程：还在等待连接池连接的请求随之放弃，
+ * 已在读取响应的请求不会被中断（阻塞的socket读取不响应中断），读完后结果被丢弃
+ * @param <T> 元素类型
+ */
+public class PagedStream<T> implements Iterator<T>, AutoCloseable {
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "page-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 一页结果
+     */
+    private static final class Page<T> {
+        private final List<T> items;
+        private final int totalCount;
+
+        private Page(List<T> items, int totalCount) {
+            this.items = items;
+            this.totalCount = totalCount;
+        }
+    }
+
+    private final String endpoint;
+    private final Map<String, Object> queryParams;
+    private final int pageSize;
+    private final int prefetch;
+    private final Class<T> type;
+    private final ArrayDeque<Future<Page<T>>> pending = new ArrayDeque<>();
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private int nextPage = 1;
+    private int lastPage = Integer.MAX_VALUE;
+    private boolean closed;
+
+    /**
+     * @param endpoint 列表端点（如 "/comments"）
+     * @param queryParams 额外的查询参数（可为null）
+     * @param pageSize 每页条数
+     * @param prefetch 预取深度（至少为1）
+     * @param type 元素类型
+     */
+    public PagedStream(String endpoint, Map<String, Object> queryParams, int pageSize, int prefetch, Class<T> type) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize 必须大于0: " + pageSize);
+        }
+        this.endpoint = endpoint;
+        this.queryParams = queryParams != null ? queryParams : Collections.emptyMap();
+        this.pageSize = pageSize;
+        this.prefetch = Math.max(1, prefetch);
+        this.type = type;
+    }
+
+    /**
+     * 包装为顺序流，关闭流时中断尚未完成的预取
+     * @return Stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            fill();
+            Future<Page<T>> future = pending.poll();
+            if (future == null) {
+                return false;
+            }
+            Page<T> page = await(future);
+            if (page.totalCount >= 0) {
+                lastPage = Math.min(lastPage, Math.max(1, (page.totalCount + pageSize - 1) / pageSize));
+            } else if (page.items.size() < pageSize) {
+                lastPage = Math.min(lastPage, nextPage - pending.size() - 1);
+            }
+            // 总页数可能刚刚确定，丢弃超出范围的预取
+            while (nextPage - 1 > lastPage && !pending.isEmpty()) {
+                pending.pollLast().cancel(true);
+                nextPage--;
+            }
+            current = page.items.iterator();
+            fill();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Future<Page<T>> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+        current = Collections.emptyIterator();
+    }
+
+    /**
+     * 补足预取队列
+     */
+    private void fill() {
+        // 预取线程上的调用跨度挂在消费方（测试线程）的当前跨度下，CPU时间和分配计入该测试
+        Span parent = Tracer.current();
+        ResourceUsage usage = ResourceUsage.current();
+        while (!closed && pending.size() < prefetch && nextPage <= lastPage) {
+            int page = nextPage++;
+            // 使用 submit 而不是 CompletableFuture.supplyAsync：后者的 cancel(true) 不会中断正在执行的任务
+            pending.add(PREFETCH_EXECUTOR.submit(
+                    () -> ResourceUsage.attribute(usage, () -> Tracer.withParent(parent, () -> fetch(page)))));
+        }
+    }
+
+    private Page<T> fetch(int page) {
+        Map<String, Object> params = new LinkedHashMap<>(queryParams);
+        params.put("_page", page);
+        params.put("_limit", pageSize);
+        Response response = ApiHelper.get(endpoint, params);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException(String.format("分页请求失败: %s?_page=%d&_limit=%d，状态码: %d",
+                    endpoint, page, pageSize, response.getStatusCode()));
+        }
+
+        String totalCount = response.getHeader("X-Total-Count");
+        List<T> items = JsonUtils.fromJsonToList(response.asByteArray(), type);
+        return new Page<>(items, totalCount != null ? Integer.parseInt(totalCount.trim()) : -1);
+    }
+
+    private static <T> Page<T> await(Future<Page<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待分页请求时被中断", e);
+        } catch (ExecutionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("分页请求失败: " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package helpers;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import utils.MetricsRegistry;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一次运行的性能记录：各端点的调用耗时分布和吞吐量，按环境和git版本保存在 {@link BaselineStore} 中
+ * <p>
+ * 分布保存为 {@link MetricsRegistry.Snapshot#getBuckets()} 的“桶值 -&gt; 次数”（毫秒，小于64ms精确，之外相对误差约3%），
+ * 还原后各桶计数不变，文件大小只与非空桶的个数有关
+ */
+public class PerformanceRun {
+
+    /**
+     * 一个端点（如 "GET /posts/{id}"）的统计
+     */
+    public static class Endpoint {
+        @JsonProperty
+        private long count;
+        @JsonProperty
+        private double throughput;
+        @JsonProperty
+        private TreeMap<Long, Integer> histogram = new TreeMap<>();
+
+        private Endpoint() {
+        }
+
+        static Endpoint of(MetricsRegistry.Snapshot snapshot, long durationMillis) {
+            Endpoint endpoint = new Endpoint();
+            snapshot.getBuckets().forEach((value, count) -> endpoint.histogram.put(value, Math.toIntExact(count)));
+            endpoint.count = snapshot.getCount();
+            endpoint.throughput = durationMillis > 0 ? endpoint.count * 1000.0 / durationMillis : 0;
+            return endpoint;
+        }
+
+        /**
+         * 合并多次运行的同一端点（用于组成基线）
+         * @param endpoints 端点统计
+         * @return 合并后的统计，吞吐量取平均值
+         */
+        public static Endpoint merge(List<Endpoint> endpoints) {
+            Endpoint merged = new Endpoint();
+            for (Endpoint endpoint : endpoints) {
+                endpoint.histogram.forEach((value, count) -> merged.histogram.merge(value, count, Integer::sum));
+                merged.count += endpoint.count;
+                merged.throughput += endpoint.throughput / endpoints.size();
+            }
+            return merged;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return 每秒调用次数（调用数 / 运行时长）
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        /**
+         * @return 耗时（毫秒）-&gt; 次数，按耗时升序
+         */
+        public Map<Long, Integer> getHistogram() {
+            return Collections.unmodifiableMap(histogram);
+        }
+
+        /**
+         * @return 还原为耗时分布快照
+         */
+        public MetricsRegistry.Snapshot toSnapshot() {
+            MetricsRegistry.Timer timer = new MetricsRegistry.Timer();
+            histogram.forEach(timer::record);
+            return timer.snapshot();
+        }
+    }
+
+    @JsonProperty
+    private String environment;
+    @JsonProperty
+    private String revision;
+    @JsonProperty
+    private String timestamp;
+    @JsonProperty
+    private long durationMillis;
+    @JsonProperty
+    private boolean regressed;
+    @JsonProperty
+    private TreeMap<String, Endpoint> endpoints = new TreeMap<>();
+
+    private PerformanceRun() {
+    }
+
+    /**
+     * 从 {@link MetricsRegistry} 中按端点记录的耗时（api.endpoint.*）生成本次运行的记录
+     * @param environment 环境
+     * @param revision git版本
+     * @param durationMillis 运行时长（毫秒），用于计算吞吐量
+     * @return 运行记录
+     */
+    public static PerformanceRun capture(String environment, String revision, long durationMillis) {
+        PerformanceRun run = new PerformanceRun();
+        run.environment = environment;
+        run.revision = revision;
+        run.timestamp = Instant.now().toString();
+        run.durationMillis = durationMillis;
+        MetricsRegistry.snapshots(ApiHelper.ENDPOINT_METRIC_PREFIX).forEach((name, snapshot) ->
+                run.endpoints.put(name.substring(ApiHelper.ENDPOINT_METRIC_PREFIX.length()), Endpoint.of(snapshot, durationMillis)));
+        return run;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return 记录时间（ISO-8601）
+     */
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return 本次运行是否被判定为性能回退（回退的运行不作为后续比较的基线）
+     */
+    public boolean isRegressed() {
+        return regressed;
+    }
+
+    public void setRegressed(boolean regressed) {
+        this.regressed = regressed;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    @Override
+    public String toString() {
+        return environment + "@" + revision + " " + timestamp + "（" + endpoints.size() + "个端点）";
+    }
+}
@@ -0,0 +1,327 @@
+package helpers;
+
+import config.ConfigManager;
+import io.restassured.response.Response;
+import profiling.ResourceUsage;
+import tracing.Span;
+import tracing.Tracer;
+import utils.LogUtils;
+import utils.MetricsRegistry;
+import validations.ValidationReport;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 三阶段流水线：请求（ApiHelper）→ 解析（JsonUtils）→ 验证（DataValidator），
+ * 每个阶段有独立的线程数，阶段之间是有界队列，下游处理不过来时上游在 put 上阻塞（背压）
+ * <p>
+ * 网络等待和解析/验证的CPU工作在不同线程上重叠进行，批量验证时网络和CPU可以同时保持繁忙。
+ * 任一阶段的异常记为对应输入的失败，不中断其余输入；验证线程各自写入独立的报告，结束时合并
+ * @param <K> 输入类型（如资源ID）
+ * @param <T> 解析结果类型
+ */
+public class RequestPipeline<K, T> {
+
+    /**
+     * 验证阶段
+     */
+    @FunctionalInterface
+    public interface Validator<K, T> {
+        /**
+         * @param input 输入
+         * @param index 输入序号
+         * @param parsed 解析结果
+         * @param report 当前验证线程的报告
+         */
+        void validate(K input, int index, T parsed, ValidationReport report);
+    }
+
+    /**
+     * 在阶段之间传递的元素
+     */
+    private static final class Item<K> {
+        private final int index;
+        private final K input;
+        private final Object payload;
+
+        private Item(int index, K input, Object payload) {
+            this.index = index;
+            this.input = input;
+            this.payload = payload;
+        }
+    }
+
+    private static final Item<?> END = new Item<>(-1, null, null);
+
+    private final String subject;
+    private Function<K, Response> request;
+    private Function<Response, T> parse;
+    private Validator<K, T> validator;
+    private int requestThreads;
+    private int parseThreads;
+    private int validateThreads;
+    private int queueCapacity;
+
+    private RequestPipeline(String subject) {
+        ConfigManager configManager = ConfigManager.getInstance();
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.subject = subject;
+        this.requestThreads = configManager.getIntProperty("pipeline.request.threads", 8);
+        this.parseThreads = configManager.getIntProperty("pipeline.parse.threads", Math.max(1, cores / 2));
+        this.validateThreads = configManager.getIntProperty("pipeline.validate.threads", Math.max(1, cores / 2));
+        this.queueCapacity = configManager.getIntProperty("pipeline.queue.capacity", 32);
+    }
+
+    /**
+     * 创建流水线，线程数和队列容量默认取 pipeline.* 配置
+     * @param subject 验证对象名称（用于报告）
+     * @return 流水线
+     */
+    public static <K, T> RequestPipeline<K, T> of(String subject) {
+        return new RequestPipeline<>(subject);
+    }
+
+    public RequestPipeline<K, T> request(Function<K, Response> request) {
+        this.request = request;
+        return this;
+    }
+
+    public RequestPipeline<K, T> parse(Function<Response, T> parse) {
+        this.parse = parse;
+        return this;
+    }
+
+    public RequestPipeline<K, T> validate(Validator<K, T> validator) {
+        this.validator = validator;
+        return this;
+    }
+
+    /**
+     * 设置各阶段线程数
+     * @param requestThreads 请求线程数
+     * @param parseThreads 解析线程数
+     * @param validateThreads 验证线程数
+     * @return this
+     */
+    public RequestPipeline<K, T> threads(int requestThreads, int parseThreads, int validateThreads) {
+        this.requestThreads = Math.max(1, requestThreads);
+        this.parseThreads = Math.max(1, parseThreads);
+        this.validateThreads = Math.max(1, validateThreads);
+        return this;
+    }
+
+    public RequestPipeline<K, T> queueCapacity(int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        return this;
+    }
+
+    /**
+     * 运行流水线，调用线程负责投递输入，直到所有输入验证完成
+     * @param inputs 输入
+     * @return 合并后的验证报告（checkedCount 为完成验证的输入数量）
+     */
+    @SuppressWarnings("unchecked")
+    public ValidationReport run(Iterator<K> inputs) {
+        if (request == null || parse == null || validator == null) {
+            throw new IllegalStateException("流水线的 request、parse、validate 阶段都必须设置");
+        }
+
+        BlockingQueue<Item<K>> requestQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Item<K>> parseQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Item<K>> validateQueue = new ArrayBlockingQueue<>(queueCapacity);
+        List<ValidationReport> reports = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        Stage requestStage = new Stage("request", requestThreads, requestQueue, parseQueue, parseThreads);
+        Stage parseStage = new Stage("parse", parseThreads, parseQueue, validateQueue, validateThreads);
+        Stage validateStage = new Stage("validate", validateThreads, validateQueue, null, 0);
+
+        // 请求线程上的调用跨度挂在运行流水线的测试跨度下，各阶段线程上的CPU时间和分配计入该测试
+        Span parent = Tracer.current();
+        ResourceUsage usage = ResourceUsage.current();
+        for (int i = 0; i < requestThreads; i++) {
+            threads.add(requestStage.start(i, null, item -> ResourceUsage.attribute(usage, () -> new Item<>(item.index, item.input,
+                    Tracer.withParent(parent, () -> request.apply(item.input))))));
+        }
+        for (int i = 0; i < parseThreads; i++) {
+            threads.add(parseStage.start(i, null, item -> ResourceUsage.attribute(usage,
+                    () -> new Item<>(item.index, item.input, parse.apply((Response) item.payload)))));
+        }
+        for (int i = 0; i < validateThreads; i++) {
+            ValidationReport report = new ValidationReport(subject);
+            reports.add(report);
+            threads.add(validateStage.start(i, report, item -> ResourceUsage.attribute(usage, () -> {
+                validator.validate(item.input, item.index, (T) item.payload, report);
+                report.addChecked(1);
+                return null;
+            })));
+        }
+
+        long start = System.nanoTime();
+        int count = 0;
+        try {
+            while (inputs.hasNext()) {
+                requestQueue.put(new Item<>(count++, inputs.next(), null));
+            }
+            for (int i = 0; i < requestThreads; i++) {
+                requestQueue.put((Item<K>) END);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            threads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("流水线被中断", e);
+        }
+
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LogUtils.logPerformance(String.format("流水线[%s] %d项（%s, %s, %s）", subject, count,
+                requestStage, parseStage, validateStage), wallMillis);
+
+        ValidationReport merged = new ValidationReport(subject);
+        for (ValidationReport report : reports) {
+            merged.merge(report);
+        }
+        for (Stage stage : List.of(requestStage, parseStage)) {
+            for (Failure failure : stage.failures) {
+                merged.fail(failure.index, stage.name + "阶段异常", failure.message);
+                merged.addChecked(1);
+            }
+            MetricsRegistry.add("pipeline." + stage.name + ".busy.ms", stage.busyMillis());
+        }
+        MetricsRegistry.add("pipeline.validate.busy.ms", validateStage.busyMillis());
+        return merged;
+    }
+
+    /**
+     * 阶段失败记录
+     */
+    private static final class Failure {
+        private final int index;
+        private final String message;
+
+        private Failure(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+    }
+
+    /**
+     * 一个阶段：固定数量的工作线程从输入队列取元素、处理后放入输出队列；
+     * 最后一个退出的线程（无论正常结束还是因 Error 终止）向下游投递结束标记。
+     * 工作线程因 Error 终止时，该元素记为失败；若全部工作线程都已终止，最后一个线程把剩余输入记为失败并取走，
+     * 上游不会因为输入队列没有消费者而阻塞
+     */
+    private final class Stage {
+        private final String name;
+        private final int threads;
+        private final BlockingQueue<Item<K>> in;
+        private final BlockingQueue<Item<K>> out;
+        private final int downstreamThreads;
+        private final AtomicInteger running;
+        // 已取到的结束标记数，上游共投递 threads 个
+        private final AtomicInteger endsTaken = new AtomicInteger();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final List<Failure> failures = new ArrayList<>();
+
+        private Stage(String name, int threads, BlockingQueue<Item<K>> in, BlockingQueue<Item<K>> out, int downstreamThreads) {
+            this.name = name;
+            this.threads = threads;
+            this.in = in;
+            this.out = out;
+            this.downstreamThreads = downstreamThreads;
+            this.running = new AtomicInteger(threads);
+        }
+
+        private Thread start(int number, ValidationReport report, Function<Item<K>, Item<K>> work) {
+            Thread thread = new Thread(() -> {
+                try {
+                    Item<K> item;
+                    while ((item = in.take()) != END) {
+                        long begin = System.nanoTime();
+                        Item<K> result = null;
+                        try {
+                            result = work.apply(item);
+                        } catch (Exception | AssertionError e) {
+                            // Rest Assured 可能直接抛出未声明的受检I/O异常
+                            fail(report, item.index, e);
+                        } catch (Error e) {
+                            fail(report, item.index, e);
+                            throw e;
+                        } finally {
+                            busyNanos.addAndGet(System.nanoTime() - begin);
+                        }
+                        if (result != null && out != null) {
+                            out.put(result);
+                        }
+                    }
+                    endsTaken.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finish(report);
+                }
+            }, "pipeline-" + name + "-" + number);
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        }
+
+        /**
+         * 工作线程退出：最后一个退出的线程取走剩余输入（只在有线程因 Error 提前终止时存在），再向下游投递结束标记
+         */
+        @SuppressWarnings("unchecked")
+        private void finish(ValidationReport report) {
+            if (running.decrementAndGet() != 0) {
+                return;
+            }
+            try {
+                while (endsTaken.get() < threads) {
+                    Item<K> item = in.take();
+                    if (item == END) {
+                        endsTaken.incrementAndGet();
+                    } else {
+                        fail(report, item.index, new IllegalStateException(name + "阶段的工作线程已全部终止"));
+                    }
+                }
+                if (out != null) {
+                    for (int i = 0; i < downstreamThreads; i++) {
+                        out.put((Item<K>) END);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void fail(ValidationReport report, int index, Throwable error) {
+            if (report != null) {
+                // 每个验证线程有自己的报告，最后退出的线程取走剩余输入时其它线程都已结束
+                report.fail(index, name + "阶段异常", error.getMessage());
+                report.addChecked(1);
+            } else {
+                synchronized (failures) {
+                    failures.add(new Failure(index, error.getClass().getSimpleName() + ": " + error.getMessage()));
+                }
+            }
+        }
+
+        private long busyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + threads + "线程 忙碌" + busyMillis() + "ms";
+        }
+    }
+}
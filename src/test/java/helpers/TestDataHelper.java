@@ -4,23 +4,40 @@ import models.Comment;
 import models.Post;
 import models.User;
 
+import java.util.Locale;
 import java.util.Random;
 
 /**
  * 测试数据助手类，用于生成和管理测试数据
+ * 所有随机数据均来自 TestSeedManager 提供的线程级种子流，失败用例可按种子复现
  */
 public class TestDataHelper {
-    private static final Random random = new Random();
+    
+    /**
+     * 获取当前测试线程的随机数生成器
+     */
+    private static Random random() {
+        return TestSeedManager.random();
+    }
+    
+    /**
+     * 生成可复现的唯一标记（替代时间戳，保证相同种子得到相同载荷）
+     * @return 唯一标记
+     */
+    public static String nextToken() {
+        return Long.toString(random().nextLong() & Long.MAX_VALUE, 36);
+    }
     
     /**
      * 创建测试用的Post对象
      * @return Post对象
      */
     public static Post createTestPost() {
+        String token = nextToken();
         return new Post(
-                random.nextInt(10) + 1, // userId: 1-10
-                "Test Post Title " + System.currentTimeMillis(),
-                "This is a test post body created at " + System.currentTimeMillis()
+                random().nextInt(10) + 1, // userId: 1-10
+                "Test Post Title " + token,
+                "This is a test post body created at " + token
         );
     }
     
@@ -30,10 +47,11 @@ public class TestDataHelper {
      * @return Post对象
      */
     public static Post createTestPost(Integer userId) {
+        String token = nextToken();
         return new Post(
                 userId,
-                "Test Post Title for User " + userId + " - " + System.currentTimeMillis(),
-                "This is a test post body for user " + userId + " created at " + System.currentTimeMillis()
+                "Test Post Title for User " + userId + " - " + token,
+                "This is a test post body for user " + userId + " created at " + token
         );
     }
     
@@ -44,11 +62,12 @@ public class TestDataHelper {
      * @return Post对象
      */
     public static Post createUpdatePost(Integer id, Integer userId) {
+        String token = nextToken();
         return new Post(
                 id,
                 userId,
-                "Updated Post Title " + System.currentTimeMillis(),
-                "This is an updated post body at " + System.currentTimeMillis()
+                "Updated Post Title " + token,
+                "This is an updated post body at " + token
         );
     }
     
@@ -57,24 +76,56 @@ public class TestDataHelper {
      * @return User对象
      */
     public static User createTestUser() {
-        long timestamp = System.currentTimeMillis();
+        String token = nextToken();
         return new User(
-                "Test User " + timestamp,
-                "testuser" + timestamp,
-                "testuser" + timestamp + "@example.com"
+                "Test User " + token,
+                "testuser" + token,
+                "testuser" + token + "@example.com"
         );
     }
     
+    /**
+     * 创建包含地址、电话、网站和公司信息的完整User对象
+     * @return User对象
+     */
+    public static User createDetailedTestUser() {
+        User user = createTestUser();
+        String token = nextToken();
+        
+        User.Geo geo = new User.Geo();
+        geo.setLat(String.format(Locale.ROOT, "%.4f", random().nextDouble() * 180 - 90));
+        geo.setLng(String.format(Locale.ROOT, "%.4f", random().nextDouble() * 360 - 180));
+        
+        User.Address address = new User.Address();
+        address.setStreet(generateRandomInt(1, 9999) + " Test Street");
+        address.setSuite("Suite " + generateRandomInt(1, 999));
+        address.setCity("Test City " + token);
+        address.setZipcode(String.format("%05d", generateRandomInt(0, 99999)));
+        address.setGeo(geo);
+        
+        User.Company company = new User.Company();
+        company.setName("Test Company " + token);
+        company.setCatchPhrase("Testing " + token);
+        company.setBs("test-driven " + token);
+        
+        user.setAddress(address);
+        user.setPhone(String.format("1-%03d-%03d-%04d", generateRandomInt(200, 999), generateRandomInt(0, 999), generateRandomInt(0, 9999)));
+        user.setWebsite(token + ".example.com");
+        user.setCompany(company);
+        return user;
+    }
+    
     /**
      * 创建测试用的Comment对象
      * @return Comment对象
      */
     public static Comment createTestComment() {
+        String token = nextToken();
         return new Comment(
-                random.nextInt(100) + 1, // postId: 1-100
-                "Test Comment " + System.currentTimeMillis(),
-                "testcommenter" + System.currentTimeMillis() + "@example.com",
-                "This is a test comment created at " + System.currentTimeMillis()
+                random().nextInt(100) + 1, // postId: 1-100
+                "Test Comment " + token,
+                "testcommenter" + token + "@example.com",
+                "This is a test comment created at " + token
         );
     }
     
@@ -84,11 +135,12 @@ public class TestDataHelper {
      * @return Comment对象
      */
     public static Comment createTestComment(Integer postId) {
+        String token = nextToken();
         return new Comment(
                 postId,
-                "Test Comment for Post " + postId + " - " + System.currentTimeMillis(),
-                "testcommenter" + System.currentTimeMillis() + "@example.com",
-                "This is a test comment for post " + postId + " created at " + System.currentTimeMillis()
+                "Test Comment for Post " + postId + " - " + token,
+                "testcommenter" + token + "@example.com",
+                "This is a test comment for post " + postId + " created at " + token
         );
     }
     
@@ -139,7 +191,7 @@ public class TestDataHelper {
         StringBuilder result = new StringBuilder();
         
         for (int i = 0; i < length; i++) {
-            result.append(characters.charAt(random.nextInt(characters.length())));
+            result.append(characters.charAt(random().nextInt(characters.length())));
         }
         
         return result.toString();
@@ -160,7 +212,7 @@ public class TestDataHelper {
      * @return 随机整数
      */
     public static int generateRandomInt(int min, int max) {
-        return random.nextInt(max - min + 1) + min;
+        return random().nextInt(max - min + 1) + min;
     }
     
     /**
@@ -0,0 +1,129 @@
+package helpers;
+
+import config.ConfigManager;
+import org.testng.annotations.DataProvider;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * 批量CRUD测试的数据提供者，所有数据按需惰性生成（Iterator&lt;Object[]&gt;），不预先物化大矩阵
+ * 每行数据是一个ID分片（IdRange），分片大小和最大行数可通过配置调整：
+ * bulk.shard.size、bulk.max.rows、bulk.posts.max.id、bulk.comments.max.id、bulk.users.max.id、bulk.payload.sizes
+ */
+public class TestDataProviders {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+
+    /**
+     * Post ID分片
+     */
+    @DataProvider(name = "postIdShards", parallel = true)
+    public static Iterator<Object[]> postIdShards() {
+        return idShards(configManager.getIntProperty("bulk.posts.max.id", 100));
+    }
+
+    /**
+     * Comment ID分片
+     */
+    @DataProvider(name = "commentIdShards", parallel = true)
+    public static Iterator<Object[]> commentIdShards() {
+        return idShards(configManager.getIntProperty("bulk.comments.max.id", 500));
+    }
+
+    /**
+     * User ID分片
+     */
+    @DataProvider(name = "userIdShards", parallel = true)
+    public static Iterator<Object[]> userIdShards() {
+        return idShards(configManager.getIntProperty("bulk.users.max.id", 10));
+    }
+
+    /**
+     * 按userId过滤Posts的查询参数
+     */
+    @DataProvider(name = "postsByUserIdParams", parallel = true)
+    public static Iterator<Object[]> postsByUserIdParams() {
+        return queryParams("userId", configManager.getIntProperty("bulk.users.max.id", 10));
+    }
+
+    /**
+     * 按postId过滤Comments的查询参数
+     */
+    @DataProvider(name = "commentsByPostIdParams", parallel = true)
+    public static Iterator<Object[]> commentsByPostIdParams() {
+        return queryParams("postId", configManager.getIntProperty("bulk.posts.max.id", 100));
+    }
+
+    /**
+     * 请求体大小（字符数），用于边界条件测试
+     */
+    @DataProvider(name = "payloadSizes", parallel = true)
+    public static Iterator<Object[]> payloadSizes() {
+        String[] sizes = configManager.getProperty("bulk.payload.sizes", "16,256,4096,65536").split(",");
+        return rows(sizes.length, i -> new Object[]{Integer.parseInt(sizes[i].trim())});
+    }
+
+    /**
+     * 将 [1, maxId] 按分片大小切分为 IdRange 行
+     * @param maxId 最大ID
+     * @return 惰性迭代器
+     */
+    public static Iterator<Object[]> idShards(int maxId) {
+        int shardSize = Math.max(1, configManager.getIntProperty("bulk.shard.size", 50));
+        int shardCount = (maxId + shardSize - 1) / shardSize;
+        return rows(shardCount, i -> {
+            int start = i * shardSize + 1;
+            return new Object[]{new IdRange(start, Math.min(maxId, start + shardSize - 1))};
+        });
+    }
+
+    /**
+     * 生成单参数查询条件行：{key=1}, {key=2}, ... {key=maxValue}
+     * @param key 查询参数名
+     * @param maxValue 最大参数值
+     * @return 惰性迭代器
+     */
+    public static Iterator<Object[]> queryParams(String key, int maxValue) {
+        return rows(maxValue, i -> {
+            Map<String, Object> params = Collections.singletonMap(key, i + 1);
+            return new Object[]{params};
+        });
+    }
+
+    /**
+     * 按下标惰性生成数据行
+     * <p>
+     * 行数超过 bulk.max.rows 时直接失败，而不是只生成前 bulk.max.rows 行：
+     * 静默截断会让超出部分的ID从未被测试，报告却显示全部通过。需要覆盖更大的范围时应调大分片（bulk.shard.size）或上限
+     * @param count 期望行数
+     * @param rowFactory 行生成函数
+     * @return 惰性迭代器
+     * @throws IllegalStateException 行数超过 bulk.max.rows
+     */
+    private static Iterator<Object[]> rows(int count, IntFunction<Object[]> rowFactory) {
+        int maxRows = configManager.getIntProperty("bulk.max.rows", 1000);
+        if (count > maxRows) {
+            throw new IllegalStateException(String.format(
+                    "数据提供者需要生成%d行，超过 bulk.max.rows=%d；请调大 bulk.shard.size 或 bulk.max.rows", count, maxRows));
+        }
+        return new Iterator<Object[]>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rowFactory.apply(next++);
+            }
+        };
+    }
+}
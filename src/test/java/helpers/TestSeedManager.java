@@ -0,0 +1,120 @@
+package helpers;
+
+import config.Cassette;
+import config.CassetteMode;
+import config.ConfigManager;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * 测试种子管理类，为每个测试调用派生独立且可复现的随机数流
+ * 种子 = 套件种子 + 测试名称 + 调用序号，与线程调度顺序无关
+ */
+public class TestSeedManager {
+    private static final ConfigManager configManager = ConfigManager.getInstance();
+    private static final long SUITE_SEED = resolveSuiteSeed();
+
+    private static final ThreadLocal<Long> currentSeed = new ThreadLocal<>();
+    private static final ThreadLocal<Random> currentRandom = ThreadLocal.withInitial(
+            () -> new Random(deriveSeed("unscoped:" + Thread.currentThread().getName(), 0)));
+
+    /**
+     * 解析套件种子：优先使用 -Dtest.seed / config.properties 中的配置，否则随机生成。
+     * 请求体由种子生成并参与cassette的请求键，因此录制时保存种子，回放时固定使用录制的种子
+     */
+    private static long resolveSuiteSeed() {
+        Long configured = configManager.getTestSeed();
+        CassetteMode cassetteMode = configManager.getCassetteMode();
+        Path cassetteDirectory = Paths.get(configManager.getCassetteDirectory());
+        if (cassetteMode == CassetteMode.REPLAY) {
+            Long recorded = Cassette.readSeed(cassetteDirectory);
+            if (recorded != null) {
+                if (configured != null && !configured.equals(recorded)) {
+                    throw new IllegalStateException("-Dtest.seed=" + configured + " 与cassette录制时的种子 " + recorded
+                            + " 不一致，回放时请省略 -Dtest.seed 或重新录制");
+                }
+                return recorded;
+            }
+        }
+        long seed = configured != null ? configured : new Random().nextLong();
+        if (cassetteMode == CassetteMode.RECORD) {
+            Cassette.writeSeed(cassetteDirectory, seed);
+        }
+        return seed;
+    }
+
+    /**
+     * 获取套件种子
+     * @return 套件种子
+     */
+    public static long getSuiteSeed() {
+        return SUITE_SEED;
+    }
+
+    /**
+     * 根据测试名称和调用序号派生测试种子
+     * @param testName 测试名称（建议使用全限定方法名）
+     * @param invocationIndex 调用序号（数据提供者的参数下标或重复调用次数）
+     * @return 测试种子
+     */
+    public static long deriveSeed(String testName, int invocationIndex) {
+        Long forced = configManager.getTestMethodSeed();
+        if (forced != null) {
+            return forced;
+        }
+
+        long hash = SUITE_SEED;
+        for (int i = 0; i < testName.length(); i++) {
+            hash = mix(hash + testName.charAt(i));
+        }
+        return mix(hash ^ (0x9E3779B97F4A7C15L * (invocationIndex + 1)));
+    }
+
+    /**
+     * 为当前线程开启测试作用域，之后 TestDataHelper 产生的数据都来自该种子
+     * @param testName 测试名称
+     * @param invocationIndex 调用序号
+     * @return 本次调用使用的种子
+     */
+    public static long beginTest(String testName, int invocationIndex) {
+        long seed = deriveSeed(testName, invocationIndex);
+        currentSeed.set(seed);
+        currentRandom.set(new Random(seed));
+        return seed;
+    }
+
+    /**
+     * 结束当前线程的测试作用域
+     */
+    public static void endTest() {
+        currentSeed.remove();
+        currentRandom.remove();
+    }
+
+    /**
+     * 获取当前线程测试作用域的种子
+     * @return 种子值，不在测试作用域内时返回null
+     */
+    public static Long getCurrentSeed() {
+        return currentSeed.get();
+    }
+
+    /**
+     * 获取当前线程的随机数生成器
+     * @return Random对象
+     */
+    public static Random random() {
+        return currentRandom.get();
+    }
+
+    /**
+     * SplitMix64 混合函数，保证相近输入得到分布良好的种子
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
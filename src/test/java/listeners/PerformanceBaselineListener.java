@@ -0,0 +1,110 @@
+package listeners;
+
+import config.CassetteMode;
+import config.ConfigManager;
+import helpers.BaselineStore;
+import helpers.PerformanceRun;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import utils.JsonUtils;
+import utils.LogUtils;
+import validations.RegressionComparator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 性能基线监听器：套件结束时保存本次运行各端点的耗时分布，与同一环境最近 baseline.runs 次运行比较，
+ * 趋势写入 report.path 下的 performance-trend.json。故障注入和回放模式下的耗时不代表真实性能，不参与比较
+ * <p>
+ * 回退默认只记录警告。基线历史保存在各机器本地，公共API的耗时也不受控制，只有 baseline.fail.on.regression=true
+ * （由CI打开）且环境在 baseline.controlled.environments 中（如本地桩服务器 test-stub）时，回退才使套件失败
+ */
+public class PerformanceBaselineListener implements ISuiteListener {
+    private long suiteStartNanos;
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ConfigManager configManager = ConfigManager.getInstance();
+        if (!configManager.getBooleanProperty("baseline.enabled", true)
+                || !configManager.getProperty("fault.scenario", "").trim().isEmpty()
+                || configManager.getCassetteMode() == CassetteMode.REPLAY) {
+            return;
+        }
+        // 桩服务器的耗时与真实环境不可比，单独建立基线
+        String environment = configManager.getEnvironment() + (configManager.getBooleanProperty("stub.enabled") ? "-stub" : "");
+        PerformanceRun run = PerformanceRun.capture(environment, BaselineStore.currentRevision(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - suiteStartNanos));
+        if (run.getEndpoints().isEmpty()) {
+            return;
+        }
+
+        BaselineStore store = BaselineStore.fromConfig();
+        List<PerformanceRun> baselines = store.recent(environment, configManager.getIntProperty("baseline.runs", 5));
+        List<RegressionComparator.Comparison> comparisons = RegressionComparator.fromConfig().compare(baselines, run);
+        List<RegressionComparator.Comparison> regressions = comparisons.stream()
+                .filter(RegressionComparator.Comparison::isRegressed)
+                .collect(Collectors.toList());
+        run.setRegressed(!regressions.isEmpty());
+        store.save(run);
+        writePerformanceTrend(run, baselines, comparisons);
+
+        if (!regressions.isEmpty()) {
+            String message = String.format("%d个端点性能回退（基线: %s）:\n%s", regressions.size(),
+                    baselines.stream().map(PerformanceRun::getRevision).collect(Collectors.joining(", ")),
+                    regressions.stream().map(String::valueOf).collect(Collectors.joining("\n")));
+            if (configManager.getBooleanProperty("baseline.fail.on.regression", false) && isControlled(environment)) {
+                throw new IllegalStateException(message);
+            }
+            LogUtils.logWarning(message);
+        }
+    }
+
+    /**
+     * @return 环境是否在 baseline.controlled.environments（逗号分隔）中
+     */
+    private static boolean isControlled(String environment) {
+        for (String controlled : ConfigManager.getInstance().getProperty("baseline.controlled.environments", "").split(",")) {
+            if (controlled.trim().equals(environment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writePerformanceTrend(PerformanceRun run, List<PerformanceRun> baselines,
+                                              List<RegressionComparator.Comparison> comparisons) {
+        Map<String, Object> trend = new LinkedHashMap<>();
+        trend.put("environment", run.getEnvironment());
+        trend.put("revision", run.getRevision());
+        trend.put("baselineRevisions", baselines.stream().map(PerformanceRun::getRevision).collect(Collectors.toList()));
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (RegressionComparator.Comparison comparison : comparisons) {
+            endpoints.put(comparison.getEndpoint(), comparison.toMap());
+        }
+        trend.put("endpoints", endpoints);
+        LogUtils.logInfo("性能趋势: " + comparisons.size() + "个端点与 " + baselines.size() + " 次运行比较，回退 "
+                + comparisons.stream().filter(RegressionComparator.Comparison::isRegressed).count() + " 个");
+
+        Path file = Paths.get(ConfigManager.getInstance().getProperty("report.path", "target/reports"), "performance-trend.json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, JsonUtils.prettyPrint(JsonUtils.toJson(trend)).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LogUtils.logWarning("写入性能趋势失败: " + e.getMessage());
+        }
+    }
+}
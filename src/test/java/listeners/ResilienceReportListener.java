@@ -0,0 +1,155 @@
+package listeners;
+
+import config.ApiConfig;
+import config.ConfigManager;
+import org.apache.http.pool.PoolStats;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import utils.JsonUtils;
+import utils.LogUtils;
+import utils.MetricsRegistry;
+import utils.RequestTimings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 韧性报告监听器，在套件结束时汇总 ApiHelper 在当前 api.timeout 和重试配置下的表现：
+ * 尝试耗时分位数、各请求阶段（连接池、DNS、连接、TLS、首字节、下载、序列化、验证等）的耗时分布、
+ * 超时/重置/截断/限流次数、重试恢复率、退避等待、最大并发请求数，以及故障代理注入的故障统计；报告写入 report.path 下的 resilience-report.json
+ */
+public class ResilienceReportListener implements ISuiteListener {
+    private static final String REPORT_FILE = "resilience-report.json";
+    // 建议超时取成功尝试 p99 的倍数，为上游抖动留出余量
+    private static final int TIMEOUT_HEADROOM = 3;
+
+    private long suiteStart;
+
+    @Override
+    public void onStart(ISuite suite) {
+        MetricsRegistry.reset();
+        suiteStart = System.nanoTime();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (MetricsRegistry.count("api.calls") == 0) {
+            return;
+        }
+
+        Map<String, Object> report = buildReport((System.nanoTime() - suiteStart) / 1_000_000);
+        LogUtils.logInfo("韧性报告: " + JsonUtils.toJson(report));
+
+        ConfigManager configManager = ConfigManager.getInstance();
+        Path file = Paths.get(configManager.getProperty("report.path", "target/reports"), REPORT_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, JsonUtils.prettyPrint(JsonUtils.toJson(report)).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LogUtils.logWarning("写入韧性报告失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据当前指标生成报告
+     * @param suiteMillis 套件总耗时
+     * @return 报告内容
+     */
+    static Map<String, Object> buildReport(long suiteMillis) {
+        ConfigManager configManager = ConfigManager.getInstance();
+        int timeout = configManager.getTimeout();
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("api.timeout", timeout);
+        config.put("max.retry.count", configManager.getMaxRetryCount());
+        config.put("retry.delay.ms", configManager.getRetryDelay());
+        config.put("retry.max.delay.ms", configManager.getMaxRetryDelay());
+
+        long calls = MetricsRegistry.count("api.calls");
+        long retried = MetricsRegistry.count("api.recovered") + MetricsRegistry.count("api.failed");
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        outcome.put("calls", calls);
+        outcome.put("attempts", MetricsRegistry.count("api.attempts"));
+        outcome.put("retries", MetricsRegistry.count("api.retries"));
+        outcome.put("recovered", MetricsRegistry.count("api.recovered"));
+        outcome.put("failed", MetricsRegistry.count("api.failed"));
+        outcome.put("recoveryRate", retried == 0 ? 1.0 : (double) MetricsRegistry.count("api.recovered") / retried);
+        outcome.put("errors", MetricsRegistry.counters("api.error."));
+        outcome.put("maxInFlight", MetricsRegistry.maxValue("api.inflight.max"));
+
+        MetricsRegistry.Snapshot attempts = MetricsRegistry.snapshot("api.attempt.time");
+        MetricsRegistry.Snapshot successes = MetricsRegistry.snapshot("api.attempt.success.time");
+        MetricsRegistry.Snapshot callTimes = MetricsRegistry.snapshot("api.call.time");
+        MetricsRegistry.Snapshot backoff = MetricsRegistry.snapshot("api.backoff.time");
+
+        Map<String, Object> timing = new LinkedHashMap<>();
+        timing.put("suiteMs", suiteMillis);
+        timing.put("attempt", distribution(attempts));
+        timing.put("successfulAttempt", distribution(successes));
+        timing.put("call", distribution(callTimes));
+        timing.put("backoffTotalMs", Math.round(backoff.getMean() * backoff.getCount()));
+        // socket 超时按单次读取计算，慢速响应体可以让总耗时超过 api.timeout 而不触发超时
+        timing.put("attemptsOverTimeout", attempts.countAbove(timeout));
+        timing.put("phasesUs", phases());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("calls", outcome);
+        report.put("timing", timing);
+        Map<String, Object> injected = new LinkedHashMap<>(MetricsRegistry.counters("proxy."));
+        injected.put("latency", distribution(MetricsRegistry.snapshot("proxy.injected.latency")));
+        report.put("injected", injected);
+        Map<String, Object> transport = new LinkedHashMap<>(MetricsRegistry.counters("transport."));
+        long wireBytes = MetricsRegistry.count("transport.bytes.wire");
+        if (wireBytes > 0) {
+            transport.put("compressionRatio", Math.round(MetricsRegistry.count("transport.bytes.decoded") * 100.0 / wireBytes) / 100.0);
+        }
+        PoolStats pool = ApiConfig.getConnectionPoolStats();
+        transport.put("pool", Map.of("leased", pool.getLeased(), "available", pool.getAvailable(), "pending", pool.getPending()));
+        report.put("transport", transport);
+        MetricsRegistry.Snapshot cold = MetricsRegistry.snapshot("warmup.cold.time");
+        if (cold.getCount() > 0) {
+            Map<String, Object> warmup = new LinkedHashMap<>();
+            warmup.put("cold", distribution(cold));
+            warmup.put("warm", distribution(MetricsRegistry.snapshot("warmup.warm.time")));
+            report.put("warmup", warmup);
+        }
+        if (successes.getCount() > 0) {
+            report.put("suggestedTimeoutMs", Math.max(1000, successes.getPercentile(99) * TIMEOUT_HEADROOM));
+        }
+        return report;
+    }
+
+    /**
+     * 各阶段耗时分布（微秒），只包括出现过的阶段
+     */
+    private static Map<String, Object> phases() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            MetricsRegistry.Snapshot snapshot = MetricsRegistry.snapshot(phase.getMetric());
+            if (snapshot.getCount() > 0) {
+                phases.put(phase.getKey(), distribution(snapshot));
+            }
+        }
+        MetricsRegistry.Snapshot other = MetricsRegistry.snapshot(RequestTimings.OTHER_METRIC);
+        if (other.getCount() > 0) {
+            phases.put("other", distribution(other));
+        }
+        return phases;
+    }
+
+    private static Map<String, Object> distribution(MetricsRegistry.Snapshot snapshot) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", snapshot.getCount());
+        values.put("p50", snapshot.getPercentile(50));
+        values.put("p90", snapshot.getPercentile(90));
+        values.put("p99", snapshot.getPercentile(99));
+        values.put("max", snapshot.getMax());
+        return values;
+    }
+}
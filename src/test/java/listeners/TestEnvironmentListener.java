@@ -0,0 +1,75 @@
+package listeners;
+
+import config.ApiConfig;
+import config.CassetteMode;
+import config.ConfigManager;
+import helpers.ConnectionWarmer;
+import helpers.TestSeedManager;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import stub.FaultProxy;
+import stub.FaultScenario;
+import stub.StubServer;
+
+/**
+ * 测试环境监听器：套件开始时启动桩服务器和故障代理（如已配置），再对最终的基础URL预热连接，
+ * 避免首批请求的DNS解析和TCP/TLS握手耗时落在测试方法上；套件结束时关闭它们
+ * <p>
+ * 作为套件监听器而不是测试基类的 @BeforeSuite，不论运行哪些测试类（包括不继承 BaseTest 的类）都会生效。
+ * 须在 ResilienceReportListener 之后注册：它在套件开始时清空指标，预热指标应保留到报告中
+ */
+public class TestEnvironmentListener implements ISuiteListener {
+    private StubServer stubServer;
+    private FaultProxy faultProxy;
+
+    @Override
+    public void onStart(ISuite suite) {
+        startStubServer();
+        warmUpConnections();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (faultProxy != null) {
+            faultProxy.stop();
+            faultProxy = null;
+            ApiConfig.setBaseUrl(stubServer != null ? stubServer.getBaseUrl() : null);
+        }
+        if (stubServer != null) {
+            stubServer.stop();
+            stubServer = null;
+            ApiConfig.setBaseUrl(null);
+        }
+    }
+
+    /**
+     * stub.enabled=true 时启动本地桩服务器，并将基础URL指向它；
+     * 配置了 fault.scenario 时再在前面加一层故障注入代理
+     */
+    private void startStubServer() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        if (configManager.getBooleanProperty("stub.enabled")) {
+            stubServer = StubServer.fromConfig()
+                    .start(configManager.getIntProperty("stub.port", 0), configManager.getIntProperty("stub.threads", 8));
+            ApiConfig.setBaseUrl(stubServer.getBaseUrl());
+        }
+
+        String scenario = configManager.getProperty("fault.scenario", "");
+        if (!scenario.trim().isEmpty()) {
+            faultProxy = new FaultProxy(ApiConfig.getBaseUrl(), FaultScenario.load(scenario.trim(), TestSeedManager.getSuiteSeed()))
+                    .start(configManager.getIntProperty("fault.proxy.port", 0));
+            ApiConfig.setBaseUrl(faultProxy.getBaseUrl());
+        }
+    }
+
+    /**
+     * 按 warmup.connections 预先建立连接（回放模式下不访问网络，跳过）
+     */
+    private void warmUpConnections() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        if (configManager.getCassetteMode() != CassetteMode.REPLAY) {
+            ConnectionWarmer.warmUp(configManager.getIntProperty("warmup.connections", 4),
+                    configManager.getProperty("warmup.path", "/posts/1"));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package listeners;
+
+import config.ConfigManager;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import profiling.ResourceUsage;
+import profiling.TestEvent;
+import utils.JsonUtils;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测试资源用量监听器，与 LogUtils.logTestStart/logTestEnd 配合，统计每个测试方法在客户端消耗的CPU时间和分配字节数
+ * （测试线程，以及它通过 ApiHelper.batch、PagedStream 预取和 RequestPipeline 交给其它线程的工作），并产生 apitest.Test JFR事件；
+ * 套件结束时把CPU时间和分配最多的 profiling.top 个测试写入 report.path 下的 test-profile.json
+ * <p>
+ * CPU时间占墙钟时间的比例低，说明测试主要在等待后端；比例高或分配多，说明耗时在框架自身（序列化、解析、验证、日志）。
+ * profiling.enabled=false 时不统计
+ */
+public class TestProfilingListener implements IInvokedMethodListener, ISuiteListener {
+    private static final String REPORT_FILE = "test-profile.json";
+    private static final String PROBE_ATTRIBUTE = "profiling.probe";
+
+    /**
+     * 一个测试调用的计量
+     */
+    private static final class Probe {
+        private final ResourceUsage usage = ResourceUsage.begin();
+        private final TestEvent event = new TestEvent();
+        private final long startNanos = System.nanoTime();
+
+        private Probe() {
+            event.begin();
+        }
+    }
+
+    /**
+     * 一个测试调用的结果
+     */
+    private static final class Entry {
+        private final String test;
+        private final String status;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        private Entry(String test, String status, long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.test = test;
+            this.status = status;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("test", test);
+            values.put("status", status);
+            values.put("wallMs", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+            values.put("cpuMs", TimeUnit.NANOSECONDS.toMillis(cpuNanos));
+            values.put("cpuShare", wallNanos > 0 ? Math.round(cpuNanos * 100.0 / wallNanos) / 100.0 : 0);
+            values.put("allocatedMb", megabytes(allocatedBytes));
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s（%s）: CPU %dms / 墙钟 %dms，分配 %.2fMB", test, status,
+                    TimeUnit.NANOSECONDS.toMillis(cpuNanos), TimeUnit.NANOSECONDS.toMillis(wallNanos), megabytes(allocatedBytes));
+        }
+    }
+
+    private final boolean enabled = ConfigManager.getInstance().getBooleanProperty("profiling.enabled", true);
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        entries.clear();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (enabled && method.isTestMethod()) {
+            testResult.setAttribute(PROBE_ATTRIBUTE, new Probe());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Object attribute = testResult.getAttribute(PROBE_ATTRIBUTE);
+        if (!(attribute instanceof Probe)) {
+            return;
+        }
+        testResult.removeAttribute(PROBE_ATTRIBUTE);
+        Probe probe = (Probe) attribute;
+        probe.usage.end();
+
+        Entry entry = new Entry(testName(testResult), status(testResult.getStatus()), System.nanoTime() - probe.startNanos,
+                probe.usage.getCpuNanos(), probe.usage.getAllocatedBytes());
+        entries.add(entry);
+        LogUtils.logDebug(() -> "测试资源用量 " + entry);
+
+        probe.event.test = entry.test;
+        probe.event.status = entry.status;
+        probe.event.cpuTime = entry.cpuNanos;
+        probe.event.allocated = entry.allocatedBytes;
+        probe.event.commit();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ConfigManager configManager = ConfigManager.getInstance();
+        Map<String, Object> report = buildReport(new ArrayList<>(entries), configManager.getIntProperty("profiling.top", 10));
+
+        Path file = Paths.get(configManager.getProperty("report.path", "target/reports"), REPORT_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, JsonUtils.prettyPrint(JsonUtils.toJson(report)).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LogUtils.logWarning("写入测试资源用量报告失败: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> buildReport(List<Entry> all, int top) {
+        long wall = 0;
+        long cpu = 0;
+        long allocated = 0;
+        for (Entry entry : all) {
+            wall += entry.wallNanos;
+            cpu += Math.max(0, entry.cpuNanos);
+            allocated += Math.max(0, entry.allocatedBytes);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tests", all.size());
+        report.put("cpuTimeSupported", ResourceUsage.isCpuTimeSupported());
+        report.put("allocationSupported", ResourceUsage.isAllocationSupported());
+        report.put("totalWallMs", TimeUnit.NANOSECONDS.toMillis(wall));
+        report.put("totalCpuMs", TimeUnit.NANOSECONDS.toMillis(cpu));
+        report.put("totalAllocatedMb", megabytes(allocated));
+        report.put("topByCpu", top(all, Comparator.comparingLong((Entry entry) -> entry.cpuNanos), top, "CPU时间"));
+        report.put("topByAllocation", top(all, Comparator.comparingLong((Entry entry) -> entry.allocatedBytes), top, "分配"));
+        return report;
+    }
+
+    private static List<Map<String, Object>> top(List<Entry> all, Comparator<Entry> order, int limit, String subject) {
+        List<Entry> sorted = new ArrayList<>(all);
+        sorted.sort(order.reversed());
+        List<Map<String, Object>> result = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (Entry entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            result.add(entry.toMap());
+            text.append("\n  ").append(entry);
+        }
+        LogUtils.logInfo("客户端" + subject + "最多的测试:" + text);
+        return result;
+    }
+
+    /**
+     * 测试名：类名.方法名，数据驱动的测试附带参数
+     */
+    private static String testName(ITestResult testResult) {
+        String name = testResult.getMethod().getQualifiedName();
+        Object[] parameters = testResult.getParameters();
+        return parameters.length > 0 ? name + Arrays.deepToString(parameters) : name;
+    }
+
+    private static String status(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "SUCCESS";
+            case ITestResult.FAILURE:
+                return "FAILURE";
+            case ITestResult.SKIP:
+                return "SKIP";
+            case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+                return "SUCCESS_PERCENTAGE_FAILURE";
+            default:
+                return String.valueOf(status);
+        }
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes < 0 ? -1 : Math.round(bytes / 10_485.76) / 100.0;
+    }
+}
@@ -0,0 +1,64 @@
+package listeners;
+
+import helpers.TestSeedManager;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import utils.LogUtils;
+
+import java.util.Arrays;
+
+/**
+ * 测试种子监听器，在每个测试方法调用前建立独立的种子作用域，
+ * 并将种子记录到TestNG报告中，便于失败后通过 -Dtest.seed / -Dtest.method.seed 复现
+ */
+public class TestSeedListener implements IInvokedMethodListener, ISuiteListener {
+
+    public static final String SEED_ATTRIBUTE = "test.seed";
+
+    @Override
+    public void onStart(ISuite suite) {
+        long suiteSeed = TestSeedManager.getSuiteSeed();
+        suite.setAttribute(SEED_ATTRIBUTE, suiteSeed);
+        LogUtils.logInfo("测试套件随机种子: " + suiteSeed + "（使用 -Dtest.seed=" + suiteSeed + " 复现）");
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+
+        String testName = testResult.getMethod().getQualifiedName();
+        long seed = TestSeedManager.beginTest(testName, invocationIndex(testResult));
+        testResult.setAttribute(SEED_ATTRIBUTE, seed);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+
+        Object seed = testResult.getAttribute(SEED_ATTRIBUTE);
+        Reporter.log("随机种子: suite=" + TestSeedManager.getSuiteSeed() + ", test=" + seed);
+        if (testResult.getStatus() == ITestResult.FAILURE) {
+            LogUtils.logWarning(String.format("测试 %s 失败，复现命令: mvn test -Dtest.seed=%d 或 -Dtest.method.seed=%s",
+                    testResult.getMethod().getQualifiedName(), TestSeedManager.getSuiteSeed(), seed));
+        }
+        TestSeedManager.endTest();
+    }
+
+    /**
+     * 计算调用序号：数据提供者驱动的测试使用参数内容（与并行调度顺序无关），否则使用重复调用次数
+     */
+    private int invocationIndex(ITestResult testResult) {
+        if (testResult.getParameters().length > 0) {
+            return Arrays.deepToString(testResult.getParameters()).hashCode();
+        }
+        return testResult.getMethod().getCurrentInvocationCount();
+    }
+}
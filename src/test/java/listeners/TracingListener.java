@@ -0,0 +1,72 @@
+package listeners;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import tracing.Span;
+import tracing.Tracer;
+import utils.LogUtils;
+import utils.MetricsRegistry;
+
+import java.util.Arrays;
+
+/**
+ * 跟踪监听器：每个测试方法调用是一个根跨度，测试中 ApiHelper 的调用跨度都挂在它下面，
+ * 后端收到的 traceparent 因此属于同一个 trace；trace id 写入TestNG报告（trace.id 属性），失败时写入日志，
+ * 便于从失败或变慢的测试找到服务端的跟踪。套件结束时导出剩余的跨度
+ */
+public class TracingListener implements IInvokedMethodListener, ISuiteListener {
+
+    public static final String TRACE_ID_ATTRIBUTE = "trace.id";
+    private static final String SPAN_ATTRIBUTE = "tracing.span";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || !Tracer.isEnabled()) {
+            return;
+        }
+        Span span = Tracer.startSpan(testResult.getMethod().getQualifiedName(), Span.Kind.INTERNAL)
+                .setAttribute("code.namespace", testResult.getTestClass().getName())
+                .setAttribute("code.function", testResult.getMethod().getMethodName());
+        if (testResult.getParameters().length > 0) {
+            span.setAttribute("test.parameters", Arrays.deepToString(testResult.getParameters()));
+        }
+        testResult.setAttribute(SPAN_ATTRIBUTE, span);
+        testResult.setAttribute(TRACE_ID_ATTRIBUTE, span.getTraceId());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Object attribute = testResult.getAttribute(SPAN_ATTRIBUTE);
+        if (!(attribute instanceof Span)) {
+            return;
+        }
+        testResult.removeAttribute(SPAN_ATTRIBUTE);
+        Span span = (Span) attribute;
+        span.setAttribute("test.status", testResult.getStatus() == ITestResult.SUCCESS ? "SUCCESS"
+                : testResult.getStatus() == ITestResult.SKIP ? "SKIP" : "FAILURE");
+        span.setAttribute("test.seed", testResult.getAttribute(TestSeedListener.SEED_ATTRIBUTE));
+
+        Reporter.log("trace id: " + span.getTraceId() + (span.isSampled() ? "" : "（未采样）"));
+        if (testResult.getStatus() == ITestResult.FAILURE) {
+            Throwable error = testResult.getThrowable();
+            span.setError(error != null ? error.getClass().getName() : "failure", error != null ? error.getMessage() : null);
+            LogUtils.logWarning(String.format("测试 %s 失败，trace id: %s", testResult.getMethod().getQualifiedName(), span.getTraceId()));
+        }
+        span.end();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!Tracer.isEnabled()) {
+            return;
+        }
+        Tracer.flush();
+        LogUtils.logInfo(String.format("跟踪: 导出 %d 个跨度，失败 %d，丢弃 %d",
+                MetricsRegistry.count("tracing.spans.exported"), MetricsRegistry.count("tracing.spans.failed"),
+                MetricsRegistry.count("tracing.spans.dropped")));
+    }
+}
@@ -0,0 +1,312 @@
+package stub;
+
+import utils.LogUtils;
+import utils.MetricsRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 故障注入代理：位于测试和上游（api.base.url 或本地桩服务器）之间的 HTTP/1.1 反向代理，
+ * 按 {@link FaultScenario} 注入延迟、慢速响应体、连接重置、429/503 突发和不完整响应
+ * <p>
+ * 直接在套接字上读写，才能模拟 RST、截断等 HttpServer 无法产生的故障；
+ * 每次注入都记入 {@link MetricsRegistry}（proxy.*），供韧性报告与 ApiHelper 的表现对照
+ */
+public class FaultProxy {
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "te", "trailer", "upgrade",
+            "host", "content-length", "expect", "date", "from", "via", "warning"));
+
+    private final URI upstream;
+    private final FaultScenario scenario;
+    private final HttpClient client;
+
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    /**
+     * @param upstream 上游基础URL
+     * @param scenario 故障场景
+     */
+    public FaultProxy(String upstream, FaultScenario scenario) {
+        this.upstream = URI.create(upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream);
+        this.scenario = scenario;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * 在本机回环地址上启动
+     * @param port 端口，0表示随机端口
+     * @return this
+     */
+    public FaultProxy start(int port) {
+        try {
+            serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new IllegalStateException("故障代理启动失败，端口: " + port, e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        executor.execute(this::acceptLoop);
+        LogUtils.logInfo("故障代理已启动: " + getBaseUrl() + " -> " + upstream + "，场景: " + scenario);
+        return this;
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LogUtils.logWarning("关闭故障代理失败: " + e.getMessage());
+        }
+        executor.shutdownNow();
+        LogUtils.logInfo("故障代理已停止，注入统计: " + MetricsRegistry.counters("proxy."));
+    }
+
+    public String getBaseUrl() {
+        return "http://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    LogUtils.logWarning("故障代理接受连接失败: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理一个连接上的请求（支持 keep-alive），直到客户端关闭或注入的故障断开连接
+     */
+    private void serve(Socket socket) {
+        try (Socket connection = socket) {
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            OutputStream out = connection.getOutputStream();
+            ParsedRequest request;
+            while ((request = ParsedRequest.read(in)) != null) {
+                if (!handle(connection, out, request) || request.close) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // 客户端超时断开等情况，连接直接丢弃
+        }
+    }
+
+    /**
+     * @return 连接是否可以继续复用
+     */
+    private boolean handle(Socket connection, OutputStream out, ParsedRequest request) throws IOException {
+        MetricsRegistry.increment("proxy.requests");
+        FaultScenario.Decision decision = scenario.decide(request.method, request.target);
+        if (decision.getLatencyMs() > 0) {
+            MetricsRegistry.record("proxy.injected.latency", decision.getLatencyMs());
+            sleep(decision.getLatencyMs());
+        }
+
+        FaultScenario.Rule fault = decision.getFault();
+        if (fault != null && fault.getFaultType() == FaultScenario.FaultType.RESET) {
+            MetricsRegistry.increment("proxy.fault.reset");
+            connection.setSoLinger(true, 0);
+            return false;
+        }
+        if (fault != null && fault.getFaultType() == FaultScenario.FaultType.STATUS) {
+            MetricsRegistry.increment("proxy.fault.status." + fault.getStatus());
+            List<String[]> headers = new ArrayList<>();
+            headers.add(new String[]{"Content-Type", "application/json; charset=utf-8"});
+            if (fault.getRetryAfterSeconds() > 0) {
+                headers.add(new String[]{"Retry-After", Integer.toString(fault.getRetryAfterSeconds())});
+            }
+            byte[] body = ("{\"error\":\"injected " + fault.getStatus() + "\"}").getBytes(StandardCharsets.UTF_8);
+            writeHead(out, fault.getStatus(), headers, body.length);
+            out.write(body);
+            out.flush();
+            return true;
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = forward(request);
+        } catch (IOException e) {
+            MetricsRegistry.increment("proxy.upstream.error");
+            byte[] body = ("{\"error\":\"upstream " + e.getClass().getSimpleName() + "\"}").getBytes(StandardCharsets.UTF_8);
+            writeHead(out, 502, List.<String[]>of(new String[]{"Content-Type", "application/json; charset=utf-8"}), body.length);
+            out.write(body);
+            out.flush();
+            return true;
+        }
+
+        byte[] body = response.body();
+        writeHead(out, response.statusCode(), responseHeaders(response), body.length);
+        if (fault != null && fault.getFaultType() == FaultScenario.FaultType.PARTIAL) {
+            MetricsRegistry.increment("proxy.fault.partial");
+            out.write(body, 0, (int) (body.length * Math.max(0, Math.min(1, fault.getFraction()))));
+            out.flush();
+            return false;
+        }
+        if (fault != null && fault.getFaultType() == FaultScenario.FaultType.SLOW_DRIP) {
+            MetricsRegistry.increment("proxy.fault.slow_drip");
+            out.flush();
+            for (int offset = 0; offset < body.length; offset += fault.getChunkBytes()) {
+                sleep(fault.getChunkDelayMs());
+                out.write(body, offset, Math.min(fault.getChunkBytes(), body.length - offset));
+                out.flush();
+            }
+            return true;
+        }
+        out.write(body);
+        out.flush();
+        return true;
+    }
+
+    private HttpResponse<byte[]> forward(ParsedRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(upstream + request.target))
+                .timeout(Duration.ofSeconds(30))
+                .method(request.method, request.body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(request.body));
+        for (String[] header : request.headers) {
+            if (!HOP_BY_HOP_HEADERS.contains(header[0].toLowerCase(Locale.ROOT))) {
+                builder.header(header[0], header[1]);
+            }
+        }
+        try {
+            return client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("转发被中断", e);
+        }
+    }
+
+    private static List<String[]> responseHeaders(HttpResponse<byte[]> response) {
+        List<String[]> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                for (String value : values) {
+                    headers.add(new String[]{name, value});
+                }
+            }
+        });
+        return headers;
+    }
+
+    private static void writeHead(OutputStream out, int status, List<String[]> headers, int contentLength) throws IOException {
+        StringBuilder head = new StringBuilder(256).append("HTTP/1.1 ").append(status).append(" \r\n");
+        for (String[] header : headers) {
+            head.append(header[0]).append(": ").append(header[1]).append("\r\n");
+        }
+        head.append("Content-Length: ").append(contentLength).append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SocketException("故障代理已停止");
+        }
+    }
+
+    /**
+     * 解析后的HTTP/1.1请求（只支持 Content-Length 请求体，RestAssured 发送的请求均满足）
+     */
+    private static final class ParsedRequest {
+        private String method;
+        private String target;
+        private final List<String[]> headers = new ArrayList<>();
+        private byte[] body = new byte[0];
+        private boolean close;
+
+        /**
+         * @return 请求，连接已关闭时返回null
+         */
+        static ParsedRequest read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return null;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length < 2) {
+                throw new IOException("无效的请求行: " + requestLine);
+            }
+
+            ParsedRequest request = new ParsedRequest();
+            request.method = parts[0];
+            // 绝对形式（http://host/path）转换为源形式
+            URI uri = URI.create(parts[1]);
+            request.target = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+
+            int contentLength = 0;
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int separator = line.indexOf(':');
+                if (separator <= 0) {
+                    continue;
+                }
+                String name = line.substring(0, separator).trim();
+                String value = line.substring(separator + 1).trim();
+                request.headers.add(new String[]{name, value});
+                if ("content-length".equalsIgnoreCase(name)) {
+                    contentLength = Integer.parseInt(value);
+                } else if ("connection".equalsIgnoreCase(name) && "close".equalsIgnoreCase(value)) {
+                    request.close = true;
+                }
+            }
+
+            if (contentLength > 0) {
+                request.body = in.readNBytes(contentLength);
+            }
+            return request;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    byte[] bytes = line.toByteArray();
+                    int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                    return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+                }
+                line.write(b);
+            }
+            return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package stub;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 故障注入场景，从JSON场景文件加载，供 {@link FaultProxy} 对每个请求做出决策
+ * <p>
+ * 规则按顺序匹配：所有匹配规则的延迟相加；第一个命中（按概率）的故障生效。
+ * 故障类型：status（返回指定状态码，可连续 burst 次）、reset（直接重置连接）、
+ * slow-drip（按块慢速发送响应体）、partial（声明完整长度但只发送部分响应体后断开）
+ */
+public class FaultScenario {
+
+    /**
+     * 故障类型
+     */
+    public enum FaultType {
+        STATUS, RESET, SLOW_DRIP, PARTIAL;
+
+        static FaultType from(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /**
+     * 延迟分布：fixed(ms)、uniform(minMs, maxMs)、normal(meanMs, stddevMs)、
+     * lognormal(medianMs, sigma)、exponential(meanMs)
+     */
+    public static class Latency {
+        @JsonProperty
+        private String distribution = "fixed";
+        @JsonProperty
+        private long ms;
+        @JsonProperty
+        private long minMs;
+        @JsonProperty
+        private long maxMs;
+        @JsonProperty
+        private double meanMs;
+        @JsonProperty
+        private double stddevMs;
+        @JsonProperty
+        private double medianMs;
+        @JsonProperty
+        private double sigma;
+
+        long sample(Random random) {
+            double value;
+            switch (distribution) {
+                case "fixed":
+                    value = ms;
+                    break;
+                case "uniform":
+                    value = minMs + random.nextDouble() * (maxMs - minMs);
+                    break;
+                case "normal":
+                    value = meanMs + random.nextGaussian() * stddevMs;
+                    break;
+                case "lognormal":
+                    value = medianMs * Math.exp(sigma * random.nextGaussian());
+                    break;
+                case "exponential":
+                    value = -meanMs * Math.log(1 - random.nextDouble());
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知的延迟分布: " + distribution);
+            }
+            return Math.max(0, Math.round(value));
+        }
+    }
+
+    /**
+     * 单条规则
+     */
+    public static class Rule {
+        @JsonProperty
+        private String match = "*";
+        @JsonProperty
+        private double probability = 1.0;
+        @JsonProperty
+        private Latency latency;
+        @JsonProperty
+        private String fault;
+        @JsonProperty
+        private int status = 503;
+        @JsonProperty
+        private int burst = 1;
+        @JsonProperty
+        private int retryAfterSeconds;
+        @JsonProperty
+        private int chunkBytes = 64;
+        @JsonProperty
+        private long chunkDelayMs = 50;
+        @JsonProperty
+        private double fraction = 0.5;
+
+        private Pattern pattern;
+        private FaultType faultType;
+        private final AtomicInteger burstRemaining = new AtomicInteger();
+
+        private void compile() {
+            // "GET /posts*" 同时匹配方法和路径，"/posts*" 匹配任意方法；* 匹配任意字符
+            String glob = match.contains(" ") ? match : "* " + match;
+            pattern = Pattern.compile(("\\Q" + glob + "\\E").replace("*", "\\E.*\\Q"));
+            faultType = fault == null ? null : FaultType.from(fault);
+        }
+
+        public FaultType getFaultType() {
+            return faultType;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public int getChunkBytes() {
+            return Math.max(1, chunkBytes);
+        }
+
+        public long getChunkDelayMs() {
+            return chunkDelayMs;
+        }
+
+        public double getFraction() {
+            return fraction;
+        }
+
+        @Override
+        public String toString() {
+            return match + " -> " + (fault != null ? fault : "latency");
+        }
+    }
+
+    /**
+     * 对单个请求的决策
+     */
+    public static final class Decision {
+        private final long latencyMs;
+        private final Rule fault;
+
+        private Decision(long latencyMs, Rule fault) {
+            this.latencyMs = latencyMs;
+            this.fault = fault;
+        }
+
+        public long getLatencyMs() {
+            return latencyMs;
+        }
+
+        /**
+         * @return 生效的故障规则，无故障时返回null
+         */
+        public Rule getFault() {
+            return fault;
+        }
+    }
+
+    @JsonProperty
+    private String name = "unnamed";
+    @JsonProperty
+    private Long seed;
+    @JsonProperty
+    private List<Rule> rules = new ArrayList<>();
+
+    private Random random;
+
+    /**
+     * 加载场景文件，先按类路径资源查找（如 scenarios/flaky-upstream.json），再按文件路径查找
+     * @param location 场景位置
+     * @param defaultSeed 场景未指定 seed 时使用的种子
+     * @return 场景
+     */
+    public static FaultScenario load(String location, long defaultSeed) {
+        String json;
+        try (InputStream in = FaultScenario.class.getClassLoader().getResourceAsStream(location)) {
+            if (in != null) {
+                json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } else {
+                Path path = Paths.get(location);
+                if (!Files.exists(path)) {
+                    throw new IllegalArgumentException("故障场景文件不存在: " + location);
+                }
+                json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("读取故障场景失败: " + location, e);
+        }
+
+        FaultScenario scenario = JsonUtils.fromJson(json, FaultScenario.class);
+        for (Rule rule : scenario.rules) {
+            rule.compile();
+        }
+        scenario.random = new Random(scenario.seed != null ? scenario.seed : defaultSeed);
+        return scenario;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 为请求做出决策
+     * @param method HTTP方法
+     * @param path 路径和查询串
+     * @return 决策
+     */
+    public Decision decide(String method, String path) {
+        String target = method + " " + path;
+        long latency = 0;
+        Rule fault = null;
+        synchronized (random) {
+            for (Rule rule : rules) {
+                if (!rule.pattern.matcher(target).matches()) {
+                    continue;
+                }
+                if (rule.latency != null && rule.faultType == null && roll(rule.probability)) {
+                    latency += rule.latency.sample(random);
+                }
+                if (fault == null && rule.faultType != null && triggered(rule)) {
+                    fault = rule;
+                    if (rule.latency != null) {
+                        latency += rule.latency.sample(random);
+                    }
+                }
+            }
+        }
+        return new Decision(latency, fault);
+    }
+
+    /**
+     * 故障是否命中：处于 burst 中时直接命中，否则按概率命中并开始新的 burst
+     */
+    private boolean triggered(Rule rule) {
+        if (rule.burstRemaining.get() > 0) {
+            rule.burstRemaining.decrementAndGet();
+            return true;
+        }
+        if (roll(rule.probability)) {
+            rule.burstRemaining.set(Math.max(0, rule.burst - 1));
+            return true;
+        }
+        return false;
+    }
+
+    private boolean roll(double probability) {
+        return probability >= 1.0 || random.nextDouble() < probability;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + rules;
+    }
+}
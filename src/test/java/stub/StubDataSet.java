@@ -0,0 +1,133 @@
+package stub;
+
+import config.ConfigManager;
+import helpers.TestDataHelper;
+import helpers.TestSeedManager;
+import models.Comment;
+import models.Post;
+import models.User;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 桩服务器的数据集：由 TestDataHelper 按套件种子生成 Users、Posts、Comments，
+ * 默认规模与 JSONPlaceholder 一致（10个用户、每人10个Post、每个Post 5条Comment）
+ * 第一个用户沿用 JSONPlaceholder 的用户名和邮箱，使按用户名/邮箱查询的用例在本地同样成立
+ */
+public class StubDataSet implements AutoCloseable {
+    public static final String FIRST_USERNAME = "Bret";
+    public static final String FIRST_EMAIL = "Sincere@april.biz";
+
+    private final Map<String, StubResource<?>> resources = new LinkedHashMap<>();
+
+    private StubDataSet() {
+    }
+
+    /**
+     * 按配置生成数据集（stub.users、stub.posts.per.user、stub.comments.per.post，
+     * 配置了 stub.store.dir 时响应体写入该目录下的 RecordStore）
+     * @return 数据集
+     */
+    public static StubDataSet fromConfig() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        String storeDir = configManager.getProperty("stub.store.dir", "").trim();
+        return generate(configManager.getIntProperty("stub.users", 10),
+                configManager.getIntProperty("stub.posts.per.user", 10),
+                configManager.getIntProperty("stub.comments.per.post", 5),
+                storeDir.isEmpty() ? null : Paths.get(storeDir));
+    }
+
+    /**
+     * 生成数据集，响应体保存在堆内
+     * @see #generate(int, int, int, Path)
+     */
+    public static StubDataSet generate(int userCount, int postsPerUser, int commentsPerPost) {
+        return generate(userCount, postsPerUser, commentsPerPost, null);
+    }
+
+    /**
+     * 生成数据集，随机数据来自固定的种子作用域，同一套件种子得到相同数据
+     * @param userCount 用户数量
+     * @param postsPerUser 每个用户的Post数量
+     * @param commentsPerPost 每个Post的Comment数量
+     * @param storeDir 响应体存储目录（每个资源一个 {资源}.db，已有文件被清空），null表示保存在堆内
+     * @return 数据集
+     */
+    public static StubDataSet generate(int userCount, int postsPerUser, int commentsPerPost, Path storeDir) {
+        StubResource<User> users = StubResource.<User>of("users", User::getId)
+                .filterable("username", User::getUsername)
+                .filterable("email", User::getEmail);
+        StubResource<Post> posts = StubResource.<Post>of("posts", Post::getId)
+                .belongsTo("users", "userId", Post::getUserId);
+        StubResource<Comment> comments = StubResource.<Comment>of("comments", Comment::getId)
+                .belongsTo("posts", "postId", Comment::getPostId)
+                .filterable("email", Comment::getEmail);
+        if (storeDir != null) {
+            users.storeIn(storeDir);
+            posts.storeIn(storeDir);
+            comments.storeIn(storeDir);
+        }
+
+        TestSeedManager.beginTest(StubDataSet.class.getName(), 0);
+        try {
+            int postId = 0;
+            int commentId = 0;
+            for (int userId = 1; userId <= userCount; userId++) {
+                User user = TestDataHelper.createDetailedTestUser();
+                user.setId(userId);
+                if (userId == 1) {
+                    user.setUsername(FIRST_USERNAME);
+                    user.setEmail(FIRST_EMAIL);
+                }
+                users.add(user);
+
+                for (int p = 0; p < postsPerUser; p++) {
+                    Post post = TestDataHelper.createTestPost(userId);
+                    post.setId(++postId);
+                    posts.add(post);
+
+                    for (int c = 0; c < commentsPerPost; c++) {
+                        Comment comment = TestDataHelper.createTestComment(postId);
+                        comment.setId(++commentId);
+                        comments.add(comment);
+                    }
+                }
+            }
+        } finally {
+            TestSeedManager.endTest();
+        }
+
+        StubDataSet dataSet = new StubDataSet();
+        dataSet.resources.put(users.getName(), users);
+        dataSet.resources.put(posts.getName(), posts);
+        dataSet.resources.put(comments.getName(), comments);
+        return dataSet;
+    }
+
+    /**
+     * @param name 资源名称
+     * @return 资源，不存在时返回null
+     */
+    public StubResource<?> resource(String name) {
+        return resources.get(name);
+    }
+
+    @Override
+    public void close() {
+        for (StubResource<?> resource : resources.values()) {
+            resource.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (StubResource<?> resource : resources.values()) {
+            builder.append(builder.length() == 0 ? "" : ", ").append(resource.getName()).append('=').append(resource.size());
+        }
+        return builder.toString();
+    }
+}
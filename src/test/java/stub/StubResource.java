@@ -0,0 +1,256 @@
+package stub;
+
+import utils.JsonUtils;
+import utils.RecordStore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 桩服务器中的一类资源（如 posts），数据来自模型对象
+ * 每个元素在构建时序列化一次（按模型的 @JsonProperty），按ID和可过滤字段建立哈希索引，查询为O(1)；
+ * 模型对象本身不保留，只保留可过滤字段的值。
+ * 序列化结果默认保存在堆内，调用 {@link #storeIn} 后写入 {@link RecordStore}，响应从内存映射文件读取，
+ * 大数据集（stub.users 很大时）的响应体不占用堆
+ * @param <T> 模型类型
+ */
+public class StubResource<T> implements AutoCloseable {
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final String name;
+    private final Map<String, Function<T, Object>> fields;
+    private final List<Object[]> fieldValues = new ArrayList<>();
+    private final List<byte[]> payloads = new ArrayList<>();
+    private final Map<String, Map<String, List<Integer>>> indexes = new HashMap<>();
+    private final Map<String, String> parentKeys = new HashMap<>();
+    private RecordStore store;
+
+    private StubResource(String name, Map<String, Function<T, Object>> fields) {
+        this.name = name;
+        this.fields = fields;
+        for (String field : fields.keySet()) {
+            indexes.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * 声明资源
+     * @param name 路径名称（如 "posts"）
+     * @param idField ID字段读取方法
+     * @return 资源
+     */
+    public static <T> StubResource<T> of(String name, Function<T, Object> idField) {
+        Map<String, Function<T, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", idField);
+        return new StubResource<>(name, fields);
+    }
+
+    /**
+     * 声明可用于 ?field=value 过滤的字段（建立索引）
+     * @param field JSON字段名
+     * @param getter 字段读取方法
+     * @return this
+     */
+    public StubResource<T> filterable(String field, Function<T, Object> getter) {
+        if (!fieldValues.isEmpty()) {
+            throw new IllegalStateException(name + " 已有元素，应在添加元素之前声明过滤字段");
+        }
+        fields.put(field, getter);
+        indexes.put(field, new HashMap<>());
+        return this;
+    }
+
+    /**
+     * 声明外键字段，支持嵌套路由 /{parent}/{id}/{name}
+     * @param parent 父资源名称（如 "posts"）
+     * @param field 外键字段名（如 "postId"）
+     * @param getter 字段读取方法
+     * @return this
+     */
+    public StubResource<T> belongsTo(String parent, String field, Function<T, Object> getter) {
+        parentKeys.put(parent, field);
+        return filterable(field, getter);
+    }
+
+    /**
+     * 将序列化结果写入目录下的 {name}.db 存储（已有文件被清空），需在添加元素之前调用
+     * @param directory 存储目录
+     * @return this
+     */
+    public StubResource<T> storeIn(Path directory) {
+        if (!fieldValues.isEmpty()) {
+            throw new IllegalStateException(name + " 已有元素，应在添加元素之前指定存储");
+        }
+        store = RecordStore.create(directory.resolve(name + ".db"));
+        return this;
+    }
+
+    /**
+     * 添加元素，序列化一次并更新索引
+     * @param item 模型对象
+     */
+    public void add(T item) {
+        int position = fieldValues.size();
+        byte[] payload = JsonUtils.toJson(item).getBytes(StandardCharsets.UTF_8);
+        if (store != null) {
+            store.append(Integer.toString(position), payload);
+        } else {
+            payloads.add(payload);
+        }
+
+        Object[] values = new Object[fields.size()];
+        int i = 0;
+        for (Map.Entry<String, Function<T, Object>> field : fields.entrySet()) {
+            Object value = field.getValue().apply(item);
+            values[i++] = value;
+            if (value != null) {
+                indexes.get(field.getKey())
+                        .computeIfAbsent(value.toString(), key -> new ArrayList<>(1))
+                        .add(position);
+            }
+        }
+        fieldValues.add(values);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return fieldValues.size();
+    }
+
+    /**
+     * @param parent 父资源名称
+     * @return 指向父资源的外键字段名，不存在时返回null
+     */
+    public String parentKey(String parent) {
+        return parentKeys.get(parent);
+    }
+
+    /**
+     * @param field 字段名
+     * @return 字段是否可用于过滤（id 和通过 filterable/belongsTo 声明的字段）
+     */
+    public boolean isFilterable(String field) {
+        return indexes.containsKey(field);
+    }
+
+    /**
+     * 按ID获取元素JSON
+     * @param id ID
+     * @return JSON字节（调用方不应修改），不存在时返回null
+     */
+    public ByteBuffer find(String id) {
+        List<Integer> positions = indexes.get("id").get(id);
+        return positions == null ? null : payload(positions.get(0));
+    }
+
+    /**
+     * 按过滤条件查询（多个条件取交集，从最小的索引结果开始）
+     * @param filters 字段 -&gt; 值；未声明为可过滤的字段被忽略（调用方应先用 {@link #isFilterable} 校验）
+     * @return 匹配元素的下标（按添加顺序）
+     */
+    public List<Integer> query(Map<String, String> filters) {
+        List<Integer> smallest = null;
+        List<Map.Entry<String, String>> remaining = new ArrayList<>();
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            Map<String, List<Integer>> index = indexes.get(filter.getKey());
+            if (index == null) {
+                continue;
+            }
+            List<Integer> matches = index.getOrDefault(filter.getValue(), Collections.emptyList());
+            if (smallest == null || matches.size() < smallest.size()) {
+                smallest = matches;
+            }
+            remaining.add(filter);
+        }
+        if (smallest == null) {
+            List<Integer> all = new ArrayList<>(fieldValues.size());
+            for (int i = 0; i < fieldValues.size(); i++) {
+                all.add(i);
+            }
+            return all;
+        }
+
+        List<Integer> result = new ArrayList<>(smallest.size());
+        for (int position : smallest) {
+            if (matchesAll(position, remaining)) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将元素下标拼接为JSON数组（直接拼接预先序列化的字节）
+     * @param positions 元素下标
+     * @return JSON数组字节
+     */
+    public byte[] toJsonArray(List<Integer> positions) {
+        if (positions.isEmpty()) {
+            return EMPTY_ARRAY;
+        }
+        List<ByteBuffer> parts = new ArrayList<>(positions.size());
+        int size = positions.size() + 1;
+        for (int position : positions) {
+            ByteBuffer payload = payload(position);
+            parts.add(payload);
+            size += payload.remaining();
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put((byte) '[');
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) {
+                out.put((byte) ',');
+            }
+            out.put(parts.get(i));
+        }
+        out.put((byte) ']');
+        return out.array();
+    }
+
+    /**
+     * 关闭存储的写入通道（未使用存储时无操作）
+     */
+    @Override
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private ByteBuffer payload(int position) {
+        return store != null ? store.get(Integer.toString(position)) : ByteBuffer.wrap(payloads.get(position));
+    }
+
+    private boolean matchesAll(int position, List<Map.Entry<String, String>> filters) {
+        Object[] values = fieldValues.get(position);
+        for (Map.Entry<String, String> filter : filters) {
+            Object value = values[fieldIndex(filter.getKey())];
+            if (value == null || !value.toString().equals(filter.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int fieldIndex(String field) {
+        int i = 0;
+        for (String name : fields.keySet()) {
+            if (name.equals(field)) {
+                return i;
+            }
+            i++;
+        }
+        throw new IllegalArgumentException(field);
+    }
+}
@@ -0,0 +1,354 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigManager;
+import utils.JsonUtils;
+import utils.LogUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 本地桩服务器，按 JSONPlaceholder 的约定提供 users、posts、comments 资源：
+ * <ul>
+ *     <li>GET /{resource}、/{resource}/{id}、/{parent}/{id}/{resource}</li>
+ *     <li>过滤 ?postId= ?userId= ?email= ?username= ?id=，分页 _page/_limit（返回 X-Total-Count）；
+ *     未知的查询参数、非正整数的 _page/_limit 返回400</li>
+ *     <li>POST 返回201并分配新ID，PUT/PATCH/DELETE 返回200，写操作不改变数据集</li>
+ * </ul>
+ * 可配置人为延迟（stub.latency.ms + stub.latency.jitter.ms）和错误注入（stub.error.rate、stub.error.status），
+ * 用于在本地验证 ApiHelper 的超时与重试行为；客户端接受 gzip 时按 stub.compression.min.bytes 压缩响应。
+ * 请求带 W3C traceparent 头时，像被跟踪的后端一样以同一 trace id 和自己的跨度ID返回 traceresponse 头，
+ * 并在 {@value #RECEIVED_TRACEPARENT_HEADER} 头中原样返回收到的 traceparent，供测试核对后端看到的父跨度
+ */
+public class StubServer {
+    /** 桩服务器特有的响应头：原样返回请求中的 traceparent */
+    public static final String RECEIVED_TRACEPARENT_HEADER = "X-Received-Traceparent";
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final Pattern TRACEPARENT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    private final StubDataSet dataSet;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+    private final int errorStatus;
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+    private int compressionMinBytes = -1;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubServer(StubDataSet dataSet, long latencyMs, long latencyJitterMs, double errorRate, int errorStatus) {
+        this.dataSet = dataSet;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * 按 config.properties 中的 stub.* 配置创建桩服务器
+     * @return 桩服务器（未启动）
+     */
+    public static StubServer fromConfig() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        return new StubServer(StubDataSet.fromConfig(),
+                configManager.getTypedProperty("stub.latency.ms", Long.class, 0L),
+                configManager.getTypedProperty("stub.latency.jitter.ms", Long.class, 0L),
+                configManager.getTypedProperty("stub.error.rate", Double.class, 0.0),
+                configManager.getIntProperty("stub.error.status", 503))
+                .compressAbove(configManager.getIntProperty("stub.compression.min.bytes", -1));
+    }
+
+    /**
+     * 客户端接受 gzip 时压缩不小于指定大小的响应体
+     * @param minBytes 最小响应体字节数，负数表示不压缩
+     * @return this
+     */
+    public StubServer compressAbove(int minBytes) {
+        this.compressionMinBytes = minBytes;
+        return this;
+    }
+
+    /**
+     * 在本机回环地址上启动
+     * @param port 端口，0表示随机端口
+     * @param threads 处理线程数
+     * @return this
+     */
+    public StubServer start(int port, int threads) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("桩服务器启动失败，端口: " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        LogUtils.logInfo("桩服务器已启动: " + getBaseUrl() + " (" + dataSet + ")");
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            dataSet.close();
+            server = null;
+            LogUtils.logInfo("桩服务器已停止，注入错误 " + injectedErrors.get() + " 次");
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public int getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            injectLatency();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, errorStatus, ("{\"error\":\"injected " + errorStatus + "\"}").getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            route(exchange);
+        } catch (BadRequestException e) {
+            send(exchange, 400, JsonUtils.toJson(Map.of("error", e.getMessage())).getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            send(exchange, 500, ("{\"error\":\"" + e.getClass().getSimpleName() + "\"}").getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String[] segments = exchange.getRequestURI().getRawPath().replaceAll("^/+|/+$", "").split("/");
+        String method = exchange.getRequestMethod();
+        StubResource<?> resource = dataSet.resource(segments[0]);
+        if (resource == null || segments.length > 3) {
+            send(exchange, 404, EMPTY_OBJECT);
+            return;
+        }
+
+        if (segments.length == 3) {
+            // 嵌套路由：/{parent}/{id}/{child}，等价于 /{child}?{外键}={id}
+            StubResource<?> child = dataSet.resource(segments[2]);
+            String parentKey = child == null ? null : child.parentKey(resource.getName());
+            if (parentKey == null || !"GET".equals(method)) {
+                send(exchange, 404, EMPTY_OBJECT);
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            query.put(parentKey, segments[1]);
+            sendList(exchange, child, query);
+            return;
+        }
+
+        if (segments.length == 1) {
+            switch (method) {
+                case "GET":
+                    sendList(exchange, resource, parseQuery(exchange.getRequestURI().getRawQuery()));
+                    return;
+                case "POST":
+                    ObjectNode created = readObject(exchange.getRequestBody());
+                    created.put("id", resource.size() + 1);
+                    send(exchange, 201, JsonUtils.toJson(created).getBytes(StandardCharsets.UTF_8));
+                    return;
+                default:
+                    send(exchange, 404, EMPTY_OBJECT);
+                    return;
+            }
+        }
+
+        ByteBuffer existing = resource.find(segments[1]);
+        if (existing == null) {
+            send(exchange, 404, EMPTY_OBJECT);
+            return;
+        }
+        switch (method) {
+            case "GET":
+                send(exchange, 200, existing);
+                break;
+            case "PUT":
+            case "PATCH":
+                // PATCH 合并到现有元素，PUT 整体替换；ID始终以路径为准
+                ObjectNode current = (ObjectNode) JsonUtils.getJsonNode(existing);
+                ObjectNode updated = "PATCH".equals(method) ? current : current.objectNode();
+                updated.setAll(readObject(exchange.getRequestBody()));
+                updated.set("id", current.get("id"));
+                send(exchange, 200, JsonUtils.toJson(updated).getBytes(StandardCharsets.UTF_8));
+                break;
+            case "DELETE":
+                send(exchange, 200, EMPTY_OBJECT);
+                break;
+            default:
+                send(exchange, 404, EMPTY_OBJECT);
+        }
+    }
+
+    private void sendList(HttpExchange exchange, StubResource<?> resource, Map<String, String> query) throws IOException {
+        String page = query.remove("_page");
+        String limit = query.remove("_limit");
+        for (String field : query.keySet()) {
+            if (!resource.isFilterable(field)) {
+                throw new BadRequestException(resource.getName() + " 不支持按 " + field + " 过滤");
+            }
+        }
+        List<Integer> positions = resource.query(query);
+        int total = positions.size();
+
+        if (page != null || limit != null) {
+            int pageSize = limit != null ? positiveInt("_limit", limit) : 10;
+            int pageIndex = page != null ? positiveInt("_page", page) : 1;
+            // 页码很大时 (pageIndex-1)*pageSize 会超出int，按long计算
+            int from = (int) Math.min(total, (long) (pageIndex - 1) * pageSize);
+            positions = positions.subList(from, (int) Math.min(total, (long) from + pageSize));
+        }
+
+        exchange.getResponseHeaders().add("X-Total-Count", Integer.toString(total));
+        send(exchange, 200, resource.toJsonArray(positions));
+    }
+
+    private static int positiveInt(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // 按无效参数处理
+        }
+        throw new BadRequestException(name + " 应为正整数: " + value);
+    }
+
+    private void injectLatency() {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ObjectNode readObject(InputStream body) throws IOException {
+        byte[] bytes = body.readAllBytes();
+        JsonNode node = bytes.length == 0 ? null : JsonUtils.getJsonNode(bytes);
+        if (node == null || !node.isObject()) {
+            return (ObjectNode) JsonUtils.getJsonNode(EMPTY_OBJECT);
+        }
+        return (ObjectNode) node;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        send(exchange, status, ByteBuffer.wrap(body));
+    }
+
+    private void send(HttpExchange exchange, int status, ByteBuffer body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+        if (traceparent != null && TRACEPARENT.matcher(traceparent).matches()) {
+            exchange.getResponseHeaders().set(RECEIVED_TRACEPARENT_HEADER, traceparent);
+            // 00-{trace-id}-{parent-id}-{flags}：沿用 trace id 和 flags，parent-id 换成服务端跨度ID
+            exchange.getResponseHeaders().set("traceresponse", String.format("00-%s-%016x-%s",
+                    traceparent.substring(3, 35), ThreadLocalRandom.current().nextLong() | 1, traceparent.substring(53)));
+        }
+        if (compressionMinBytes >= 0 && body.remaining() >= compressionMinBytes && acceptsGzip(exchange)) {
+            // 分块传输，边压缩边写出
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody(), 8192)) {
+                write(out, body);
+            }
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.remaining());
+        try (OutputStream out = exchange.getResponseBody()) {
+            write(out, body);
+        }
+    }
+
+    /**
+     * 写出ByteBuffer：堆内缓冲区直接写出底层数组，内存映射的缓冲区分块复制
+     */
+    private static void write(OutputStream out, ByteBuffer body) throws IOException {
+        if (body.hasArray()) {
+            out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+            return;
+        }
+        ByteBuffer source = body.duplicate();
+        byte[] chunk = new byte[Math.min(8192, source.remaining())];
+        while (source.hasRemaining()) {
+            int length = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        for (String value : exchange.getRequestHeaders().getOrDefault("Accept-Encoding", List.of())) {
+            for (String coding : value.split(",")) {
+                String token = coding.trim().toLowerCase(Locale.ROOT);
+                if (token.equals("gzip") || token.startsWith("gzip;") && !token.replace(" ", "").endsWith("q=0")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 请求参数无效，返回400
+     */
+    private static final class BadRequestException extends RuntimeException {
+        private BadRequestException(String message) {
+            super(message);
+        }
+    }
+}
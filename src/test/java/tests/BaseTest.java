@@ -15,7 +15,6 @@ import java.lang.reflect.Method;
  * 提供通用的测试设置和清理方法
  */
 public abstract class BaseTest {
-    
     protected ApiHelper apiHelper;
     protected ResponseValidator responseValidator;
     protected DataValidator dataValidator;
@@ -57,7 +56,7 @@ public abstract class BaseTest {
      */
     protected void validateBasicResponse(io.restassured.response.Response response, int expectedStatusCode) {
         ResponseValidator.validateStatusCode(response, expectedStatusCode);
-        ResponseValidator.validateResponseTime(response, 5000); // 默认5秒超时
+        ResponseValidator.validateResponseTime(response, ResponseValidator.MAX_RESPONSE_TIME_MS);
         ResponseValidator.validateContentType(response, "application/json");
     }
     
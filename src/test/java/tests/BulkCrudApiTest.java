@@ -0,0 +1,192 @@
+package tests;
+
+import config.ConfigManager;
+import helpers.ApiHelper;
+import helpers.BatchFailedException;
+import helpers.BatchPolicy;
+import helpers.BatchRequest;
+import helpers.BatchResult;
+import helpers.IdRange;
+import helpers.RequestPipeline;
+import helpers.TestDataHelper;
+import helpers.TestDataProviders;
+import io.restassured.response.Response;
+import models.Comment;
+import models.CommentStructureValidator;
+import models.Post;
+import models.PostStructureValidator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import utils.JsonUtils;
+import validations.DataValidator;
+import validations.ResponseValidator;
+import validations.ValidationReport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 批量CRUD测试类，通过并行数据提供者按分片覆盖全部资源ID、查询参数和请求体大小
+ */
+public class BulkCrudApiTest extends BaseTest {
+
+    @Test(description = "按ID分片获取Posts", dataProvider = "postIdShards", dataProviderClass = TestDataProviders.class)
+    public void testGetPostsByIdShard(IdRange range) {
+        BatchResult result = ApiHelper.batch(range.ids()
+                .mapToObj(id -> BatchRequest.get("/posts/" + id))
+                .collect(Collectors.toList()));
+        result.assertAllStatus(200);
+        for (int i = 0; i < result.size(); i++) {
+            Response response = result.get(i).getResponse();
+            DataValidator.validateAndExtractPost(response);
+            ResponseValidator.validateJsonField(response, "id", range.getStart() + i);
+        }
+    }
+
+    @Test(description = "按ID分片获取Comments", dataProvider = "commentIdShards", dataProviderClass = TestDataProviders.class)
+    public void testGetCommentsByIdShard(IdRange range) {
+        BatchResult result = ApiHelper.batch(range.ids()
+                .mapToObj(id -> BatchRequest.get("/comments/" + id))
+                .collect(Collectors.toList()));
+        result.assertAllStatus(200);
+        for (int i = 0; i < result.size(); i++) {
+            Response response = result.get(i).getResponse();
+            DataValidator.validateAndExtractComment(response);
+            ResponseValidator.validateJsonField(response, "id", range.getStart() + i);
+        }
+    }
+
+    @Test(description = "按ID分片获取Users", dataProvider = "userIdShards", dataProviderClass = TestDataProviders.class)
+    public void testGetUsersByIdShard(IdRange range) {
+        BatchResult result = ApiHelper.batch(range.ids()
+                .mapToObj(id -> BatchRequest.get("/users/" + id))
+                .collect(Collectors.toList()));
+        result.assertAllStatus(200);
+        for (int i = 0; i < result.size(); i++) {
+            Response response = result.get(i).getResponse();
+            DataValidator.validateAndExtractUser(response);
+            ResponseValidator.validateJsonField(response, "id", range.getStart() + i);
+        }
+    }
+
+    @Test(description = "按userId过滤Posts", dataProvider = "postsByUserIdParams", dataProviderClass = TestDataProviders.class)
+    public void testGetPostsByUserId(Map<String, Object> queryParams) {
+        Response response = ApiHelper.get("/posts", queryParams);
+
+        ResponseValidator.validateStructure(response, PostStructureValidator.INSTANCE);
+        DataValidator.validateAndExtractPostList(response, 1);
+        DataValidator.validateForeignKeys(DataValidator.extractIds(response, "userId"),
+                new int[]{(Integer) queryParams.get("userId")}, "Post.userId");
+    }
+
+    @Test(description = "按postId过滤Comments", dataProvider = "commentsByPostIdParams", dataProviderClass = TestDataProviders.class)
+    public void testGetCommentsByPostId(Map<String, Object> queryParams) {
+        Response response = ApiHelper.get("/comments", queryParams);
+
+        ResponseValidator.validateStructure(response, CommentStructureValidator.INSTANCE);
+        DataValidator.validateAndExtractCompactCommentList(response, 1);
+        DataValidator.validateForeignKeys(DataValidator.extractIds(response, "postId"),
+                new int[]{(Integer) queryParams.get("postId")}, "Comment.postId");
+    }
+
+    @Test(description = "数据行超过bulk.max.rows时数据提供者失败而不是截断")
+    public void testProviderRejectsRowsBeyondLimit() {
+        int maxRows = ConfigManager.getInstance().getIntProperty("bulk.max.rows", 1000);
+        Assert.assertTrue(TestDataProviders.queryParams("postId", maxRows).hasNext());
+        Assert.assertThrows(IllegalStateException.class, () -> TestDataProviders.queryParams("postId", maxRows + 1));
+    }
+
+    @Test(description = "批量请求按提交顺序返回每项的状态码")
+    public void testBatchCollectAllKeepsOrder() {
+        BatchResult result = ApiHelper.batch(Arrays.asList(
+                BatchRequest.get("/posts/1"),
+                BatchRequest.get("/posts/999999"),
+                BatchRequest.get("/users/1")), BatchPolicy.COLLECT_ALL, 3);
+
+        Assert.assertEquals(result.size(), 3);
+        Assert.assertEquals(result.get(0).getStatusCode(), 200);
+        Assert.assertEquals(result.get(1).getStatusCode(), 404);
+        Assert.assertEquals(result.get(2).getStatusCode(), 200);
+        Assert.assertEquals(result.failures().size(), 1, "只有不存在的资源应失败: " + result.failures());
+        ResponseValidator.validateJsonField(result.get(2).getResponse(), "id", 1);
+    }
+
+    @Test(description = "fail-fast策略在第一个失败后停止发出请求")
+    public void testBatchFailFast() {
+        BatchFailedException e = Assert.expectThrows(BatchFailedException.class, () -> ApiHelper.batch(Arrays.asList(
+                BatchRequest.get("/posts/999999"),
+                BatchRequest.get("/posts/1"),
+                BatchRequest.get("/posts/2")), BatchPolicy.FAIL_FAST, 1));
+
+        BatchResult result = e.getResult();
+        Assert.assertEquals(result.size(), 3);
+        Assert.assertTrue(result.get(0).isFailed(), "第一项应失败: " + result.get(0));
+        Assert.assertEquals(result.get(0).getStatusCode(), 404);
+        for (int i = 1; i < result.size(); i++) {
+            Assert.assertTrue(result.get(i).isSkipped(), "失败之后的请求不应发出: " + result.get(i));
+        }
+    }
+
+    @Test(description = "流水线验证每个Post及其Comments")
+    public void testValidateEveryPostWithComments() {
+        int maxPostId = ConfigManager.getInstance().getIntProperty("bulk.posts.max.id", 100);
+
+        // 请求、解析、验证分别在各自的线程池上重叠执行
+        ValidationReport report = RequestPipeline.<Integer, List<Comment>>of("Post评论")
+                .request(postId -> ApiHelper.get("/posts/" + postId + "/comments"))
+                .parse(response -> {
+                    ResponseValidator.validateStatusCode(response, 200);
+                    return JsonUtils.fromJsonToList(response.asByteArray(), Comment.class);
+                })
+                .validate((postId, index, comments, itemReport) -> {
+                    itemReport.check(!comments.isEmpty(), index, "每个Post都应有Comment", postId);
+                    for (Comment comment : comments) {
+                        DataValidator.checkComment(comment, index, itemReport);
+                        itemReport.check(postId.equals(comment.getPostId()), index, "Comment.postId应与Post ID一致", comment.getPostId());
+                    }
+                })
+                .run(IntStream.rangeClosed(1, maxPostId).boxed().iterator());
+
+        report.assertNoFailures();
+        Assert.assertEquals(report.getCheckedCount(), maxPostId, "应验证全部Post");
+    }
+
+    @Test(description = "流水线阶段的工作线程因Error终止时不挂起", timeOut = 60000)
+    public void testPipelineSurvivesWorkerError() {
+        int inputs = 20;
+
+        // 唯一的解析线程在第5个Post上终止，之后的输入由它在退出前记为失败，上游和调用线程不会阻塞
+        ValidationReport report = RequestPipeline.<Integer, List<Comment>>of("Post评论（解析线程终止）")
+                .request(postId -> ApiHelper.get("/posts/" + postId + "/comments"))
+                .parse(response -> {
+                    List<Comment> comments = JsonUtils.fromJsonToList(response.asByteArray(), Comment.class);
+                    if (!comments.isEmpty() && comments.get(0).getPostId() == 5) {
+                        throw new Error("模拟解析线程终止");
+                    }
+                    return comments;
+                })
+                .validate((postId, index, comments, itemReport) -> itemReport.check(!comments.isEmpty(), index, "每个Post都应有Comment", postId))
+                .threads(2, 1, 1)
+                .queueCapacity(2)
+                .run(IntStream.rangeClosed(1, inputs).boxed().iterator());
+
+        Assert.assertTrue(report.hasFailures(), "解析线程终止应记为失败");
+        Assert.assertEquals(report.getCheckedCount(), inputs, "每个输入都应记为已验证或失败: " + report.summary());
+        Assert.assertEquals(report.getValidCount() + report.getFailedElementCount(), inputs, report.summary());
+    }
+
+    @Test(description = "创建不同请求体大小的Post", dataProvider = "payloadSizes", dataProviderClass = TestDataProviders.class)
+    public void testCreatePostWithPayloadSize(int payloadSize) {
+        Post newPost = TestDataHelper.createTestPost();
+        newPost.setBody(TestDataHelper.generateLongText(payloadSize));
+
+        Response response = ApiHelper.post("/posts", newPost);
+
+        validateCreatedResponse(response);
+        ResponseValidator.validateJsonFieldExists(response, "id");
+        ResponseValidator.validateJsonField(response, "body", newPost.getBody());
+    }
+}
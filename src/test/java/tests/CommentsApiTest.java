@@ -1,17 +1,23 @@
 package tests;
 
 import helpers.ApiHelper;
+import helpers.LatencySlo;
 import helpers.TestDataHelper;
 import io.restassured.response.Response;
 import models.Comment;
+import org.testng.Assert;
 import org.testng.annotations.Test;
+import utils.HttpUtils;
 import utils.LogUtils;
 import validations.DataValidator;
+import validations.JsonSchemas;
 import validations.ResponseValidator;
+import validations.ValidationReport;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Comments API测试类，用于测试JSONPlaceholder的Comments相关API
@@ -26,16 +32,12 @@ public class CommentsApiTest {
             // 发送GET请求获取所有comments
             Response response = ApiHelper.get("/comments");
             
-            // 验证响应
-            List<Comment> comments = DataValidator.validateAndExtractCommentList(response, 1);
+            // 验证响应及每个评论的基本信息（批量验证，仅产生一条汇总日志）
+            DataValidator.validateAndExtractCommentList(response, 1);
             
-            // 验证列表不为空
+            // 验证列表不为空且ID唯一
             ResponseValidator.validateJsonArrayNotEmpty(response, "$");
-            
-            // 验证每个评论的基本信息
-            for (Comment comment : comments) {
-                DataValidator.validateComment(comment);
-            }
+            DataValidator.validateUniqueIds(DataValidator.extractIds(response, "id"), "Comment ID");
             
             LogUtils.logTestEnd("testGetAllComments", "通过");
         } catch (Exception e) {
@@ -58,14 +60,11 @@ public class CommentsApiTest {
             // 验证响应并提取Comment对象
             DataValidator.validateAndExtractComment(response);
             
-            // 验证Comment ID是否正确
-            ResponseValidator.validateJsonField(response, "id", commentId);
-            
-            // 验证评论的详细信息结构
-            ResponseValidator.validateJsonFieldExists(response, "postId");
-            ResponseValidator.validateJsonFieldExists(response, "name");
-            ResponseValidator.validateJsonFieldExists(response, "email");
-            ResponseValidator.validateJsonFieldExists(response, "body");
+            // 验证Comment ID及评论的详细信息结构
+            ResponseValidator.checks(response)
+                    .field("id", commentId)
+                    .schema(JsonSchemas.COMMENT)
+                    .verify();
             
             LogUtils.logTestEnd("testGetCommentById", "通过");
         } catch (Exception e) {
@@ -88,14 +87,11 @@ public class CommentsApiTest {
             Response response = ApiHelper.get("/comments", queryParams);
             
             // 验证响应
-            ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             ResponseValidator.validateJsonArrayNotEmpty(response, "$");
             
             // 验证所有返回的comments都属于指定post
-            List<Integer> postIds = response.jsonPath().getList("postId");
-            for (Integer id : postIds) {
-                ResponseValidator.validateJsonField(response, "find { it.postId == " + id + " }.postId", postId);
-            }
+            DataValidator.validateForeignKeys(DataValidator.extractIds(response, "postId"), new int[]{postId}, "Comment.postId");
             
             LogUtils.logTestEnd("testGetCommentsByPostId", "通过");
         } catch (Exception e) {
@@ -116,14 +112,11 @@ public class CommentsApiTest {
             Response response = ApiHelper.get("/posts/" + postId + "/comments");
             
             // 验证响应
-            ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             ResponseValidator.validateJsonArrayNotEmpty(response, "$");
             
             // 验证所有返回的comments都属于指定post
-            List<Integer> postIds = response.jsonPath().getList("postId");
-            for (Integer id : postIds) {
-                ResponseValidator.validateJsonField(response, "find { it.postId == " + id + " }.postId", postId);
-            }
+            DataValidator.validateForeignKeys(DataValidator.extractIds(response, "postId"), new int[]{postId}, "Comment.postId");
             
             LogUtils.logTestEnd("testGetCommentsViaPostEndpoint", "通过");
         } catch (Exception e) {
@@ -146,7 +139,7 @@ public class CommentsApiTest {
             Response response = ApiHelper.get("/comments", queryParams);
             
             // 验证响应
-            ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             
             // 如果有结果，验证邮箱是否正确
             List<String> emails = response.jsonPath().getList("email");
@@ -164,6 +157,95 @@ public class CommentsApiTest {
         }
     }
     
+    @Test(description = "分页流式遍历所有Comments")
+    public void testStreamAllComments() {
+        LogUtils.logTestStart("testStreamAllComments", "分页流式遍历所有Comments");
+        
+        try {
+            ValidationReport report = new ValidationReport("Comment分页流");
+            int[] previousId = {0};
+            long count;
+            
+            // 逐页验证，后续页在验证当前页时预取
+            try (Stream<Comment> comments = ApiHelper.stream("/comments", 100, Comment.class)) {
+                count = comments.peek(comment -> {
+                    int index = report.getCheckedCount();
+                    DataValidator.checkComment(comment, index, report);
+                    report.check(comment.getId() > previousId[0], index, "Comment ID应按页递增且不重复", comment.getId());
+                    previousId[0] = comment.getId();
+                    report.addChecked(1);
+                }).count();
+            }
+            
+            report.assertNoFailures();
+            LogUtils.logValidation("分页流元素数量", "> 0", count, count > 0);
+            
+            LogUtils.logTestEnd("testStreamAllComments", "通过");
+        } catch (Exception e) {
+            LogUtils.logError("测试失败", e);
+            LogUtils.logTestEnd("testStreamAllComments", "失败");
+            throw e;
+        }
+    }
+    
+    @Test(description = "分页流与一次性查询结果一致")
+    public void testStreamCommentsByPostIdMatchesList() {
+        LogUtils.logTestStart("testStreamCommentsByPostIdMatchesList", "分页流与一次性查询结果一致");
+        
+        try {
+            Map<String, Object> queryParams = new HashMap<>();
+            queryParams.put("postId", 1);
+            
+            Response response = ApiHelper.get("/comments", queryParams);
+            int[] expectedIds = DataValidator.extractIds(response, "id");
+            
+            // 页大小小于结果数量，覆盖多页及最后一页不满的情况
+            int[] streamedIds;
+            try (Stream<Comment> comments = ApiHelper.stream("/comments", queryParams, 2, Comment.class)) {
+                streamedIds = comments.mapToInt(Comment::getId).toArray();
+            }
+            
+            Assert.assertEquals(streamedIds, expectedIds, "分页流结果应与一次性查询一致");
+            
+            LogUtils.logTestEnd("testStreamCommentsByPostIdMatchesList", "通过");
+        } catch (Exception e) {
+            LogUtils.logError("测试失败", e);
+            LogUtils.logTestEnd("testStreamCommentsByPostIdMatchesList", "失败");
+            throw e;
+        }
+    }
+    
+    @Test(description = "压缩传输的Comments列表解码后与内容一致")
+    public void testCompressedCommentListSizes() {
+        LogUtils.logTestStart("testCompressedCommentListSizes", "压缩传输的Comments列表解码后与内容一致");
+        
+        try {
+            Response response = ApiHelper.get("/comments");
+            ResponseValidator.validateStatusCode(response, 200);
+            
+            long decodedSize = HttpUtils.getResponseSize(response);
+            long wireSize = HttpUtils.getWireSize(response);
+            String contentEncoding = response.getHeader("Content-Encoding");
+            LogUtils.logInfo(String.format("Content-Encoding: %s, 线路字节: %d, 解码后字节: %d",
+                    contentEncoding, wireSize, decodedSize));
+            
+            Assert.assertEquals(decodedSize, response.asByteArray().length, "解码后大小应等于响应体字节数");
+            Assert.assertTrue(wireSize > 0 && wireSize <= decodedSize, "线路字节数应在 (0, 解码后大小] 之间: " + wireSize);
+            if ("gzip".equalsIgnoreCase(contentEncoding) || "deflate".equalsIgnoreCase(contentEncoding)) {
+                Assert.assertTrue(wireSize < decodedSize, "压缩的列表在线路上应小于解码后的大小");
+            }
+            
+            List<Comment> comments = DataValidator.validateAndExtractCommentList(response, 1);
+            LogUtils.logValidation("Comments数量", "> 0", comments.size(), !comments.isEmpty());
+            
+            LogUtils.logTestEnd("testCompressedCommentListSizes", "通过");
+        } catch (Exception e) {
+            LogUtils.logError("测试失败", e);
+            LogUtils.logTestEnd("testCompressedCommentListSizes", "失败");
+            throw e;
+        }
+    }
+    
     @Test(description = "创建新的Comment")
     public void testCreateComment() {
         LogUtils.logTestStart("testCreateComment", "创建新的Comment");
@@ -175,17 +257,17 @@ public class CommentsApiTest {
             // 发送POST请求创建新comment
             Response response = ApiHelper.post("/comments", newComment);
             
-            // 验证响应
-            ResponseValidator.validateStatusCode(response, 201);
-            ResponseValidator.validateContentType(response, "application/json");
-            ResponseValidator.validateResponseBodyNotEmpty(response);
-            
-            // 验证创建的comment数据
-            ResponseValidator.validateJsonFieldExists(response, "id");
-            ResponseValidator.validateJsonField(response, "postId", newComment.getPostId());
-            ResponseValidator.validateJsonField(response, "name", newComment.getName());
-            ResponseValidator.validateJsonField(response, "email", newComment.getEmail());
-            ResponseValidator.validateJsonField(response, "body", newComment.getBody());
+            // 验证响应及创建的comment数据（汇总所有失败项后统一断言）
+            ResponseValidator.checks(response)
+                    .statusCode(201)
+                    .contentType("application/json")
+                    .bodyNotEmpty()
+                    .fieldExists("id")
+                    .field("postId", newComment.getPostId())
+                    .field("name", newComment.getName())
+                    .field("email", newComment.getEmail())
+                    .field("body", newComment.getBody())
+                    .verify();
             
             LogUtils.logTestEnd("testCreateComment", "通过");
         } catch (Exception e) {
@@ -209,16 +291,16 @@ public class CommentsApiTest {
             // 发送PUT请求更新comment
             Response response = ApiHelper.put("/comments/" + commentId, updateComment);
             
-            // 验证响应
-            ResponseValidator.validateStatusCode(response, 200);
-            ResponseValidator.validateContentType(response, "application/json");
-            
-            // 验证更新的comment数据
-            ResponseValidator.validateJsonField(response, "id", commentId);
-            ResponseValidator.validateJsonField(response, "postId", updateComment.getPostId());
-            ResponseValidator.validateJsonField(response, "name", updateComment.getName());
-            ResponseValidator.validateJsonField(response, "email", updateComment.getEmail());
-            ResponseValidator.validateJsonField(response, "body", updateComment.getBody());
+            // 验证响应及更新的comment数据
+            ResponseValidator.checks(response)
+                    .statusCode(200)
+                    .contentType("application/json")
+                    .field("id", commentId)
+                    .field("postId", updateComment.getPostId())
+                    .field("name", updateComment.getName())
+                    .field("email", updateComment.getEmail())
+                    .field("body", updateComment.getBody())
+                    .verify();
             
             LogUtils.logTestEnd("testUpdateComment", "通过");
         } catch (Exception e) {
@@ -237,8 +319,8 @@ public class CommentsApiTest {
             
             // 创建部分更新数据
             Map<String, Object> patchData = new HashMap<>();
-            patchData.put("name", "Updated Comment Name " + System.currentTimeMillis());
-            patchData.put("body", "Updated comment body at " + System.currentTimeMillis());
+            patchData.put("name", "Updated Comment Name " + TestDataHelper.nextToken());
+            patchData.put("body", "Updated comment body at " + TestDataHelper.nextToken());
             
             // 发送PATCH请求部分更新comment
             Response response = ApiHelper.patch("/comments/" + commentId, patchData);
@@ -325,17 +407,18 @@ public class CommentsApiTest {
         }
     }
     
-    @Test(description = "验证Comments API响应时间")
+    @Test(description = "验证Comments API响应时间SLO")
     public void testCommentsApiResponseTime() {
-        LogUtils.logTestStart("testCommentsApiResponseTime", "验证Comments API响应时间");
+        LogUtils.logTestStart("testCommentsApiResponseTime", "验证Comments API响应时间SLO");
         
         try {
-            // 发送GET请求
-            Response response = ApiHelper.get("/comments");
-            
-            // 验证响应时间（设置为3秒以内）
-            ResponseValidator.validateResponseTime(response, 3000);
-            ResponseValidator.validateStatusCode(response, 200);
+            // 预热后采样，按分位和错误率断言，而不是单次请求的耗时
+            LatencySlo.get("/comments")
+                    .p50(1000)
+                    .p95(3000)
+                    .p99(ResponseValidator.MAX_RESPONSE_TIME_MS)
+                    .maxErrorRate(0.05)
+                    .verify();
             
             LogUtils.logTestEnd("testCommentsApiResponseTime", "通过");
         } catch (Exception e) {
@@ -354,16 +437,14 @@ public class CommentsApiTest {
             Response response = ApiHelper.get("/comments");
             
             // 验证响应
-            ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             
             // 验证每个评论的邮箱格式
             List<String> emails = response.jsonPath().getList("email");
-            for (String email : emails) {
-                boolean isValidEmail = DataValidator.isValidEmail(email);
-                LogUtils.logValidation("邮箱格式", "有效格式", email, isValidEmail);
-                if (!isValidEmail) {
-                    LogUtils.logWarning("发现无效邮箱格式: " + email);
-                }
+            ValidationReport report = DataValidator.checkEmails(emails);
+            LogUtils.logValidation("邮箱格式", "有效格式", report.getValidCount() + "/" + report.getCheckedCount(), !report.hasFailures());
+            if (report.hasFailures()) {
+                LogUtils.logWarning("发现无效邮箱格式: " + report.summary());
             }
             
             LogUtils.logTestEnd("testCommentEmailFormat", "通过");
@@ -383,18 +464,16 @@ public class CommentsApiTest {
             
             // 获取指定post的所有comments
             Response commentsResponse = ApiHelper.get("/posts/" + postId + "/comments");
-            ResponseValidator.validateBasicResponse(commentsResponse, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(commentsResponse, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             
             // 获取post信息
             Response postResponse = ApiHelper.get("/posts/" + postId);
-            ResponseValidator.validateBasicResponse(postResponse, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(postResponse, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             
-            // 验证所有comments都关联到正确的post
-            List<Integer> postIds = commentsResponse.jsonPath().getList("postId");
-            for (Integer commentPostId : postIds) {
-                ResponseValidator.validateJsonField(commentsResponse, 
-                        "find { it.postId == " + commentPostId + " }.postId", postId);
-            }
+            // 验证所有comments都关联到正确的post，且comment ID唯一
+            int[] commentPostIds = DataValidator.extractIds(commentsResponse, "postId");
+            DataValidator.validateForeignKeys(commentPostIds, new int[]{postResponse.jsonPath().getInt("id")}, "Comment.postId");
+            DataValidator.validateUniqueIds(DataValidator.extractIds(commentsResponse, "id"), "Comment ID");
             
             LogUtils.logTestEnd("testCommentPostRelationship", "通过");
         } catch (Exception e) {
@@ -0,0 +1,131 @@
+package tests;
+
+import helpers.TestDataHelper;
+import models.Comment;
+import models.CompactComment;
+import models.CompactPost;
+import models.CompactUser;
+import models.Post;
+import models.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import utils.JsonUtils;
+import utils.StringPool;
+import validations.DataValidator;
+import validations.ValidationReport;
+
+import java.util.List;
+
+/**
+ * 紧凑模型测试：与原有模型的相互转换、JSON绑定，以及 StringPool 的去重和容量上限
+ */
+public class CompactModelTest extends BaseTest {
+
+    @Test(description = "CompactPost与Post相互转换")
+    public void testCompactPostConversion() {
+        Post post = new Post(7, 3, "title", "body");
+        CompactPost compact = CompactPost.from(post);
+
+        Assert.assertEquals(compact.getId(), 7);
+        Assert.assertEquals(compact.getUserId(), 3);
+        Assert.assertEquals(compact.toPost(), post, "转换回Post应保留所有字段");
+        Assert.assertEquals(JsonUtils.fromJson(JsonUtils.toJson(post), CompactPost.class), compact,
+                "JSON绑定的结果应与从Post转换的结果相同");
+    }
+
+    @Test(description = "CompactComment与Comment相互转换")
+    public void testCompactCommentConversion() {
+        Comment comment = TestDataHelper.createTestComment();
+        comment.setId(11);
+        CompactComment compact = CompactComment.from(comment);
+
+        Assert.assertEquals(compact.getId(), 11);
+        Assert.assertEquals(compact.getPostId(), (int) comment.getPostId());
+        Assert.assertEquals(JsonUtils.toJson(compact.toComment()), JsonUtils.toJson(comment), "转换回Comment应保留所有字段");
+        Assert.assertEquals(JsonUtils.fromJson(JsonUtils.toJson(comment), CompactComment.class), compact,
+                "JSON绑定的结果应与从Comment转换的结果相同");
+    }
+
+    @Test(description = "CompactUser展平并重建嵌套结构")
+    public void testCompactUserConversion() {
+        User user = TestDataHelper.createDetailedTestUser();
+        user.setId(5);
+        CompactUser compact = CompactUser.from(user);
+
+        Assert.assertEquals(compact.getId(), 5);
+        Assert.assertEquals(compact.getCity(), user.getAddress().getCity());
+        Assert.assertEquals(compact.getLat(), user.getAddress().getGeo().getLat());
+        Assert.assertEquals(compact.getCatchPhrase(), user.getCompany().getCatchPhrase());
+        Assert.assertEquals(JsonUtils.toJson(compact.toUser()), JsonUtils.toJson(user), "转换回User应重建地址、坐标和公司");
+
+        CompactUser bound = JsonUtils.fromJson(JsonUtils.toJson(user), CompactUser.class);
+        Assert.assertEquals(JsonUtils.toJson(bound.toUser()), JsonUtils.toJson(user), "JSON绑定应展平所有嵌套字段");
+
+        User minimal = TestDataHelper.createTestUser();
+        minimal.setId(6);
+        User rebuilt = CompactUser.from(minimal).toUser();
+        Assert.assertNull(rebuilt.getAddress(), "没有地址的User不应重建出空地址");
+        Assert.assertNull(rebuilt.getCompany(), "没有公司的User不应重建出空公司");
+    }
+
+    @Test(description = "未分配ID的请求体转换为紧凑模型时ID记为缺失，转换回来仍为null")
+    public void testCompactModelsKeepMissingIds() {
+        Post post = TestDataHelper.createTestPost();
+        CompactPost compactPost = CompactPost.from(post);
+        Assert.assertEquals(compactPost.getId(), JsonUtils.IntColumns.MISSING);
+        Assert.assertNull(compactPost.toPost().getId(), "缺失的ID不应变成0");
+        Assert.assertEquals(compactPost.toPost(), post);
+        Assert.assertEquals(JsonUtils.fromJson(JsonUtils.toJson(post), CompactPost.class), compactPost,
+                "JSON中缺少id时绑定结果应与从Post转换的结果相同");
+
+        ValidationReport report = new ValidationReport("CompactPost");
+        DataValidator.checkCompactPost(compactPost, 0, report);
+        Assert.assertTrue(report.hasFailures(), "缺失的ID应验证失败");
+
+        Comment comment = TestDataHelper.createTestComment();
+        comment.setPostId(null);
+        Comment rebuiltComment = CompactComment.from(comment).toComment();
+        Assert.assertNull(rebuiltComment.getId());
+        Assert.assertNull(rebuiltComment.getPostId());
+
+        User user = TestDataHelper.createTestUser();
+        Assert.assertNull(CompactUser.from(user).toUser().getId());
+        Assert.assertEquals(JsonUtils.fromJson(JsonUtils.toJson(user), CompactUser.class).getId(), JsonUtils.IntColumns.MISSING);
+    }
+
+    @Test(description = "CompactUser对重复的城市和公司名去重")
+    public void testCompactUserDeduplicatesSharedStrings() {
+        String json = "[" + userJson(1, "Gwenborough", "Romaguera-Crona", "Multi-layered client-server neural-net")
+                + "," + userJson(2, "Gwenborough", "Romaguera-Crona", "Proactive didactic contingency") + "]";
+        List<CompactUser> users = JsonUtils.fromJsonToList(json, CompactUser.class);
+
+        Assert.assertSame(users.get(0).getCity(), users.get(1).getCity(), "相同的城市应复用同一个实例");
+        Assert.assertSame(users.get(0).getCompanyName(), users.get(1).getCompanyName(), "相同的公司名应复用同一个实例");
+        Assert.assertEquals(users.get(1).getCatchPhrase(), "Proactive didactic contingency");
+    }
+
+    @Test(description = "StringPool容量固定且写满后继续去重")
+    public void testStringPoolStaysBoundedAndKeepsDeduplicating() {
+        StringPool pool = new StringPool(100);
+        Assert.assertEquals(pool.capacity(), 128, "槽位数应向上取整为2的幂");
+
+        for (int i = 0; i < 10_000; i++) {
+            pool.dedup("value-" + i);
+        }
+        Assert.assertTrue(pool.size() <= pool.capacity(), "池中字符串数量不应超过槽位数: " + pool.size());
+
+        String first = pool.dedup(new String("late-value"));
+        Assert.assertSame(pool.dedup(new String("late-value")), first, "写满之后新出现的字符串仍应去重");
+        Assert.assertNull(pool.dedup(null));
+
+        pool.clear();
+        Assert.assertEquals(pool.size(), 0);
+    }
+
+    private static String userJson(int id, String city, String companyName, String catchPhrase) {
+        return "{\"id\":" + id + ",\"name\":\"n" + id + "\",\"username\":\"u" + id + "\",\"email\":\"u" + id + "@example.com\","
+                + "\"address\":{\"street\":\"s\",\"suite\":\"Apt. " + id + "\",\"city\":\"" + city + "\",\"zipcode\":\"0000" + id + "\","
+                + "\"geo\":{\"lat\":\"1\",\"lng\":\"2\"}},\"phone\":\"p\",\"website\":\"w" + id + ".org\","
+                + "\"company\":{\"name\":\"" + companyName + "\",\"catchPhrase\":\"" + catchPhrase + "\",\"bs\":\"bs" + id + "\"}}";
+    }
+}
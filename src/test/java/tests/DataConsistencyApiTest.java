@@ -0,0 +1,92 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.JsonUtils;
+import utils.LogUtils;
+import validations.ResourceSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 数据一致性测试类，基于资源快照在内存中审计Posts、Comments、Users之间的关联关系
+ */
+public class DataConsistencyApiTest extends BaseTest {
+
+    private ResourceSnapshot snapshot;
+
+    @BeforeClass
+    public void loadSnapshot() {
+        snapshot = ResourceSnapshot.shared();
+    }
+
+    @Test(description = "所有Comment的postId都指向存在的Post")
+    public void testCommentsReferenceExistingPosts() {
+        int[] orphans = snapshot.findOrphanComments();
+        Assert.assertEquals(orphans.length, 0, "存在postId无效的Comment: " + Arrays.toString(orphans));
+    }
+
+    @Test(description = "所有Post的userId都指向存在的User")
+    public void testPostsReferenceExistingUsers() {
+        int[] orphans = snapshot.findOrphanPosts();
+        Assert.assertEquals(orphans.length, 0, "存在userId无效的Post: " + Arrays.toString(orphans));
+    }
+
+    @Test(description = "每个User都至少有一个Post")
+    public void testEveryUserHasPosts() {
+        int[] counts = snapshot.postCountsByUser();
+        int[] userIds = snapshot.userIds();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                Assert.fail("User " + userIds[i] + " 没有任何Post");
+            }
+        }
+        LogUtils.logValidation("每个User的Post数量", "> 0", Arrays.toString(counts), true);
+    }
+
+    @Test(description = "每个Post都至少有一个Comment")
+    public void testEveryPostHasComments() {
+        int[] counts = snapshot.commentCountsByPost();
+        int[] postIds = snapshot.postIds();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                Assert.fail("Post " + postIds[i] + " 没有任何Comment");
+            }
+        }
+    }
+
+    @Test(description = "快照中的计数与总数一致")
+    public void testCountsAddUp() {
+        Assert.assertEquals(Arrays.stream(snapshot.postCountsByUser()).sum(), snapshot.postCount(), "按用户统计的Post总数不一致");
+        Assert.assertEquals(Arrays.stream(snapshot.commentCountsByPost()).sum(), snapshot.commentCount(), "按Post统计的Comment总数不一致");
+    }
+
+    @Test(description = "按列提取整数字段时缺失的字段记为哨兵值并计数")
+    public void testIntColumnsMarkMissingFields() {
+        JsonUtils.IntColumns columns = JsonUtils.readIntColumns(bytes(
+                "[{\"id\":1,\"postId\":7},{\"id\":2},{\"id\":3,\"postId\":null},{\"id\":4,\"postId\":\"8\"},"
+                        + "{\"id\":5,\"postId\":99999999999}]"), "id", "postId");
+
+        Assert.assertEquals(columns.size(), 5);
+        Assert.assertEquals(columns.get(0), new int[]{1, 2, 3, 4, 5});
+        Assert.assertEquals(columns.missingCount(0), 0);
+        Assert.assertEquals(columns.get(1)[0], 7);
+        Assert.assertEquals(columns.missingCount(1), 4, "缺失、null、字符串和超出int范围的值都应计为缺失");
+        Assert.assertEquals(columns.get(1)[1], JsonUtils.IntColumns.MISSING);
+        Assert.assertThrows(IllegalStateException.class, () -> columns.require(1));
+    }
+
+    @Test(description = "按列提取整数字段时拒绝非对象元素和不完整的数组")
+    public void testIntColumnsRejectMalformedArrays() {
+        Assert.assertThrows(RuntimeException.class, () -> JsonUtils.readIntColumns(bytes("[{\"id\":1}, 2, {\"id\":3}]"), "id"));
+        Assert.assertThrows(RuntimeException.class, () -> JsonUtils.readIntColumns(bytes("[{\"id\":1}, [4]]"), "id"));
+        Assert.assertThrows(RuntimeException.class, () -> JsonUtils.readIntColumns(bytes("[{\"id\":1},"), "id"));
+        Assert.assertEquals(JsonUtils.readIntColumns(bytes("[]"), "id").size(), 0);
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import validations.FieldMatchers;
+
+import java.util.regex.Pattern;
+
+/**
+ * 字段格式匹配器测试：手写的邮箱匹配与它替换的正则逐条比较
+ */
+public class FieldMatchersTest extends BaseTest {
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+
+    @DataProvider(name = "emails")
+    public Object[][] emails() {
+        return new Object[][]{
+                {"Sincere@april.biz"},
+                {"Eliseo@gardner.biz"},
+                {"a.b_c+d&e*f-g@sub-1.example.co"},
+                {"a@b.cd"},
+                {"a@b.abcdefg"},
+                {"a@b.abcdefgh"},
+                {"a@b.c"},
+                {"a@b.c1"},
+                {"a..b@c.de"},
+                {".a@c.de"},
+                {"a.@c.de"},
+                {"a@c.de."},
+                {"a@.c.de"},
+                {"a@c..de"},
+                {"a@c.de-"},
+                {"a@-c.de"},
+                {"a@cde"},
+                {"@c.de"},
+                {"a@"},
+                {"a@@c.de"},
+                {"a b@c.de"},
+                {"a@c_d.de"},
+                {"ä@c.de"},
+                {"a@c.dé"},
+                {""}
+        };
+    }
+
+    @Test(dataProvider = "emails", description = "isEmail与原邮箱正则的判定一致")
+    public void testIsEmailMatchesRegex(String email) {
+        Assert.assertEquals(FieldMatchers.isEmail(email), EMAIL_PATTERN.matcher(email).matches(), email);
+    }
+
+    @Test(description = "isEmail对null返回false")
+    public void testIsEmailRejectsNull() {
+        Assert.assertFalse(FieldMatchers.isEmail(null));
+    }
+}
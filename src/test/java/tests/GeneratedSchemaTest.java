@@ -0,0 +1,129 @@
+package tests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import models.Comment;
+import models.CommentStructureValidator;
+import models.Post;
+import models.PostStructureValidator;
+import models.User;
+import models.UserStructureValidator;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.JsonUtils;
+import validations.JsonSchemas;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期生成的schema测试：SchemaProcessor 的输出应与模型的 @JsonProperty 一致，
+ * JsonSchemas 的常量指向生成的schema，生成的schema和结构验证器对约束的判断一致
+ */
+public class GeneratedSchemaTest extends BaseTest {
+
+    @DataProvider(name = "models")
+    public Object[][] models() {
+        return new Object[][]{
+                {Post.class, JsonSchemas.POST},
+                {User.class, JsonSchemas.USER},
+                {Comment.class, JsonSchemas.COMMENT}
+        };
+    }
+
+    @Test(dataProvider = "models", description = "生成的schema与模型的必需字段一致")
+    public void testGeneratedSchemaMatchesModel(Class<?> model, String schemaName) {
+        Assert.assertTrue(schemaName.startsWith("generated/"), "JsonSchemas 应使用生成的schema: " + schemaName);
+        assertObjectMatches(model, loadSchema(schemaName), "/");
+
+        JsonNode listSchema = loadSchema(schemaName + "-list");
+        Assert.assertEquals(listSchema.path("type").asText(), "array");
+        Assert.assertEquals(listSchema.path("items").path("$ref").asText(), "resource:/schemas/" + schemaName + ".json#",
+                "列表schema应引用同一个生成的元素schema");
+    }
+
+    @Test(description = "生成的schema和结构验证器都执行字段约束")
+    public void testGeneratedConstraints() {
+        JsonNode valid = JsonUtils.getJsonNode("{\"id\": 1, \"userId\": 1, \"title\": \"t\", \"body\": \"b\"}");
+        Assert.assertTrue(JsonSchemas.validate(JsonSchemas.POST, valid).isEmpty());
+        Assert.assertTrue(PostStructureValidator.INSTANCE.validate(valid).isEmpty());
+
+        JsonNode invalid = JsonUtils.getJsonNode("{\"id\": 0, \"userId\": 1, \"title\": \"\", \"body\": \"b\"}");
+        List<String> schemaViolations = JsonSchemas.validate(JsonSchemas.POST, invalid);
+        List<String> structureViolations = PostStructureValidator.INSTANCE.validate(invalid);
+        Assert.assertEquals(schemaViolations.size(), 2, "schema应报告 id 和 title 两处违反: " + schemaViolations);
+        Assert.assertEquals(structureViolations.size(), 2, "结构验证器应报告 id 和 title 两处违反: " + structureViolations);
+        Assert.assertTrue(structureViolations.get(0).startsWith("/id:") && structureViolations.get(1).startsWith("/title:"),
+                structureViolations.toString());
+
+        JsonNode comments = JsonUtils.getJsonNode("[{\"id\": 1, \"postId\": -1, \"name\": \"n\", \"email\": \"e\", \"body\": \"b\"}]");
+        Assert.assertEquals(JsonSchemas.validate(JsonSchemas.COMMENT_LIST, comments).size(), 1);
+        Assert.assertEquals(CommentStructureValidator.INSTANCE.validate(comments).get(0), "/0/postId: 应不小于1");
+
+        JsonNode user = JsonUtils.getJsonNode("{\"id\": 1, \"name\": \"n\"}");
+        Assert.assertEquals(UserStructureValidator.INSTANCE.validate(user).size(), 6, "缺少的6个必需字段都应报告");
+    }
+
+    /**
+     * 比较生成的object schema与模型类：properties 为所有 @JsonProperty 字段，required 为其中 required=true 的字段，
+     * 嵌套的模型类型递归比较
+     */
+    private static void assertObjectMatches(Class<?> model, JsonNode schema, String pointer) {
+        Assert.assertEquals(schema.path("type").asText(), "object", pointer);
+
+        Set<String> properties = new TreeSet<>();
+        Set<String> required = new TreeSet<>();
+        for (Field field : model.getDeclaredFields()) {
+            JsonProperty property = field.getAnnotation(JsonProperty.class);
+            if (property == null || Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            String name = property.value().isEmpty() ? field.getName() : property.value();
+            properties.add(name);
+            if (property.required()) {
+                required.add(name);
+            }
+            if (isModel(field.getType())) {
+                assertObjectMatches(field.getType(), schema.path("properties").path(name), pointer + name + "/");
+            }
+        }
+
+        Assert.assertEquals(names(schema.path("properties").fieldNames()), properties, pointer + " 的 properties");
+        Set<String> schemaRequired = new TreeSet<>();
+        schema.path("required").forEach(node -> schemaRequired.add(node.asText()));
+        Assert.assertEquals(schemaRequired, required, pointer + " 的 required");
+    }
+
+    private static boolean isModel(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(JsonProperty.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> names(Iterator<String> iterator) {
+        Set<String> names = new TreeSet<>();
+        iterator.forEachRemaining(names::add);
+        return names;
+    }
+
+    private static JsonNode loadSchema(String name) {
+        String path = "/schemas/" + name + ".json";
+        try (InputStream in = GeneratedSchemaTest.class.getResourceAsStream(path)) {
+            Assert.assertNotNull(in, "classpath中没有生成的schema: " + path);
+            return JsonUtils.getJsonNode(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
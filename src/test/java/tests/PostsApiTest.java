@@ -1,16 +1,27 @@
 package tests;
 
+import config.CassetteMode;
+import config.ConfigManager;
 import helpers.ApiHelper;
+import helpers.LatencySlo;
 import helpers.TestDataHelper;
+import io.restassured.builder.ResponseBuilder;
 import io.restassured.response.Response;
 import models.Post;
+import org.testng.Assert;
 import org.testng.annotations.Test;
+import stub.StubServer;
+import tracing.Span;
+import tracing.Tracer;
 import utils.LogUtils;
+import utils.RequestTimings;
+import utils.RequestTimings.Phase;
 import validations.DataValidator;
+import validations.JsonSchemas;
 import validations.ResponseValidator;
+import validations.ValidationReport;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,8 +40,9 @@ public class PostsApiTest {
             // 验证响应
             DataValidator.validateAndExtractPostList(response, 1);
             
-            // 验证列表不为空且包含预期数量的posts
+            // 验证列表不为空且每个post结构符合schema
             ResponseValidator.validateJsonArrayNotEmpty(response, "$");
+            ResponseValidator.validateSchema(response, JsonSchemas.POST_LIST);
             
             LogUtils.logTestEnd("testGetAllPosts", "通过");
         } catch (Exception e) {
@@ -77,14 +89,11 @@ public class PostsApiTest {
             Response response = ApiHelper.get("/posts", queryParams);
             
             // 验证响应
-            ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             ResponseValidator.validateJsonArrayNotEmpty(response, "$");
             
             // 验证所有返回的posts都属于指定用户
-            List<Integer> userIds = response.jsonPath().getList("userId");
-            for (Integer id : userIds) {
-                ResponseValidator.validateJsonField(response, "find { it.userId == " + id + " }.userId", userId);
-            }
+            DataValidator.validateForeignKeys(DataValidator.extractIds(response, "userId"), new int[]{userId}, "Post.userId");
             
             LogUtils.logTestEnd("testGetPostsByUserId", "通过");
         } catch (Exception e) {
@@ -105,16 +114,16 @@ public class PostsApiTest {
             // 发送POST请求创建新post
             Response response = ApiHelper.post("/posts", newPost);
             
-            // 验证响应
-            ResponseValidator.validateStatusCode(response, 201);
-            ResponseValidator.validateContentType(response, "application/json");
-            ResponseValidator.validateResponseBodyNotEmpty(response);
-            
-            // 验证创建的post数据
-            ResponseValidator.validateJsonFieldExists(response, "id");
-            ResponseValidator.validateJsonField(response, "userId", newPost.getUserId());
-            ResponseValidator.validateJsonField(response, "title", newPost.getTitle());
-            ResponseValidator.validateJsonField(response, "body", newPost.getBody());
+            // 验证响应及创建的post数据（汇总所有失败项后统一断言）
+            ResponseValidator.checks(response)
+                    .statusCode(201)
+                    .contentType("application/json")
+                    .bodyNotEmpty()
+                    .fieldExists("id")
+                    .field("userId", newPost.getUserId())
+                    .field("title", newPost.getTitle())
+                    .field("body", newPost.getBody())
+                    .verify();
             
             LogUtils.logTestEnd("testCreatePost", "通过");
         } catch (Exception e) {
@@ -124,6 +133,26 @@ public class PostsApiTest {
         }
     }
     
+    @Test(description = "响应体不是JSON时检查项记为失败而不是抛出解析异常")
+    public void testChecksReportNonJsonBody() {
+        Response response = new ResponseBuilder()
+                .setStatusCode(502)
+                .setContentType("text/html")
+                .setBody("<html>Bad Gateway</html>")
+                .build();
+
+        ValidationReport report = ResponseValidator.checks(response)
+                .statusCode(502)
+                .fieldExists("id")
+                .fieldNotExists("error")
+                .schema(JsonSchemas.POST)
+                .evaluate();
+
+        Assert.assertEquals(report.getCheckedCount(), 4);
+        Assert.assertEquals(report.getFailedElementCount(), 3, "依赖响应体的3个检查项都应失败: " + report.summary());
+        Assert.assertTrue(report.summary().contains("响应体应为有效的JSON"), report.summary());
+    }
+    
     @Test(description = "更新Post")
     public void testUpdatePost() {
         LogUtils.logTestStart("testUpdatePost", "更新Post");
@@ -137,15 +166,15 @@ public class PostsApiTest {
             // 发送PUT请求更新post
             Response response = ApiHelper.put("/posts/" + postId, updatePost);
             
-            // 验证响应
-            ResponseValidator.validateStatusCode(response, 200);
-            ResponseValidator.validateContentType(response, "application/json");
-            
-            // 验证更新的post数据
-            ResponseValidator.validateJsonField(response, "id", postId);
-            ResponseValidator.validateJsonField(response, "userId", updatePost.getUserId());
-            ResponseValidator.validateJsonField(response, "title", updatePost.getTitle());
-            ResponseValidator.validateJsonField(response, "body", updatePost.getBody());
+            // 验证响应及更新的post数据
+            ResponseValidator.checks(response)
+                    .statusCode(200)
+                    .contentType("application/json")
+                    .field("id", postId)
+                    .field("userId", updatePost.getUserId())
+                    .field("title", updatePost.getTitle())
+                    .field("body", updatePost.getBody())
+                    .verify();
             
             LogUtils.logTestEnd("testUpdatePost", "通过");
         } catch (Exception e) {
@@ -164,7 +193,7 @@ public class PostsApiTest {
             
             // 创建部分更新数据
             Map<String, Object> patchData = new HashMap<>();
-            patchData.put("title", "Updated Title " + System.currentTimeMillis());
+            patchData.put("title", "Updated Title " + TestDataHelper.nextToken());
             
             // 发送PATCH请求部分更新post
             Response response = ApiHelper.patch("/posts/" + postId, patchData);
@@ -250,17 +279,18 @@ public class PostsApiTest {
         }
     }
     
-    @Test(description = "验证Posts API响应时间")
+    @Test(description = "验证Posts API响应时间SLO")
     public void testPostsApiResponseTime() {
-        LogUtils.logTestStart("testPostsApiResponseTime", "验证Posts API响应时间");
+        LogUtils.logTestStart("testPostsApiResponseTime", "验证Posts API响应时间SLO");
         
         try {
-            // 发送GET请求
-            Response response = ApiHelper.get("/posts");
-            
-            // 验证响应时间（设置为3秒以内）
-            ResponseValidator.validateResponseTime(response, 3000);
-            ResponseValidator.validateStatusCode(response, 200);
+            // 预热后采样，按分位和错误率断言，而不是单次请求的耗时
+            LatencySlo.get("/posts")
+                    .p50(1000)
+                    .p95(3000)
+                    .p99(ResponseValidator.MAX_RESPONSE_TIME_MS)
+                    .maxErrorRate(0.05)
+                    .verify();
             
             LogUtils.logTestEnd("testPostsApiResponseTime", "通过");
         } catch (Exception e) {
@@ -269,4 +299,90 @@ public class PostsApiTest {
             throw e;
         }
     }
-}
\ No newline at end of file
+    
+    @Test(description = "请求分阶段耗时")
+    public void testPostRequestTimings() {
+        LogUtils.logTestStart("testPostRequestTimings", "请求分阶段耗时");
+        
+        try {
+            Response response = ApiHelper.get("/posts/1");
+            DataValidator.validateAndExtractPost(response);
+            
+            RequestTimings timings = RequestTimings.of(response);
+            Assert.assertNotNull(timings, "ApiHelper返回的响应应附带分阶段耗时");
+            LogUtils.logInfo("GET /posts/1 分阶段耗时: " + timings);
+            Assert.assertTrue(timings.has(Phase.DESERIALIZE) && timings.has(Phase.VALIDATE),
+                    "调用之后的反序列化和验证应计入同一记录");
+            if (ConfigManager.getInstance().getCassetteMode() != CassetteMode.REPLAY) {
+                Assert.assertTrue(timings.has(Phase.TTFB) && timings.has(Phase.DOWNLOAD),
+                        "经过传输层的请求应记录首字节和下载阶段: " + timings);
+            }
+            long phases = 0;
+            for (Phase phase : new Phase[]{Phase.SERIALIZE, Phase.POOL_WAIT, Phase.DNS, Phase.CONNECT, Phase.TLS,
+                    Phase.REQUEST_WRITE, Phase.TTFB, Phase.DOWNLOAD, Phase.BACKOFF}) {
+                phases += Math.max(0, timings.getNanos(phase));
+            }
+            Assert.assertTrue(phases <= timings.getTotalNanos(), "各阶段之和不应超过调用总耗时: " + timings);
+            
+            Response created = ApiHelper.post("/posts", TestDataHelper.createTestPost());
+            ResponseValidator.validateStatusCode(created, 201);
+            Assert.assertTrue(RequestTimings.of(created).has(Phase.SERIALIZE), "带请求体的调用应记录序列化阶段");
+            
+            LogUtils.logTestEnd("testPostRequestTimings", "通过");
+        } catch (Exception e) {
+            LogUtils.logError("测试失败", e);
+            LogUtils.logTestEnd("testPostRequestTimings", "失败");
+            throw e;
+        }
+    }
+    
+    @Test(description = "跟踪上下文传递")
+    public void testPostTraceContext() {
+        LogUtils.logTestStart("testPostTraceContext", "跟踪上下文传递");
+        
+        try {
+            Span testSpan = Tracer.current();
+            if (Tracer.isEnabled()) {
+                Assert.assertNotNull(testSpan, "测试方法应在 TracingListener 创建的测试跨度中执行");
+            }
+            
+            Response response = ApiHelper.get("/posts/1");
+            ResponseValidator.validateStatusCode(response, 200);
+            Assert.assertSame(Tracer.current(), testSpan, "调用结束后当前跨度应恢复为测试跨度");
+            
+            Span callSpan = ApiHelper.spanOf(response);
+            if (testSpan != null) {
+                Assert.assertNotNull(callSpan, "ApiHelper返回的响应应附带调用跨度");
+                Assert.assertEquals(callSpan.getTraceId(), testSpan.getTraceId(), "调用跨度应属于测试跨度所在的 trace");
+                Assert.assertEquals(callSpan.getParentSpanId(), testSpan.getSpanId(), "调用跨度应是测试跨度的子跨度");
+            }
+            
+            // 回放的响应头来自录制时的调用，其中的ID属于录制时的 trace，无法与本次的跨度比较
+            if (testSpan == null || !ConfigManager.getInstance().getBooleanProperty("stub.enabled")
+                    || ConfigManager.getInstance().getCassetteMode() == CassetteMode.REPLAY) {
+                LogUtils.logTestEnd("testPostTraceContext", "跳过后端跟踪头检查");
+                return;
+            }
+            String received = response.getHeader(StubServer.RECEIVED_TRACEPARENT_HEADER);
+            String traceresponse = response.getHeader("traceresponse");
+            Assert.assertNotNull(received, "桩服务器应收到 traceparent");
+            Assert.assertNotNull(traceresponse, "桩服务器应返回 traceresponse");
+            LogUtils.logInfo("traceparent: " + received + "，traceresponse: " + traceresponse + "，调用跨度: " + callSpan);
+            
+            String[] parent = received.split("-");
+            Assert.assertEquals(parent[1], callSpan.getTraceId(), "后端应收到调用跨度所在的 trace id");
+            Assert.assertEquals(parent[2], callSpan.getSpanId(), "后端收到的父跨度应是 ApiHelper 的调用跨度");
+            Assert.assertEquals(parent[3], callSpan.isSampled() ? "01" : "00", "采样标志应传递给后端");
+            
+            String[] server = traceresponse.split("-");
+            Assert.assertEquals(server[1], callSpan.getTraceId(), "后端跨度应与调用跨度属于同一 trace");
+            Assert.assertNotEquals(server[2], callSpan.getSpanId(), "后端的跨度ID应不同于调用跨度");
+            
+            LogUtils.logTestEnd("testPostTraceContext", "通过");
+        } catch (Exception e) {
+            LogUtils.logError("测试失败", e);
+            LogUtils.logTestEnd("testPostTraceContext", "失败");
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import stub.StubDataSet;
+import stub.StubServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 桩服务器测试：无效的分页参数和未知的过滤字段返回400，而不是500或被忽略；
+ * 响应体保存在 RecordStore 中时返回的数据与保存在堆内时相同
+ * <p>
+ * 使用独立启动的桩服务器和 JDK HttpClient，不经过全局的 RestAssured 过滤器（录制/回放、故障注入），
+ * 与 stub.enabled 无关
+ */
+public class StubServerTest extends BaseTest {
+    private StubServer server;
+    private HttpClient client;
+
+    @BeforeClass
+    public void startServer() {
+        server = new StubServer(StubDataSet.generate(2, 2, 2), 0, 0, 0.0, 503).start(0, 2);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @DataProvider(name = "badQueries")
+    public Object[][] badQueries() {
+        return new Object[][]{
+                {"/posts?_limit=abc", "_limit"},
+                {"/posts?_limit=-1", "_limit"},
+                {"/posts?_page=0", "_page"},
+                {"/posts?_page=x&_limit=2", "_page"},
+                {"/posts?_page=99999999999", "_page"},
+                {"/posts?title=foo", "title"},
+                {"/posts/1/comments?color=red", "color"}
+        };
+    }
+
+    @Test(dataProvider = "badQueries", description = "无效的查询参数返回400")
+    public void testInvalidQueryReturns400(String pathAndQuery, String parameter) throws Exception {
+        HttpResponse<String> response = get(pathAndQuery);
+
+        Assert.assertEquals(response.statusCode(), 400, pathAndQuery + " -> " + response.body());
+        Assert.assertTrue(response.body().contains(parameter), "错误信息应指出参数 " + parameter + ": " + response.body());
+    }
+
+    @Test(description = "很大的页码不会溢出，返回空页")
+    public void testLargePageReturnsEmptyPage() throws Exception {
+        HttpResponse<String> response = get("/posts?_page=2147483647&_limit=2147483647");
+
+        Assert.assertEquals(response.statusCode(), 200, response.body());
+        Assert.assertEquals(response.body(), "[]");
+        Assert.assertEquals(response.headers().firstValue("X-Total-Count").orElse(null), "4");
+    }
+
+    @Test(description = "已声明的过滤字段和分页参数正常工作")
+    public void testValidQuery() throws Exception {
+        HttpResponse<String> response = get("/posts?userId=1&_page=1&_limit=1");
+
+        Assert.assertEquals(response.statusCode(), 200, response.body());
+        Assert.assertEquals(response.headers().firstValue("X-Total-Count").orElse(null), "2");
+        Assert.assertTrue(response.body().startsWith("[{") && response.body().indexOf("\"id\"") == response.body().lastIndexOf("\"id\""),
+                "应只返回一条: " + response.body());
+    }
+
+    @Test(description = "响应体保存在RecordStore中时与保存在堆内时相同")
+    public void testRecordStoreBackedServerMatchesHeap() throws Exception {
+        Path storeDir = Files.createTempDirectory("stub-store");
+        StubServer stored = new StubServer(StubDataSet.generate(2, 2, 2, storeDir), 0, 0, 0.0, 503).start(0, 2);
+        try {
+            Assert.assertTrue(Files.exists(storeDir.resolve("comments.db.idx")), "应为每个资源创建存储");
+            for (String pathAndQuery : new String[]{"/posts", "/posts/3", "/users/1", "/posts/2/comments",
+                    "/comments?postId=1&_page=2&_limit=1", "/comments?email=none"}) {
+                HttpResponse<String> expected = get(pathAndQuery);
+                HttpResponse<String> actual = get(stored, pathAndQuery);
+                Assert.assertEquals(actual.statusCode(), expected.statusCode(), pathAndQuery);
+                Assert.assertEquals(actual.body(), expected.body(), pathAndQuery);
+            }
+            Assert.assertTrue(get(stored, "/posts/3").body().contains("\"id\":3"));
+            Assert.assertEquals(get(stored, "/posts/99").statusCode(), 404);
+        } finally {
+            stored.stop();
+        }
+    }
+
+    private HttpResponse<String> get(String pathAndQuery) throws IOException, InterruptedException {
+        return get(server, pathAndQuery);
+    }
+
+    private HttpResponse<String> get(StubServer target, String pathAndQuery) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(target.getBaseUrl() + pathAndQuery)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
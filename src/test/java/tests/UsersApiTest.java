@@ -1,13 +1,16 @@
 package tests;
 
 import helpers.ApiHelper;
+import helpers.LatencySlo;
 import helpers.TestDataHelper;
 import io.restassured.response.Response;
 import models.User;
 import org.testng.annotations.Test;
 import utils.LogUtils;
 import validations.DataValidator;
+import validations.JsonSchemas;
 import validations.ResponseValidator;
+import validations.ValidationReport;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +26,7 @@ public class UsersApiTest extends BaseTest {
         Response response = ApiHelper.get("/users");
         
         validateSuccessResponse(response);
+        ResponseValidator.validateSchema(response, JsonSchemas.USER_LIST);
         DataValidator.validateAndExtractUserList(response, 1);
     }
     
@@ -31,6 +35,7 @@ public class UsersApiTest extends BaseTest {
         Response response = ApiHelper.get("/users/1");
         
         validateSuccessResponse(response);
+        ResponseValidator.validateSchema(response, JsonSchemas.USER);
         DataValidator.validateAndExtractUser(response);
     }
     
@@ -102,8 +107,8 @@ public class UsersApiTest extends BaseTest {
             
             // 创建部分更新数据
             Map<String, Object> patchData = new HashMap<>();
-            patchData.put("name", "Updated Name " + System.currentTimeMillis());
-            patchData.put("email", "updated" + System.currentTimeMillis() + "@example.com");
+            patchData.put("name", "Updated Name " + TestDataHelper.nextToken());
+            patchData.put("email", "updated" + TestDataHelper.nextToken() + "@example.com");
             
             // 发送PATCH请求部分更新user
             Response response = ApiHelper.patch("/users/" + userId, patchData);
@@ -190,17 +195,18 @@ public class UsersApiTest extends BaseTest {
         }
     }
     
-    @Test(description = "验证Users API响应时间")
+    @Test(description = "验证Users API响应时间SLO")
     public void testUsersApiResponseTime() {
-        LogUtils.logTestStart("testUsersApiResponseTime", "验证Users API响应时间");
+        LogUtils.logTestStart("testUsersApiResponseTime", "验证Users API响应时间SLO");
         
         try {
-            // 发送GET请求
-            Response response = ApiHelper.get("/users");
-            
-            // 验证响应时间（设置为3秒以内）
-            ResponseValidator.validateResponseTime(response, 3000);
-            ResponseValidator.validateStatusCode(response, 200);
+            // 预热后采样，按分位和错误率断言，而不是单次请求的耗时
+            LatencySlo.get("/users")
+                    .p50(1000)
+                    .p95(3000)
+                    .p99(ResponseValidator.MAX_RESPONSE_TIME_MS)
+                    .maxErrorRate(0.05)
+                    .verify();
             
             LogUtils.logTestEnd("testUsersApiResponseTime", "通过");
         } catch (Exception e) {
@@ -219,16 +225,14 @@ public class UsersApiTest extends BaseTest {
             Response response = ApiHelper.get("/users");
             
             // 验证响应
-            ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+            ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
             
             // 验证每个用户的邮箱格式
             List<String> emails = response.jsonPath().getList("email");
-            for (String email : emails) {
-                boolean isValidEmail = DataValidator.isValidEmail(email);
-                LogUtils.logValidation("邮箱格式", "有效格式", email, isValidEmail);
-                if (!isValidEmail) {
-                    LogUtils.logWarning("发现无效邮箱格式: " + email);
-                }
+            ValidationReport report = DataValidator.checkEmails(emails);
+            LogUtils.logValidation("邮箱格式", "有效格式", report.getValidCount() + "/" + report.getCheckedCount(), !report.hasFailures());
+            if (report.hasFailures()) {
+                LogUtils.logWarning("发现无效邮箱格式: " + report.summary());
             }
             
             LogUtils.logTestEnd("testUserEmailFormat", "通过");
@@ -2,23 +2,33 @@ package validations;
 
 import io.restassured.response.Response;
 import models.Comment;
+import models.CompactComment;
+import models.CompactPost;
+import models.CompactUser;
 import models.Post;
 import models.User;
 import org.testng.Assert;
+import profiling.ValidationEvent;
 import utils.JsonUtils;
 import utils.LogUtils;
+import utils.RequestTimings;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * 数据验证类，用于验证具体的业务数据模型
  */
 public class DataValidator {
-    
-    // 邮箱格式正则表达式
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+    /**
+     * 单个元素的检查逻辑，失败项写入报告而不是立即断言
+     */
+    private interface ElementCheck<T> {
+        void check(T item, int index, ValidationReport report);
+    }
     
     /**
      * 验证Post对象的基本属性
@@ -26,18 +36,7 @@ public class DataValidator {
      */
     public static void validatePost(Post post) {
         LogUtils.logStep(1, "验证Post对象基本属性");
-        
-        Assert.assertNotNull(post, "Post对象不应为null");
-        Assert.assertNotNull(post.getId(), "Post ID不应为null");
-        Assert.assertTrue(post.getId() > 0, "Post ID应大于0");
-        Assert.assertNotNull(post.getUserId(), "User ID不应为null");
-        Assert.assertTrue(post.getUserId() > 0, "User ID应大于0");
-        Assert.assertNotNull(post.getTitle(), "Post标题不应为null");
-        Assert.assertFalse(post.getTitle().trim().isEmpty(), "Post标题不应为空");
-        Assert.assertNotNull(post.getBody(), "Post内容不应为null");
-        Assert.assertFalse(post.getBody().trim().isEmpty(), "Post内容不应为空");
-        
-        LogUtils.logValidation("Post验证", "有效", "有效", true);
+        validateSingle(post, "Post验证", DataValidator::checkPost);
     }
     
     /**
@@ -46,18 +45,7 @@ public class DataValidator {
      */
     public static void validateUser(User user) {
         LogUtils.logStep(1, "验证User对象基本属性");
-        
-        Assert.assertNotNull(user, "User对象不应为null");
-        Assert.assertNotNull(user.getId(), "User ID不应为null");
-        Assert.assertTrue(user.getId() > 0, "User ID应大于0");
-        Assert.assertNotNull(user.getName(), "User名称不应为null");
-        Assert.assertFalse(user.getName().trim().isEmpty(), "User名称不应为空");
-        Assert.assertNotNull(user.getUsername(), "Username不应为null");
-        Assert.assertFalse(user.getUsername().trim().isEmpty(), "Username不应为空");
-        Assert.assertNotNull(user.getEmail(), "User邮箱不应为null");
-        Assert.assertTrue(isValidEmail(user.getEmail()), "User邮箱格式应正确");
-        
-        LogUtils.logValidation("User验证", "有效", "有效", true);
+        validateSingle(user, "User验证", DataValidator::checkUser);
     }
     
     /**
@@ -66,77 +54,156 @@ public class DataValidator {
      */
     public static void validateComment(Comment comment) {
         LogUtils.logStep(1, "验证Comment对象基本属性");
-        
-        Assert.assertNotNull(comment, "Comment对象不应为null");
-        Assert.assertNotNull(comment.getId(), "Comment ID不应为null");
-        Assert.assertTrue(comment.getId() > 0, "Comment ID应大于0");
-        Assert.assertNotNull(comment.getPostId(), "Post ID不应为null");
-        Assert.assertTrue(comment.getPostId() > 0, "Post ID应大于0");
-        Assert.assertNotNull(comment.getName(), "Comment名称不应为null");
-        Assert.assertFalse(comment.getName().trim().isEmpty(), "Comment名称不应为空");
-        Assert.assertNotNull(comment.getEmail(), "Comment邮箱不应为null");
-        Assert.assertTrue(isValidEmail(comment.getEmail()), "Comment邮箱格式应正确");
-        Assert.assertNotNull(comment.getBody(), "Comment内容不应为null");
-        Assert.assertFalse(comment.getBody().trim().isEmpty(), "Comment内容不应为空");
-        
-        LogUtils.logValidation("Comment验证", "有效", "有效", true);
+        validateSingle(comment, "Comment验证", DataValidator::checkComment);
     }
     
     /**
-     * 验证Post列表
+     * 验证Post列表（整个列表只产生一条汇总日志，失败时一次性报告所有失败项）
      * @param posts Post列表
      * @param expectedMinSize 期望的最小列表大小
      */
     public static void validatePostList(List<Post> posts, int expectedMinSize) {
         LogUtils.logStep(1, "验证Post列表");
-        
-        Assert.assertNotNull(posts, "Post列表不应为null");
-        Assert.assertTrue(posts.size() >= expectedMinSize, 
-                String.format("Post列表大小应至少为%d，实际为%d", expectedMinSize, posts.size()));
-        
-        for (Post post : posts) {
-            validatePost(post);
-        }
-        
-        LogUtils.logValidation("Post列表验证", "有效", "有效", true);
+        validateEach(posts, expectedMinSize, "Post列表验证", DataValidator::checkPost);
     }
     
     /**
-     * 验证User列表
+     * 验证User列表（整个列表只产生一条汇总日志，失败时一次性报告所有失败项）
      * @param users User列表
      * @param expectedMinSize 期望的最小列表大小
      */
     public static void validateUserList(List<User> users, int expectedMinSize) {
         LogUtils.logStep(1, "验证User列表");
-        
-        Assert.assertNotNull(users, "User列表不应为null");
-        Assert.assertTrue(users.size() >= expectedMinSize, 
-                String.format("User列表大小应至少为%d，实际为%d", expectedMinSize, users.size()));
-        
-        for (User user : users) {
-            validateUser(user);
-        }
-        
-        LogUtils.logValidation("User列表验证", "有效", "有效", true);
+        validateEach(users, expectedMinSize, "User列表验证", DataValidator::checkUser);
     }
     
     /**
-     * 验证Comment列表
+     * 验证Comment列表（整个列表只产生一条汇总日志，失败时一次性报告所有失败项）
      * @param comments Comment列表
      * @param expectedMinSize 期望的最小列表大小
      */
     public static void validateCommentList(List<Comment> comments, int expectedMinSize) {
         LogUtils.logStep(1, "验证Comment列表");
-        
-        Assert.assertNotNull(comments, "Comment列表不应为null");
-        Assert.assertTrue(comments.size() >= expectedMinSize, 
-                String.format("Comment列表大小应至少为%d，实际为%d", expectedMinSize, comments.size()));
-        
-        for (Comment comment : comments) {
-            validateComment(comment);
+        validateEach(comments, expectedMinSize, "Comment列表验证", DataValidator::checkComment);
+    }
+    
+    /**
+     * 检查Post对象，失败项写入报告
+     * @param post Post对象
+     * @param index 元素下标
+     * @param report 验证报告
+     */
+    public static void checkPost(Post post, int index, ValidationReport report) {
+        if (!report.check(post != null, index, "Post对象不应为null", null)) {
+            return;
         }
-        
-        LogUtils.logValidation("Comment列表验证", "有效", "有效", true);
+        report.check(isPositive(post.getId()), index, "Post ID应大于0", post.getId());
+        report.check(isPositive(post.getUserId()), index, "User ID应大于0", post.getUserId());
+        report.check(isNotBlank(post.getTitle()), index, "Post标题不应为空", post.getTitle());
+        report.check(isNotBlank(post.getBody()), index, "Post内容不应为空", post.getBody());
+    }
+    
+    /**
+     * 检查User对象，失败项写入报告
+     * @param user User对象
+     * @param index 元素下标
+     * @param report 验证报告
+     */
+    public static void checkUser(User user, int index, ValidationReport report) {
+        if (!report.check(user != null, index, "User对象不应为null", null)) {
+            return;
+        }
+        report.check(isPositive(user.getId()), index, "User ID应大于0", user.getId());
+        report.check(isNotBlank(user.getName()), index, "User名称不应为空", user.getName());
+        report.check(isNotBlank(user.getUsername()), index, "Username不应为空", user.getUsername());
+        report.check(isValidEmail(user.getEmail()), index, "User邮箱格式应正确", user.getEmail());
+    }
+    
+    /**
+     * 检查Comment对象，失败项写入报告
+     * @param comment Comment对象
+     * @param index 元素下标
+     * @param report 验证报告
+     */
+    public static void checkComment(Comment comment, int index, ValidationReport report) {
+        if (!report.check(comment != null, index, "Comment对象不应为null", null)) {
+            return;
+        }
+        report.check(isPositive(comment.getId()), index, "Comment ID应大于0", comment.getId());
+        report.check(isPositive(comment.getPostId()), index, "Post ID应大于0", comment.getPostId());
+        report.check(isNotBlank(comment.getName()), index, "Comment名称不应为空", comment.getName());
+        report.check(isValidEmail(comment.getEmail()), index, "Comment邮箱格式应正确", comment.getEmail());
+        report.check(isNotBlank(comment.getBody()), index, "Comment内容不应为空", comment.getBody());
+    }
+    
+    /**
+     * 检查紧凑Post对象，失败项写入报告
+     */
+    public static void checkCompactPost(CompactPost post, int index, ValidationReport report) {
+        if (!report.check(post != null, index, "Post对象不应为null", null)) {
+            return;
+        }
+        report.check(post.getId() > 0, index, "Post ID应大于0", post.getId());
+        report.check(post.getUserId() > 0, index, "User ID应大于0", post.getUserId());
+        report.check(isNotBlank(post.getTitle()), index, "Post标题不应为空", post.getTitle());
+        report.check(isNotBlank(post.getBody()), index, "Post内容不应为空", post.getBody());
+    }
+    
+    /**
+     * 检查紧凑User对象，失败项写入报告
+     */
+    public static void checkCompactUser(CompactUser user, int index, ValidationReport report) {
+        if (!report.check(user != null, index, "User对象不应为null", null)) {
+            return;
+        }
+        report.check(user.getId() > 0, index, "User ID应大于0", user.getId());
+        report.check(isNotBlank(user.getName()), index, "User名称不应为空", user.getName());
+        report.check(isNotBlank(user.getUsername()), index, "Username不应为空", user.getUsername());
+        report.check(isValidEmail(user.getEmail()), index, "User邮箱格式应正确", user.getEmail());
+    }
+    
+    /**
+     * 检查紧凑Comment对象，失败项写入报告
+     */
+    public static void checkCompactComment(CompactComment comment, int index, ValidationReport report) {
+        if (!report.check(comment != null, index, "Comment对象不应为null", null)) {
+            return;
+        }
+        report.check(comment.getId() > 0, index, "Comment ID应大于0", comment.getId());
+        report.check(comment.getPostId() > 0, index, "Post ID应大于0", comment.getPostId());
+        report.check(isNotBlank(comment.getName()), index, "Comment名称不应为空", comment.getName());
+        report.check(isValidEmail(comment.getEmail()), index, "Comment邮箱格式应正确", comment.getEmail());
+        report.check(isNotBlank(comment.getBody()), index, "Comment内容不应为空", comment.getBody());
+    }
+    
+    /**
+     * 批量检查邮箱格式，返回紧凑的失败报告（不断言、不逐条记录日志）
+     * @param emails 邮箱列表
+     * @return 验证报告
+     */
+    public static ValidationReport checkEmails(List<String> emails) {
+        return checkFormat(emails, "邮箱格式", "邮箱格式应正确", FieldMatchers::isEmail);
+    }
+    
+    /**
+     * 批量检查字段格式，返回紧凑的失败报告（不断言、不逐条记录日志）
+     * @param values 字段值列表
+     * @param subject 验证对象名称
+     * @param rule 规则描述
+     * @param matcher 格式匹配器，如 FieldMatchers::isEmail
+     * @return 验证报告
+     */
+    public static ValidationReport checkFormat(List<String> values, String subject, String rule,
+                                               Predicate<CharSequence> matcher) {
+        ValidationEvent event = beginValidation();
+        ValidationReport report = new ValidationReport(subject);
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            report.check(matcher.test(value), i, rule, value);
+        }
+        report.addChecked(values.size());
+        commitValidation(event, subject, values.size());
+        return report;
     }
     
     /**
@@ -145,13 +212,8 @@ public class DataValidator {
      * @return Post对象
      */
     public static Post validateAndExtractPost(Response response) {
-        ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
-        
-        String responseBody = response.getBody().asString();
-        Post post = JsonUtils.fromJson(responseBody, Post.class);
-        validatePost(post);
-        
-        return post;
+        return extract(response, body -> JsonUtils.fromJson(body, Post.class),
+                "Post验证", DataValidator::validatePost);
     }
     
     /**
@@ -160,13 +222,8 @@ public class DataValidator {
      * @return User对象
      */
     public static User validateAndExtractUser(Response response) {
-        ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
-        
-        String responseBody = response.getBody().asString();
-        User user = JsonUtils.fromJson(responseBody, User.class);
-        validateUser(user);
-        
-        return user;
+        return extract(response, body -> JsonUtils.fromJson(body, User.class),
+                "User验证", DataValidator::validateUser);
     }
     
     /**
@@ -175,13 +232,8 @@ public class DataValidator {
      * @return Comment对象
      */
     public static Comment validateAndExtractComment(Response response) {
-        ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
-        
-        String responseBody = response.getBody().asString();
-        Comment comment = JsonUtils.fromJson(responseBody, Comment.class);
-        validateComment(comment);
-        
-        return comment;
+        return extract(response, body -> JsonUtils.fromJson(body, Comment.class),
+                "Comment验证", DataValidator::validateComment);
     }
     
     /**
@@ -191,29 +243,19 @@ public class DataValidator {
      * @return Post列表
      */
     public static List<Post> validateAndExtractPostList(Response response, int expectedMinSize) {
-        ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
-        
-        String responseBody = response.getBody().asString();
-        List<Post> posts = JsonUtils.fromJsonToList(responseBody, Post.class);
-        validatePostList(posts, expectedMinSize);
-        
-        return posts;
+        return extract(response, body -> JsonUtils.fromJsonToList(body, Post.class),
+                "Post列表验证", posts -> validatePostList(posts, expectedMinSize));
     }
     
     /**
-     * 从响应中验证User列表
+     * 从响应中验证User列表（大列表只需验证时用 {@link #validateAndExtractCompactUserList}）
      * @param response 响应对象
      * @param expectedMinSize 期望的最小列表大小
      * @return User列表
      */
     public static List<User> validateAndExtractUserList(Response response, int expectedMinSize) {
-        ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
-        
-        String responseBody = response.getBody().asString();
-        List<User> users = JsonUtils.fromJsonToList(responseBody, User.class);
-        validateUserList(users, expectedMinSize);
-        
-        return users;
+        return extract(response, body -> JsonUtils.fromJsonToList(body, User.class),
+                "User列表验证", users -> validateUserList(users, expectedMinSize));
     }
     
     /**
@@ -223,13 +265,120 @@ public class DataValidator {
      * @return Comment列表
      */
     public static List<Comment> validateAndExtractCommentList(Response response, int expectedMinSize) {
-        ResponseValidator.validateBasicResponse(response, 200, 5000, "application/json");
+        return extract(response, body -> JsonUtils.fromJsonToList(body, Comment.class),
+                "Comment列表验证", comments -> validateCommentList(comments, expectedMinSize));
+    }
+    
+    /**
+     * 从响应中验证紧凑Post列表（直接从响应字节绑定，内存占用远小于Post列表）
+     * @param response 响应对象
+     * @param expectedMinSize 期望的最小列表大小
+     * @return CompactPost列表
+     */
+    public static List<CompactPost> validateAndExtractCompactPostList(Response response, int expectedMinSize) {
+        return extractCompactList(response, CompactPost.class, expectedMinSize, "CompactPost列表验证",
+                DataValidator::checkCompactPost);
+    }
+    
+    /**
+     * 从响应中验证紧凑User列表（直接从响应字节绑定，内存占用远小于User列表）
+     * @param response 响应对象
+     * @param expectedMinSize 期望的最小列表大小
+     * @return CompactUser列表
+     */
+    public static List<CompactUser> validateAndExtractCompactUserList(Response response, int expectedMinSize) {
+        return extractCompactList(response, CompactUser.class, expectedMinSize, "CompactUser列表验证",
+                DataValidator::checkCompactUser);
+    }
+    
+    /**
+     * 从响应中验证紧凑Comment列表（直接从响应字节绑定，内存占用远小于Comment列表）
+     * @param response 响应对象
+     * @param expectedMinSize 期望的最小列表大小
+     * @return CompactComment列表
+     */
+    public static List<CompactComment> validateAndExtractCompactCommentList(Response response, int expectedMinSize) {
+        return extractCompactList(response, CompactComment.class, expectedMinSize, "CompactComment列表验证",
+                DataValidator::checkCompactComment);
+    }
+    
+    /**
+     * 校验基本响应并从响应字节绑定紧凑模型列表
+     */
+    private static <T> List<T> extractCompactList(Response response, Class<T> clazz, int expectedMinSize,
+                                                  String subject, ElementCheck<T> check) {
+        return extract(response, body -> JsonUtils.fromJsonToList(body, clazz), subject,
+                items -> validateEach(items, expectedMinSize, subject, check));
+    }
+    
+    /**
+     * 校验基本响应后解析并验证响应体：解析和验证分别计入响应的分阶段耗时，
+     * 解析由 JsonUtils 产生 apitest.JsonParse 事件，验证产生 apitest.Validation 事件
+     */
+    private static <T> T extract(Response response, Function<byte[], T> parser, String validator, Consumer<T> validation) {
+        ResponseValidator.validateBasicResponse(response, 200, ResponseValidator.MAX_RESPONSE_TIME_MS, "application/json");
         
-        String responseBody = response.getBody().asString();
-        List<Comment> comments = JsonUtils.fromJsonToList(responseBody, Comment.class);
-        validateCommentList(comments, expectedMinSize);
+        long start = System.nanoTime();
+        T value = parser.apply(response.asByteArray());
+        start = RequestTimings.record(response, RequestTimings.Phase.DESERIALIZE, start);
         
-        return comments;
+        ValidationEvent event = beginValidation();
+        validation.accept(value);
+        RequestTimings.record(response, RequestTimings.Phase.VALIDATE, start);
+        commitValidation(event, validator, value instanceof List ? ((List<?>) value).size() : 1);
+        return value;
+    }
+    
+    private static ValidationEvent beginValidation() {
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * 提交验证的JFR事件；没有在录制该事件时只有一次判断
+     */
+    private static void commitValidation(ValidationEvent event, String validator, int elements) {
+        if (event.shouldCommit()) {
+            event.validator = validator;
+            event.elements = elements;
+            event.commit();
+        }
+    }
+    
+    /**
+     * 对单个对象执行检查，失败时断言
+     */
+    private static <T> void validateSingle(T item, String subject, ElementCheck<T> check) {
+        ValidationReport report = new ValidationReport(subject);
+        check.check(item, 0, report);
+        report.addChecked(1);
+        report.assertNoFailures();
+    }
+    
+    /**
+     * 校验列表大小后对每个元素执行检查，所有失败项汇总后一次性断言
+     */
+    private static <T> void validateEach(List<T> items, int expectedMinSize, String subject, ElementCheck<T> check) {
+        Assert.assertNotNull(items, subject + ": 列表不应为null");
+        if (items.size() < expectedMinSize) {
+            Assert.fail(String.format("%s: 列表大小应至少为%d，实际为%d", subject, expectedMinSize, items.size()));
+        }
+        
+        ValidationReport report = new ValidationReport(subject);
+        for (int i = 0; i < items.size(); i++) {
+            check.check(items.get(i), i, report);
+        }
+        report.addChecked(items.size());
+        report.assertNoFailures();
+    }
+    
+    private static boolean isPositive(Integer value) {
+        return value != null && value > 0;
+    }
+    
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.trim().isEmpty();
     }
     
     /**
@@ -251,7 +400,7 @@ public class DataValidator {
      * @return 是否为有效邮箱格式
      */
     public static boolean isValidEmail(String email) {
-        return email != null && EMAIL_PATTERN.matcher(email).matches();
+        return FieldMatchers.isEmail(email);
     }
     
     /**
@@ -264,6 +413,103 @@ public class DataValidator {
         Assert.assertTrue(id > 0, fieldName + "应大于0");
     }
     
+    /**
+     * 以流式方式从响应中提取整数字段列（不绑定对象、不装箱）
+     * @param response 响应对象（顶层为对象数组）
+     * @param fieldName 字段名
+     * @return 字段值数组
+     * @throws AssertionError 有元素缺少该字段或不是整数
+     */
+    public static int[] extractIds(Response response, String fieldName) {
+        JsonUtils.IntColumns columns = JsonUtils.readIntColumns(response.asByteArray(), fieldName);
+        if (columns.missingCount(0) > 0) {
+            Assert.fail(String.format("%d个元素中有%d个缺少整数字段 %s", columns.size(), columns.missingCount(0), fieldName));
+        }
+        return columns.get(0);
+    }
+    
+    /**
+     * 查找重复出现的ID（每个重复值只返回一次）
+     * @param ids ID数组
+     * @return 重复的ID
+     */
+    public static int[] findDuplicateIds(int[] ids) {
+        IntHashSet seen = new IntHashSet(ids.length);
+        IntHashSet reported = new IntHashSet(16);
+        int[] duplicates = new int[0];
+        int size = 0;
+        for (int id : ids) {
+            if (!seen.add(id) && reported.add(id)) {
+                if (size == duplicates.length) {
+                    duplicates = Arrays.copyOf(duplicates, Math.max(8, size * 2));
+                }
+                duplicates[size++] = id;
+            }
+        }
+        return Arrays.copyOf(duplicates, size);
+    }
+    
+    /**
+     * 验证ID唯一
+     * @param ids ID数组
+     * @param fieldName 字段名称
+     */
+    public static void validateUniqueIds(int[] ids, String fieldName) {
+        ValidationEvent event = beginValidation();
+        int[] duplicates = findDuplicateIds(ids);
+        commitValidation(event, fieldName + "唯一性", ids.length);
+        LogUtils.logValidation(duplicates.length == 0, () -> fieldName + "唯一性", () -> "无重复", () -> duplicates.length + "个重复");
+        if (duplicates.length > 0) {
+            Assert.fail(String.format("%s存在%d个重复值: %s", fieldName, duplicates.length, preview(duplicates)));
+        }
+    }
+    
+    /**
+     * 查找不在主键集合中的外键值
+     * @param foreignKeys 外键数组
+     * @param primaryKeys 主键数组
+     * @return 无效的外键值（保持出现顺序，可能重复）
+     */
+    public static int[] findMissingForeignKeys(int[] foreignKeys, int[] primaryKeys) {
+        IntHashSet keys = IntHashSet.of(primaryKeys);
+        int[] missing = new int[0];
+        int size = 0;
+        for (int foreignKey : foreignKeys) {
+            if (!keys.contains(foreignKey)) {
+                if (size == missing.length) {
+                    missing = Arrays.copyOf(missing, Math.max(8, size * 2));
+                }
+                missing[size++] = foreignKey;
+            }
+        }
+        return Arrays.copyOf(missing, size);
+    }
+    
+    /**
+     * 验证所有外键都指向存在的主键
+     * @param foreignKeys 外键数组
+     * @param primaryKeys 主键数组
+     * @param fieldName 外键字段名称
+     */
+    public static void validateForeignKeys(int[] foreignKeys, int[] primaryKeys, String fieldName) {
+        ValidationEvent event = beginValidation();
+        int[] missing = findMissingForeignKeys(foreignKeys, primaryKeys);
+        commitValidation(event, fieldName + "外键", foreignKeys.length);
+        LogUtils.logValidation(missing.length == 0, () -> fieldName + "外键", () -> "全部有效", () -> missing.length + "个无效");
+        if (missing.length > 0) {
+            Assert.fail(String.format("%s存在%d个无效外键: %s", fieldName, missing.length, preview(missing)));
+        }
+    }
+    
+    /**
+     * 截取数组前20个元素用于失败消息
+     */
+    private static String preview(int[] values) {
+        int limit = Math.min(values.length, 20);
+        String head = Arrays.toString(Arrays.copyOf(values, limit));
+        return values.length > limit ? head.substring(0, head.length() - 1) + ", ...]" : head;
+    }
+    
     /**
      * 验证字符串字段不为空
      * @param value 字符串值
@@ -0,0 +1,89 @@
+package validations;
+
+/**
+ * 手写的字段格式匹配器，逐字符扫描，不使用正则、不分配对象
+ */
+public final class FieldMatchers {
+
+    private FieldMatchers() {
+    }
+
+    /**
+     * 邮箱格式匹配，与原正则
+     * ^[a-zA-Z0-9_+&amp;*-]+(?:\.[a-zA-Z0-9_+&amp;*-]+)*@(?:[a-zA-Z0-9-]+\.)+[a-zA-Z]{2,7}$ 等价
+     * @param value 待检查值
+     * @return 是否为有效邮箱
+     */
+    public static boolean isEmail(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+
+        int length = value.length();
+        int i = 0;
+        boolean segmentEmpty = true;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '@') {
+                break;
+            }
+            if (c == '.') {
+                if (segmentEmpty) {
+                    return false;
+                }
+                segmentEmpty = true;
+            } else if (isLocalChar(c)) {
+                segmentEmpty = false;
+            } else {
+                return false;
+            }
+        }
+        if (i == length || segmentEmpty) {
+            return false;
+        }
+
+        return isDomain(value, i + 1, length);
+    }
+
+    /**
+     * 域名匹配：至少两段，由 . 分隔，每段为 [a-zA-Z0-9-]+，最后一段为2-7位字母
+     */
+    private static boolean isDomain(CharSequence value, int from, int to) {
+        int labels = 0;
+        int labelLength = 0;
+        boolean labelAlpha = true;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                labels++;
+                labelLength = 0;
+                labelAlpha = true;
+            } else if (isDomainChar(c)) {
+                labelLength++;
+                labelAlpha &= isLetter(c);
+            } else {
+                return false;
+            }
+        }
+        return labels >= 1 && labelAlpha && labelLength >= 2 && labelLength <= 7;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_' || c == '+' || c == '&' || c == '*' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
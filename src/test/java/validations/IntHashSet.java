@@ -0,0 +1,99 @@
+package validations;
+
+import java.util.Arrays;
+
+/**
+ * int的开放寻址哈希集合（线性探测），不产生装箱对象
+ * 用于ID唯一性、外键存在性等验证簿记
+ */
+public class IntHashSet {
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int size;
+    private int mask;
+    private boolean containsEmptyKey;
+
+    /**
+     * @param expectedSize 预期元素数量
+     */
+    public IntHashSet(int expectedSize) {
+        int capacity = IntIntHashMap.tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        this.keys = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * 由数组构建集合
+     * @param values 元素数组
+     * @return IntHashSet
+     */
+    public static IntHashSet of(int[] values) {
+        IntHashSet set = new IntHashSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * 添加元素
+     * @param value 元素
+     * @return 元素此前不存在时返回true
+     */
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            boolean added = !containsEmptyKey;
+            containsEmptyKey = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        int slot = findSlot(value);
+        if (keys[slot] == value) {
+            return false;
+        }
+
+        keys[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return containsEmptyKey;
+        }
+        return keys[findSlot(value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int findSlot(int value) {
+        int slot = IntIntHashMap.mix(value) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        keys = new int[newCapacity];
+        mask = newCapacity - 1;
+        Arrays.fill(keys, EMPTY);
+
+        for (int key : oldKeys) {
+            if (key != EMPTY) {
+                keys[findSlot(key)] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package validations;
+
+import java.util.Arrays;
+
+/**
+ * int到int的开放寻址哈希表（线性探测），键值均为基本类型，不产生装箱对象
+ * 用于ID到行号、ID到计数等验证簿记
+ */
+public class IntIntHashMap {
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private final int missingValue;
+
+    /**
+     * @param expectedSize 预期元素数量
+     * @param missingValue 键不存在时 get 返回的值
+     */
+    public IntIntHashMap(int expectedSize, int missingValue) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.missingValue = missingValue;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * 放入键值对，返回旧值（不存在时返回 missingValue）
+     * @param key 键（不能为 Integer.MIN_VALUE）
+     * @param value 值
+     * @return 旧值
+     */
+    public int put(int key, int value) {
+        checkKey(key);
+        int slot = findSlot(key);
+        if (keys[slot] == key) {
+            int old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return missingValue;
+    }
+
+    /**
+     * 将键对应的值加上增量（不存在时从0开始），返回新值
+     * @param key 键
+     * @param delta 增量
+     * @return 新值
+     */
+    public int addTo(int key, int delta) {
+        checkKey(key);
+        int slot = findSlot(key);
+        if (keys[slot] == key) {
+            return values[slot] += delta;
+        }
+
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * 获取键对应的值
+     * @param key 键
+     * @return 值，不存在时返回 missingValue
+     */
+    public int get(int key) {
+        if (key == EMPTY) {
+            return missingValue;
+        }
+        int slot = findSlot(key);
+        return keys[slot] == key ? values[slot] : missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        return key != EMPTY && keys[findSlot(key)] == key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 以键数组建立 键 -&gt; 下标 索引
+     * @param keys 键数组
+     * @return 索引表，不存在的键返回 -1；重复键保留第一次出现的下标
+     */
+    public static IntIntHashMap indexOf(int[] keys) {
+        IntIntHashMap index = new IntIntHashMap(keys.length, -1);
+        for (int i = 0; i < keys.length; i++) {
+            if (!index.containsKey(keys[i])) {
+                index.put(keys[i], i);
+            }
+        }
+        return index;
+    }
+
+    private int findSlot(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[newCapacity];
+        values = new int[newCapacity];
+        mask = newCapacity - 1;
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static void checkKey(int key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("不支持的键: " + key);
+        }
+    }
+
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return Math.max(n, 8);
+    }
+}
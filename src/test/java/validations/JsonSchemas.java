@@ -0,0 +1,76 @@
+package validations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JSON Schema缓存类，每个schema（classpath下 schemas/&lt;name&gt;.json）只加载编译一次，
+ * 编译后的JsonSchema不可变，可在并行测试之间共享
+ * 模型的schema由 codegen.SchemaProcessor 在编译期生成到 schemas/generated/ 下，下列常量指向这些生成的schema
+ */
+public final class JsonSchemas {
+    public static final String POST = "generated/post";
+    public static final String POST_LIST = "generated/post-list";
+    public static final String USER = "generated/user";
+    public static final String USER_LIST = "generated/user-list";
+    public static final String COMMENT = "generated/comment";
+    public static final String COMMENT_LIST = "generated/comment-list";
+
+    private static final String SCHEMA_LOCATION = "resource:/schemas/";
+    private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.byDefault();
+    private static final ConcurrentMap<String, JsonSchema> CACHE = new ConcurrentHashMap<>();
+
+    private JsonSchemas() {
+    }
+
+    /**
+     * 获取编译后的schema，首次访问时加载并缓存
+     * @param name schema名称（如 {@link #POST}、"generated/comment-list"）
+     * @return JsonSchema
+     */
+    public static JsonSchema get(String name) {
+        return CACHE.computeIfAbsent(name, JsonSchemas::load);
+    }
+
+    /**
+     * 使用指定schema验证已解析的JSON节点
+     * @param name schema名称
+     * @param json JSON节点
+     * @return 违反schema的消息列表，通过时为空
+     */
+    public static List<String> validate(String name, JsonNode json) {
+        ProcessingReport report;
+        try {
+            report = get(name).validate(json, true);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("Schema验证执行失败: " + name, e);
+        }
+        if (report.isSuccess()) {
+            return new ArrayList<>(0);
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (ProcessingMessage message : report) {
+            JsonNode pointer = message.asJson().path("instance").path("pointer");
+            violations.add((pointer.asText().isEmpty() ? "/" : pointer.asText()) + ": " + message.getMessage());
+        }
+        return violations;
+    }
+
+    private static JsonSchema load(String name) {
+        try {
+            return FACTORY.getJsonSchema(SCHEMA_LOCATION + name + ".json#");
+        } catch (ProcessingException e) {
+            throw new IllegalArgumentException("无法加载JSON Schema: " + name, e);
+        }
+    }
+}
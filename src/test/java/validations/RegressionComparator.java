@@ -0,0 +1,247 @@
+package validations;
+
+import config.ConfigManager;
+import helpers.PerformanceRun;
+import utils.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 性能回退比较：把本次运行各端点的耗时分布与最近几次运行合并成的基线比较
+ * <p>
+ * 判定为回退需要同时满足：
+ * <ul>
+ *     <li>统计显著：单侧 Mann-Whitney U 检验（本次更慢）的 p 值小于 baseline.alpha，两侧样本都不少于 baseline.min.samples</li>
+ *     <li>幅度显著：p50 超过基线各次运行中最大的 p50 至少 max(该值 × baseline.tolerance, baseline.min.delta.ms)，
+ *     或 p95 按 baseline.tail.tolerance 同样超出</li>
+ * </ul>
+ * 同一次运行的样本受同样的负载影响，彼此并不独立，检验的 p 值会高估显著性；
+ * 幅度以基线中最慢的一次运行为准，吸收运行之间的正常波动
+ */
+public class RegressionComparator {
+
+    /**
+     * 一个端点的比较结果
+     */
+    public static final class Comparison {
+        private final String endpoint;
+        private final MetricsRegistry.Snapshot baseline;
+        private final MetricsRegistry.Snapshot current;
+        private final double baselineThroughput;
+        private final double currentThroughput;
+        private final double pValue;
+        private final String regression;
+
+        private Comparison(String endpoint, PerformanceRun.Endpoint baseline, PerformanceRun.Endpoint current,
+                           double pValue, String regression) {
+            this.endpoint = endpoint;
+            this.baseline = baseline.toSnapshot();
+            this.current = current.toSnapshot();
+            this.baselineThroughput = baseline.getThroughput();
+            this.currentThroughput = current.getThroughput();
+            this.pValue = pValue;
+            this.regression = regression;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @return 单侧检验的 p 值，样本不足时为 NaN
+         */
+        public double getPValue() {
+            return pValue;
+        }
+
+        public boolean isRegressed() {
+            return regression != null;
+        }
+
+        /**
+         * @return 回退说明，未回退时为null
+         */
+        public String getRegression() {
+            return regression;
+        }
+
+        /**
+         * @return 报告用的摘要
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("baseline", distribution(baseline, baselineThroughput));
+            values.put("current", distribution(current, currentThroughput));
+            values.put("pValue", Double.isNaN(pValue) ? null : pValue);
+            values.put("regressed", isRegressed());
+            if (regression != null) {
+                values.put("regression", regression);
+            }
+            return values;
+        }
+
+        private static Map<String, Object> distribution(MetricsRegistry.Snapshot snapshot, double throughput) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", snapshot.getCount());
+            values.put("p50", snapshot.getPercentile(50));
+            values.put("p95", snapshot.getPercentile(95));
+            values.put("p99", snapshot.getPercentile(99));
+            values.put("throughput", Math.round(throughput * 100) / 100.0);
+            return values;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s p50 %d -> %dms, p95 %d -> %dms, p=%s%s", endpoint,
+                    baseline.getPercentile(50), current.getPercentile(50), baseline.getPercentile(95), current.getPercentile(95),
+                    Double.isNaN(pValue) ? "-" : String.format("%.4f", pValue), regression != null ? "（" + regression + "）" : "");
+        }
+    }
+
+    private final double alpha;
+    private final double tolerance;
+    private final double tailTolerance;
+    private final long minDeltaMillis;
+    private final int minSamples;
+
+    /**
+     * @param alpha 显著性水平
+     * @param tolerance p50 增量的相对容差（如0.5表示50%）
+     * @param tailTolerance p95 增量的相对容差
+     * @param minDeltaMillis 分位增量的绝对下限（毫秒）
+     * @param minSamples 每侧最少样本数
+     */
+    public RegressionComparator(double alpha, double tolerance, double tailTolerance, long minDeltaMillis, int minSamples) {
+        this.alpha = alpha;
+        this.tolerance = tolerance;
+        this.tailTolerance = tailTolerance;
+        this.minDeltaMillis = minDeltaMillis;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * 按 baseline.* 配置创建
+     * @return 比较器
+     */
+    public static RegressionComparator fromConfig() {
+        ConfigManager configManager = ConfigManager.getInstance();
+        return new RegressionComparator(
+                configManager.getTypedProperty("baseline.alpha", Double.class, 0.001),
+                configManager.getTypedProperty("baseline.tolerance", Double.class, 0.5),
+                configManager.getTypedProperty("baseline.tail.tolerance", Double.class, 1.0),
+                configManager.getTypedProperty("baseline.min.delta.ms", Long.class, 25L),
+                configManager.getIntProperty("baseline.min.samples", 20));
+    }
+
+    /**
+     * 比较本次运行与基线中都出现的端点
+     * @param baselines 基线运行（合并后比较）
+     * @param current 本次运行
+     * @return 每个端点的比较结果（按端点排序）
+     */
+    public List<Comparison> compare(List<PerformanceRun> baselines, PerformanceRun current) {
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, PerformanceRun.Endpoint> entry : current.getEndpoints().entrySet()) {
+            List<PerformanceRun.Endpoint> history = new ArrayList<>();
+            for (PerformanceRun run : baselines) {
+                PerformanceRun.Endpoint endpoint = run.getEndpoints().get(entry.getKey());
+                if (endpoint != null) {
+                    history.add(endpoint);
+                }
+            }
+            if (!history.isEmpty()) {
+                comparisons.add(compare(entry.getKey(), history, entry.getValue()));
+            }
+        }
+        return comparisons;
+    }
+
+    private Comparison compare(String name, List<PerformanceRun.Endpoint> history, PerformanceRun.Endpoint current) {
+        PerformanceRun.Endpoint baseline = PerformanceRun.Endpoint.merge(history);
+        if (baseline.getCount() < minSamples || current.getCount() < minSamples) {
+            return new Comparison(name, baseline, current, Double.NaN, null);
+        }
+        double pValue = mannWhitneyGreater(current.getHistogram(), baseline.getHistogram());
+        MetricsRegistry.Snapshot after = current.toSnapshot();
+
+        List<String> deltas = new ArrayList<>();
+        checkDelta(deltas, 50, tolerance, history, after);
+        checkDelta(deltas, 95, tailTolerance, history, after);
+        String regression = pValue < alpha && !deltas.isEmpty()
+                ? String.join(", ", deltas) + String.format("，p=%.4f", pValue) : null;
+        return new Comparison(name, baseline, current, pValue, regression);
+    }
+
+    /**
+     * 本次的分位与基线各次运行中最大的该分位比较
+     */
+    private void checkDelta(List<String> deltas, int percentile, double relativeTolerance,
+                            List<PerformanceRun.Endpoint> history, MetricsRegistry.Snapshot current) {
+        long was = 0;
+        for (PerformanceRun.Endpoint endpoint : history) {
+            was = Math.max(was, endpoint.toSnapshot().getPercentile(percentile));
+        }
+        long now = current.getPercentile(percentile);
+        if (now - was > Math.max(was * relativeTolerance, minDeltaMillis)) {
+            deltas.add(String.format("p%d %dms -> %dms", percentile, was, now));
+        }
+    }
+
+    /**
+     * 单侧 Mann-Whitney U 检验（正态近似，含结值校正和连续性校正）：x 的分布是否整体大于 y
+     * @param x 样本分布（值 -&gt; 次数）
+     * @param y 样本分布（值 -&gt; 次数）
+     * @return p 值
+     */
+    static double mannWhitneyGreater(Map<Long, Integer> x, Map<Long, Integer> y) {
+        long n1 = 0;
+        long n2 = 0;
+        for (int count : x.values()) {
+            n1 += count;
+        }
+        for (int count : y.values()) {
+            n2 += count;
+        }
+        long n = n1 + n2;
+
+        // 按值升序合并两侧，同值的样本取平均秩
+        double rankSumX = 0;
+        double tieTerm = 0;
+        long rank = 0;
+        TreeSet<Long> values = new TreeSet<>(x.keySet());
+        values.addAll(y.keySet());
+        for (long value : values) {
+            long inX = x.getOrDefault(value, 0);
+            long ties = inX + y.getOrDefault(value, 0);
+            double averageRank = rank + (ties + 1) / 2.0;
+            rankSumX += inX * averageRank;
+            tieTerm += (double) ties * ties * ties - ties;
+            rank += ties;
+        }
+
+        double u = rankSumX - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * n2 / 2.0;
+        double variance = n1 * n2 / 12.0 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return upperTail(z);
+    }
+
+    /**
+     * 标准正态分布的上尾概率 P(Z &gt; z)，erfc 采用 Numerical Recipes 的 Chebyshev 近似（相对误差小于1.2e-7）
+     */
+    private static double upperTail(double z) {
+        double x = z / Math.sqrt(2);
+        double t = 1.0 / (1.0 + 0.5 * Math.abs(x));
+        double erfc = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return 0.5 * (x >= 0 ? erfc : 2 - erfc);
+    }
+}
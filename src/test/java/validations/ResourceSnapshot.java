@@ -0,0 +1,220 @@
+package validations;
+
+import helpers.ApiHelper;
+import io.restassured.response.Response;
+import utils.JsonUtils;
+import utils.LogUtils;
+
+import java.util.Arrays;
+
+/**
+ * 资源快照：一次性拉取 /posts、/comments、/users，以基本类型数组按列存储并建立哈希索引
+ * 跨资源的关联性检查（外键存在性、按用户计数等）在内存中以顺序扫描完成，无需逐条HTTP请求
+ */
+public class ResourceSnapshot {
+    private static volatile ResourceSnapshot shared;
+
+    // posts 列
+    private final int[] postId;
+    private final int[] postUserId;
+
+    // comments 列
+    private final int[] commentId;
+    private final int[] commentPostId;
+
+    // users 列
+    private final int[] userId;
+
+    // ID -> 行号索引
+    private final IntIntHashMap postIndex;
+    private final IntIntHashMap commentIndex;
+    private final IntIntHashMap userIndex;
+
+    public ResourceSnapshot(int[] postId, int[] postUserId, int[] commentId, int[] commentPostId, int[] userId) {
+        this.postId = postId;
+        this.postUserId = postUserId;
+        this.commentId = commentId;
+        this.commentPostId = commentPostId;
+        this.userId = userId;
+        this.postIndex = IntIntHashMap.indexOf(postId);
+        this.commentIndex = IntIntHashMap.indexOf(commentId);
+        this.userIndex = IntIntHashMap.indexOf(userId);
+    }
+
+    /**
+     * 从API加载快照（每个资源一次请求）
+     * @return ResourceSnapshot
+     */
+    public static ResourceSnapshot load() {
+        long start = System.currentTimeMillis();
+
+        JsonUtils.IntColumns posts = fetchColumns("/posts", "id", "userId");
+        JsonUtils.IntColumns comments = fetchColumns("/comments", "id", "postId");
+        JsonUtils.IntColumns users = fetchColumns("/users", "id");
+        // 缺少ID或外键的元素不能参与关联检查，记为0会被当成有效值或误报为孤立记录
+        ResourceSnapshot snapshot = new ResourceSnapshot(posts.require(0), posts.require(1),
+                comments.require(0), comments.require(1), users.require(0));
+
+        LogUtils.logPerformance(String.format("加载资源快照(posts=%d, comments=%d, users=%d)",
+                snapshot.postCount(), snapshot.commentCount(), snapshot.userCount()),
+                System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /**
+     * 获取共享快照，首次调用时加载，之后复用
+     * @return ResourceSnapshot
+     */
+    public static ResourceSnapshot shared() {
+        ResourceSnapshot snapshot = shared;
+        if (snapshot == null) {
+            synchronized (ResourceSnapshot.class) {
+                snapshot = shared;
+                if (snapshot == null) {
+                    snapshot = load();
+                    shared = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static JsonUtils.IntColumns fetchColumns(String endpoint, String... fields) {
+        Response response = ApiHelper.get(endpoint);
+        ResponseValidator.validateStatusCode(response, 200);
+        return JsonUtils.readIntColumns(response.asByteArray(), fields);
+    }
+
+    public int postCount() {
+        return postId.length;
+    }
+
+    public int commentCount() {
+        return commentId.length;
+    }
+
+    public int userCount() {
+        return userId.length;
+    }
+
+    public boolean hasPost(int id) {
+        return postIndex.containsKey(id);
+    }
+
+    public boolean hasComment(int id) {
+        return commentIndex.containsKey(id);
+    }
+
+    public boolean hasUser(int id) {
+        return userIndex.containsKey(id);
+    }
+
+    /**
+     * 查找postId不存在的Comment
+     * @return 孤立Comment的ID
+     */
+    public int[] findOrphanComments() {
+        return findDangling(commentId, commentPostId, postIndex);
+    }
+
+    /**
+     * 查找userId不存在的Post
+     * @return 孤立Post的ID
+     */
+    public int[] findOrphanPosts() {
+        return findDangling(postId, postUserId, userIndex);
+    }
+
+    /**
+     * 统计每个用户的Post数量，顺序与用户列一致
+     * @return 计数数组
+     */
+    public int[] postCountsByUser() {
+        return countByParent(postUserId, userIndex, userId.length);
+    }
+
+    /**
+     * 统计每个Post的Comment数量，顺序与Post列一致
+     * @return 计数数组
+     */
+    public int[] commentCountsByPost() {
+        return countByParent(commentPostId, postIndex, postId.length);
+    }
+
+    /**
+     * 获取某个用户的Post数量
+     * @param id 用户ID
+     * @return Post数量
+     */
+    public int postCountOfUser(int id) {
+        int count = 0;
+        for (int value : postUserId) {
+            if (value == id) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取某个Post的所有Comment ID
+     * @param id Post ID
+     * @return Comment ID数组
+     */
+    public int[] commentIdsOfPost(int id) {
+        int[] result = new int[8];
+        int size = 0;
+        for (int i = 0; i < commentPostId.length; i++) {
+            if (commentPostId[i] == id) {
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size * 2);
+                }
+                result[size++] = commentId[i];
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public int[] postIds() {
+        return postId.clone();
+    }
+
+    public int[] commentIds() {
+        return commentId.clone();
+    }
+
+    public int[] userIds() {
+        return userId.clone();
+    }
+
+    /**
+     * 找出外键不在父表索引中的行，返回这些行的主键
+     */
+    private static int[] findDangling(int[] ids, int[] foreignKeys, IntIntHashMap parentIndex) {
+        int[] dangling = new int[0];
+        int size = 0;
+        for (int i = 0; i < foreignKeys.length; i++) {
+            if (!parentIndex.containsKey(foreignKeys[i])) {
+                if (size == dangling.length) {
+                    dangling = Arrays.copyOf(dangling, Math.max(8, size * 2));
+                }
+                dangling[size++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(dangling, size);
+    }
+
+    /**
+     * 按外键统计子表行数，结果按父表行号排列
+     */
+    private static int[] countByParent(int[] foreignKeys, IntIntHashMap parentIndex, int parentCount) {
+        int[] counts = new int[parentCount];
+        for (int foreignKey : foreignKeys) {
+            int row = parentIndex.get(foreignKey);
+            if (row >= 0) {
+                counts[row]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,355 @@
+package validations;
+
+import codegen.StructureValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import utils.HttpUtils;
+import utils.JsonUtils;
+import utils.RequestTimings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 针对单个响应的批量（软断言）检查
+ * 检查项先登记，verify() 时对同一棵解析树统一求值；消息只在失败时构建，
+ * 全部通过时只产生一条汇总日志，存在失败时一次性报告所有失败项。
+ * 响应体不是有效的JSON时，依赖响应体的检查项各记一次失败，不抛出解析异常中断其它检查项
+ */
+public class ResponseChecks {
+
+    private enum Kind {
+        STATUS_CODE, CONTENT_TYPE, MAX_RESPONSE_TIME, BODY_NOT_EMPTY,
+        FIELD_EQUALS, FIELD_EXISTS, FIELD_NOT_EXISTS, ARRAY_SIZE, ARRAY_NOT_EMPTY, SCHEMA, STRUCTURE
+    }
+
+    /**
+     * 登记的检查项：仅保存参数，不预先构造消息
+     */
+    private static final class Check {
+        final Kind kind;
+        final String path;
+        final Object expected;
+
+        Check(Kind kind, String path, Object expected) {
+            this.kind = kind;
+            this.path = path;
+            this.expected = expected;
+        }
+    }
+
+    private final Response response;
+    private final List<Check> checks = new ArrayList<>();
+    private JsonNode root;
+    private boolean parsed;
+    private String parseError;
+    private long parseNanos;
+
+    ResponseChecks(Response response) {
+        this.response = response;
+    }
+
+    public ResponseChecks statusCode(int expectedStatusCode) {
+        return add(Kind.STATUS_CODE, null, expectedStatusCode);
+    }
+
+    public ResponseChecks contentType(String expectedContentType) {
+        return add(Kind.CONTENT_TYPE, null, expectedContentType);
+    }
+
+    public ResponseChecks maxResponseTime(long maxResponseTime) {
+        return add(Kind.MAX_RESPONSE_TIME, null, maxResponseTime);
+    }
+
+    public ResponseChecks bodyNotEmpty() {
+        return add(Kind.BODY_NOT_EMPTY, null, null);
+    }
+
+    /**
+     * 字段值等于期望值
+     * @param path 字段路径，如 "id"、"address.geo.lat"、"[0].id"
+     * @param expectedValue 期望值
+     * @return this
+     */
+    public ResponseChecks field(String path, Object expectedValue) {
+        return add(Kind.FIELD_EQUALS, path, expectedValue);
+    }
+
+    public ResponseChecks fieldExists(String path) {
+        return add(Kind.FIELD_EXISTS, path, null);
+    }
+
+    /**
+     * 多个字段都存在
+     * @param paths 字段路径
+     * @return this
+     */
+    public ResponseChecks fieldsExist(String... paths) {
+        for (String path : paths) {
+            fieldExists(path);
+        }
+        return this;
+    }
+
+    public ResponseChecks fieldNotExists(String path) {
+        return add(Kind.FIELD_NOT_EXISTS, path, null);
+    }
+
+    /**
+     * 数组长度等于期望值
+     * @param path 数组路径，"$" 表示根节点
+     * @param expectedSize 期望长度
+     * @return this
+     */
+    public ResponseChecks arraySize(String path, int expectedSize) {
+        return add(Kind.ARRAY_SIZE, path, expectedSize);
+    }
+
+    public ResponseChecks arrayNotEmpty(String path) {
+        return add(Kind.ARRAY_NOT_EMPTY, path, null);
+    }
+
+    /**
+     * 响应体符合指定JSON Schema（在同一棵解析树上验证）
+     * @param schemaName schema名称，见 {@link JsonSchemas}
+     * @return this
+     */
+    public ResponseChecks schema(String schemaName) {
+        return add(Kind.SCHEMA, null, schemaName);
+    }
+
+    /**
+     * 响应体（对象或对象数组）符合编译期生成的结构验证器
+     * @param validator 结构验证器，如 PostStructureValidator.INSTANCE
+     * @return this
+     */
+    public ResponseChecks structure(StructureValidator validator) {
+        return add(Kind.STRUCTURE, null, validator);
+    }
+
+    /**
+     * 获取解析后的JSON树（只解析一次，可供其他验证复用）
+     * @return JsonNode，响应体为空时返回null
+     * @throws IllegalStateException 响应体不是有效的JSON
+     */
+    public JsonNode json() {
+        if (!parse()) {
+            throw new IllegalStateException("响应体不是有效的JSON: " + parseError);
+        }
+        return root;
+    }
+
+    /**
+     * 解析响应体（只解析一次），失败时记录原因
+     * @return 响应体为空或是有效的JSON
+     */
+    private boolean parse() {
+        if (!parsed) {
+            parsed = true;
+            long start = System.nanoTime();
+            byte[] body = response.asByteArray();
+            try {
+                root = body.length == 0 ? null : JsonUtils.getJsonNode(body);
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                parseError = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+            }
+            long end = RequestTimings.record(response, RequestTimings.Phase.DESERIALIZE, start);
+            parseNanos += end - start;
+        }
+        return parseError == null;
+    }
+
+    /**
+     * 求值所有检查项，汇总后统一断言
+     */
+    public void verify() {
+        evaluate().assertNoFailures();
+    }
+
+    /**
+     * 求值所有检查项并返回报告（不断言）
+     * @return 验证报告
+     */
+    public ValidationReport evaluate() {
+        ValidationReport report = new ValidationReport("响应检查 " + response.getStatusCode());
+        long start = System.nanoTime();
+        long parsedBefore = parseNanos;
+        for (int i = 0; i < checks.size(); i++) {
+            evaluate(checks.get(i), i, report);
+        }
+        report.addChecked(checks.size());
+        // 求值过程中首次解析响应体的耗时已计入反序列化阶段
+        RequestTimings timings = RequestTimings.of(response);
+        if (timings != null) {
+            timings.add(RequestTimings.Phase.VALIDATE, System.nanoTime() - start - (parseNanos - parsedBefore));
+        }
+        return report;
+    }
+
+    private void evaluate(Check check, int index, ValidationReport report) {
+        if (readsBody(check.kind) && !parse()) {
+            report.fail(index, "响应体应为有效的JSON", parseError);
+            return;
+        }
+        switch (check.kind) {
+            case STATUS_CODE: {
+                int actual = response.getStatusCode();
+                if (actual != (Integer) check.expected) {
+                    report.fail(index, "状态码应为 " + check.expected, actual);
+                }
+                break;
+            }
+            case CONTENT_TYPE: {
+                String actual = HttpUtils.getContentType(response);
+                if (actual == null || !actual.contains((String) check.expected)) {
+                    report.fail(index, "Content-Type应包含 " + check.expected, actual);
+                }
+                break;
+            }
+            case MAX_RESPONSE_TIME: {
+                long actual = response.getTime();
+                if (actual > (Long) check.expected) {
+                    report.fail(index, "响应时间应 <= " + check.expected + "ms", actual + "ms");
+                }
+                break;
+            }
+            case BODY_NOT_EMPTY:
+                if (HttpUtils.isResponseBodyEmpty(response)) {
+                    report.fail(index, "响应体不应为空", "");
+                }
+                break;
+            case FIELD_EQUALS: {
+                JsonNode node = resolve(check.path);
+                if (!matches(node, check.expected)) {
+                    report.fail(index, "JSON字段 " + check.path + " 应为 " + check.expected, node);
+                }
+                break;
+            }
+            case FIELD_EXISTS: {
+                JsonNode node = resolve(check.path);
+                if (node == null || node.isNull()) {
+                    report.fail(index, "JSON字段 " + check.path + " 应存在", null);
+                }
+                break;
+            }
+            case FIELD_NOT_EXISTS: {
+                JsonNode node = resolve(check.path);
+                if (node != null && !node.isNull()) {
+                    report.fail(index, "JSON字段 " + check.path + " 不应存在", node);
+                }
+                break;
+            }
+            case ARRAY_SIZE: {
+                JsonNode node = resolve(check.path);
+                int actual = node != null && node.isArray() ? node.size() : 0;
+                if (actual != (Integer) check.expected) {
+                    report.fail(index, "JSON数组 " + check.path + " 长度应为 " + check.expected, actual);
+                }
+                break;
+            }
+            case ARRAY_NOT_EMPTY: {
+                JsonNode node = resolve(check.path);
+                if (node == null || !node.isArray() || node.size() == 0) {
+                    report.fail(index, "JSON数组 " + check.path + " 不应为空", node);
+                }
+                break;
+            }
+            case SCHEMA: {
+                JsonNode node = json();
+                List<String> violations = node == null
+                        ? Collections.singletonList("/: 响应体为空") : JsonSchemas.validate((String) check.expected, node);
+                for (String violation : violations) {
+                    report.fail(index, "应符合JSON Schema " + check.expected, violation);
+                }
+                break;
+            }
+            case STRUCTURE: {
+                StructureValidator validator = (StructureValidator) check.expected;
+                for (String violation : validator.validate(json())) {
+                    report.fail(index, "应符合模型结构 " + validator.schemaName(), violation);
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("未知的检查类型: " + check.kind);
+        }
+    }
+
+    private static boolean readsBody(Kind kind) {
+        switch (kind) {
+            case STATUS_CODE:
+            case CONTENT_TYPE:
+            case MAX_RESPONSE_TIME:
+            case BODY_NOT_EMPTY:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 按路径在解析树中定位节点，支持 "a.b"、"a[0].b"、"[0]"，"$" 或空串表示根节点
+     */
+    private JsonNode resolve(String path) {
+        JsonNode node = json();
+        if (path == null || path.isEmpty() || "$".equals(path)) {
+            return node;
+        }
+
+        int i = path.startsWith("$.") ? 2 : 0;
+        int length = path.length();
+        while (node != null && i < length) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                i++;
+            } else if (c == '[') {
+                int close = path.indexOf(']', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("无效的JSON路径: " + path);
+                }
+                node = node.get(Integer.parseInt(path.substring(i + 1, close)));
+                i = close + 1;
+            } else {
+                int end = i;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                node = node.get(path.substring(i, end));
+                i = end;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * 比较JSON节点与期望的Java值
+     */
+    private static boolean matches(JsonNode node, Object expected) {
+        if (expected == null) {
+            return node == null || node.isNull();
+        }
+        if (node == null || node.isNull()) {
+            return false;
+        }
+        if (expected instanceof Integer || expected instanceof Long || expected instanceof Short || expected instanceof Byte) {
+            return node.isIntegralNumber() && node.canConvertToLong() && node.longValue() == ((Number) expected).longValue();
+        }
+        if (expected instanceof Number) {
+            return node.isNumber() && node.doubleValue() == ((Number) expected).doubleValue();
+        }
+        if (expected instanceof String) {
+            return node.isTextual() && node.textValue().equals(expected);
+        }
+        if (expected instanceof Boolean) {
+            return node.isBoolean() && node.booleanValue() == (Boolean) expected;
+        }
+        return node.equals(JsonUtils.getJsonNode(JsonUtils.toJson(expected)));
+    }
+
+    private ResponseChecks add(Kind kind, String path, Object expected) {
+        checks.add(new Check(kind, path, expected));
+        return this;
+    }
+}
@@ -1,10 +1,14 @@
 package validations;
 
+import codegen.StructureValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import config.ConfigManager;
 import io.restassured.response.Response;
 import org.testng.Assert;
 import utils.HttpUtils;
 import utils.JsonUtils;
 import utils.LogUtils;
+import utils.RequestTimings;
 
 import java.util.List;
 
@@ -12,6 +16,8 @@ import java.util.List;
  * 响应验证类，用于验证API响应的各种属性
  */
 public class ResponseValidator {
+    /** 单个响应的最大允许耗时（api.max.response.time.ms，默认5秒） */
+    public static final long MAX_RESPONSE_TIME_MS = ConfigManager.getInstance().getMaxResponseTime();
     
     /**
      * 验证响应状态码
@@ -20,9 +26,10 @@ public class ResponseValidator {
      */
     public static void validateStatusCode(Response response, int expectedStatusCode) {
         int actualStatusCode = response.getStatusCode();
-        LogUtils.logValidation("状态码", expectedStatusCode, actualStatusCode, actualStatusCode == expectedStatusCode);
-        Assert.assertEquals(actualStatusCode, expectedStatusCode, 
-                String.format("状态码验证失败。期望: %d, 实际: %d", expectedStatusCode, actualStatusCode));
+        LogUtils.logValidation(actualStatusCode == expectedStatusCode, () -> "状态码", () -> expectedStatusCode, () -> actualStatusCode);
+        if (actualStatusCode != expectedStatusCode) {
+            Assert.fail(String.format("状态码验证失败。期望: %d, 实际: %d", expectedStatusCode, actualStatusCode));
+        }
     }
     
     /**
@@ -33,9 +40,12 @@ public class ResponseValidator {
     public static void validateResponseTime(Response response, long maxResponseTime) {
         long actualResponseTime = response.getTime();
         boolean isValid = actualResponseTime <= maxResponseTime;
-        LogUtils.logValidation("响应时间", "<= " + maxResponseTime + "ms", actualResponseTime + "ms", isValid);
-        Assert.assertTrue(isValid, 
-                String.format("响应时间验证失败。期望: <= %dms, 实际: %dms", maxResponseTime, actualResponseTime));
+        LogUtils.logValidation(isValid, () -> "响应时间", () -> "<= " + maxResponseTime + "ms", () -> actualResponseTime + "ms");
+        if (!isValid) {
+            RequestTimings timings = RequestTimings.of(response);
+            Assert.fail(String.format("响应时间验证失败。期望: <= %dms, 实际: %dms%s", maxResponseTime, actualResponseTime,
+                    timings != null ? "（" + timings + "）" : ""));
+        }
     }
     
     /**
@@ -46,9 +56,11 @@ public class ResponseValidator {
      */
     public static void validateHeader(Response response, String headerName, String expectedValue) {
         String actualValue = response.getHeader(headerName);
-        LogUtils.logValidation("响应头 " + headerName, expectedValue, actualValue, expectedValue.equals(actualValue));
-        Assert.assertEquals(actualValue, expectedValue, 
-                String.format("响应头验证失败。头部: %s, 期望: %s, 实际: %s", headerName, expectedValue, actualValue));
+        boolean matches = expectedValue.equals(actualValue);
+        LogUtils.logValidation(matches, () -> "响应头 " + headerName, () -> expectedValue, () -> actualValue);
+        if (!matches) {
+            Assert.fail(String.format("响应头验证失败。头部: %s, 期望: %s, 实际: %s", headerName, expectedValue, actualValue));
+        }
     }
     
     /**
@@ -58,8 +70,10 @@ public class ResponseValidator {
      */
     public static void validateHeaderExists(Response response, String headerName) {
         boolean exists = HttpUtils.hasHeader(response, headerName);
-        LogUtils.logValidation("响应头存在性 " + headerName, "存在", exists ? "存在" : "不存在", exists);
-        Assert.assertTrue(exists, String.format("响应头 %s 不存在", headerName));
+        LogUtils.logValidation(exists, () -> "响应头存在性 " + headerName, () -> "存在", () -> exists ? "存在" : "不存在");
+        if (!exists) {
+            Assert.fail(String.format("响应头 %s 不存在", headerName));
+        }
     }
     
     /**
@@ -70,9 +84,10 @@ public class ResponseValidator {
     public static void validateContentType(Response response, String expectedContentType) {
         String actualContentType = HttpUtils.getContentType(response);
         boolean isValid = actualContentType != null && actualContentType.contains(expectedContentType);
-        LogUtils.logValidation("Content-Type", expectedContentType, actualContentType, isValid);
-        Assert.assertTrue(isValid, 
-                String.format("Content-Type验证失败。期望包含: %s, 实际: %s", expectedContentType, actualContentType));
+        LogUtils.logValidation(isValid, () -> "Content-Type", () -> expectedContentType, () -> actualContentType);
+        if (!isValid) {
+            Assert.fail(String.format("Content-Type验证失败。期望包含: %s, 实际: %s", expectedContentType, actualContentType));
+        }
     }
     
     /**
@@ -81,7 +96,7 @@ public class ResponseValidator {
      */
     public static void validateResponseBodyNotEmpty(Response response) {
         boolean isEmpty = HttpUtils.isResponseBodyEmpty(response);
-        LogUtils.logValidation("响应体非空", "非空", isEmpty ? "空" : "非空", !isEmpty);
+        LogUtils.logValidation(!isEmpty, () -> "响应体非空", () -> "非空", () -> isEmpty ? "空" : "非空");
         Assert.assertFalse(isEmpty, "响应体不应为空");
     }
     
@@ -91,7 +106,7 @@ public class ResponseValidator {
      */
     public static void validateResponseBodyEmpty(Response response) {
         boolean isEmpty = HttpUtils.isResponseBodyEmpty(response);
-        LogUtils.logValidation("响应体为空", "空", isEmpty ? "空" : "非空", isEmpty);
+        LogUtils.logValidation(isEmpty, () -> "响应体为空", () -> "空", () -> isEmpty ? "空" : "非空");
         Assert.assertTrue(isEmpty, "响应体应为空");
     }
     
@@ -103,9 +118,11 @@ public class ResponseValidator {
      */
     public static void validateJsonField(Response response, String jsonPath, Object expectedValue) {
         Object actualValue = response.jsonPath().get(jsonPath);
-        LogUtils.logValidation("JSON字段 " + jsonPath, expectedValue, actualValue, expectedValue.equals(actualValue));
-        Assert.assertEquals(actualValue, expectedValue, 
-                String.format("JSON字段验证失败。路径: %s, 期望: %s, 实际: %s", jsonPath, expectedValue, actualValue));
+        boolean matches = expectedValue.equals(actualValue);
+        LogUtils.logValidation(matches, () -> "JSON字段 " + jsonPath, () -> expectedValue, () -> actualValue);
+        if (!matches) {
+            Assert.fail(String.format("JSON字段验证失败。路径: %s, 期望: %s, 实际: %s", jsonPath, expectedValue, actualValue));
+        }
     }
     
     /**
@@ -116,8 +133,10 @@ public class ResponseValidator {
     public static void validateJsonFieldExists(Response response, String jsonPath) {
         Object value = response.jsonPath().get(jsonPath);
         boolean exists = value != null;
-        LogUtils.logValidation("JSON字段存在性 " + jsonPath, "存在", exists ? "存在" : "不存在", exists);
-        Assert.assertNotNull(value, String.format("JSON字段 %s 不存在", jsonPath));
+        LogUtils.logValidation(exists, () -> "JSON字段存在性 " + jsonPath, () -> "存在", () -> exists ? "存在" : "不存在");
+        if (!exists) {
+            Assert.fail(String.format("JSON字段 %s 不存在", jsonPath));
+        }
     }
     
     /**
@@ -128,8 +147,10 @@ public class ResponseValidator {
     public static void validateJsonFieldNotExists(Response response, String jsonPath) {
         Object value = response.jsonPath().get(jsonPath);
         boolean notExists = value == null;
-        LogUtils.logValidation("JSON字段不存在性 " + jsonPath, "不存在", notExists ? "不存在" : "存在", notExists);
-        Assert.assertNull(value, String.format("JSON字段 %s 不应存在", jsonPath));
+        LogUtils.logValidation(notExists, () -> "JSON字段不存在性 " + jsonPath, () -> "不存在", () -> notExists ? "不存在" : "存在");
+        if (!notExists) {
+            Assert.fail(String.format("JSON字段 %s 不应存在", jsonPath));
+        }
     }
     
     /**
@@ -141,9 +162,10 @@ public class ResponseValidator {
     public static void validateJsonArraySize(Response response, String jsonPath, int expectedSize) {
         List<Object> array = response.jsonPath().getList(jsonPath);
         int actualSize = array != null ? array.size() : 0;
-        LogUtils.logValidation("JSON数组长度 " + jsonPath, expectedSize, actualSize, actualSize == expectedSize);
-        Assert.assertEquals(actualSize, expectedSize, 
-                String.format("JSON数组长度验证失败。路径: %s, 期望: %d, 实际: %d", jsonPath, expectedSize, actualSize));
+        LogUtils.logValidation(actualSize == expectedSize, () -> "JSON数组长度 " + jsonPath, () -> expectedSize, () -> actualSize);
+        if (actualSize != expectedSize) {
+            Assert.fail(String.format("JSON数组长度验证失败。路径: %s, 期望: %d, 实际: %d", jsonPath, expectedSize, actualSize));
+        }
     }
     
     /**
@@ -154,8 +176,10 @@ public class ResponseValidator {
     public static void validateJsonArrayNotEmpty(Response response, String jsonPath) {
         List<Object> array = response.jsonPath().getList(jsonPath);
         boolean notEmpty = array != null && !array.isEmpty();
-        LogUtils.logValidation("JSON数组非空 " + jsonPath, "非空", notEmpty ? "非空" : "空", notEmpty);
-        Assert.assertTrue(notEmpty, String.format("JSON数组 %s 不应为空", jsonPath));
+        LogUtils.logValidation(notEmpty, () -> "JSON数组非空 " + jsonPath, () -> "非空", () -> notEmpty ? "非空" : "空");
+        if (!notEmpty) {
+            Assert.fail(String.format("JSON数组 %s 不应为空", jsonPath));
+        }
     }
     
     /**
@@ -165,7 +189,7 @@ public class ResponseValidator {
     public static void validateJsonFormat(Response response) {
         String responseBody = response.getBody().asString();
         boolean isValidJson = JsonUtils.isValidJson(responseBody);
-        LogUtils.logValidation("JSON格式", "有效", isValidJson ? "有效" : "无效", isValidJson);
+        LogUtils.logValidation(isValidJson, () -> "JSON格式", () -> "有效", () -> isValidJson ? "有效" : "无效");
         Assert.assertTrue(isValidJson, "响应不是有效的JSON格式");
     }
     
@@ -177,8 +201,10 @@ public class ResponseValidator {
     public static void validateResponseBodyContains(Response response, String expectedText) {
         String responseBody = response.getBody().asString();
         boolean contains = responseBody.contains(expectedText);
-        LogUtils.logValidation("响应体包含文本", expectedText, contains ? "包含" : "不包含", contains);
-        Assert.assertTrue(contains, String.format("响应体不包含期望的文本: %s", expectedText));
+        LogUtils.logValidation(contains, () -> "响应体包含文本", () -> expectedText, () -> contains ? "包含" : "不包含");
+        if (!contains) {
+            Assert.fail(String.format("响应体不包含期望的文本: %s", expectedText));
+        }
     }
     
     /**
@@ -189,8 +215,71 @@ public class ResponseValidator {
     public static void validateResponseBodyNotContains(Response response, String unexpectedText) {
         String responseBody = response.getBody().asString();
         boolean notContains = !responseBody.contains(unexpectedText);
-        LogUtils.logValidation("响应体不包含文本", "不包含 " + unexpectedText, notContains ? "不包含" : "包含", notContains);
-        Assert.assertTrue(notContains, String.format("响应体不应包含文本: %s", unexpectedText));
+        LogUtils.logValidation(notContains, () -> "响应体不包含文本", () -> "不包含 " + unexpectedText, () -> notContains ? "不包含" : "包含");
+        if (!notContains) {
+            Assert.fail(String.format("响应体不应包含文本: %s", unexpectedText));
+        }
+    }
+    
+    /**
+     * 使用缓存的JSON Schema验证响应体结构（一次遍历代替逐字段GPath查找）
+     * @param response 响应对象
+     * @param schemaName schema名称，见 {@link JsonSchemas}
+     */
+    public static void validateSchema(Response response, String schemaName) {
+        long start = System.nanoTime();
+        JsonNode json = JsonUtils.getJsonNode(response.asByteArray());
+        start = RequestTimings.record(response, RequestTimings.Phase.DESERIALIZE, start);
+        validateSchema(json, schemaName);
+        RequestTimings.record(response, RequestTimings.Phase.VALIDATE, start);
+    }
+    
+    /**
+     * 使用缓存的JSON Schema验证已解析的JSON节点
+     * @param json JSON节点
+     * @param schemaName schema名称，见 {@link JsonSchemas}
+     */
+    public static void validateSchema(JsonNode json, String schemaName) {
+        List<String> violations = JsonSchemas.validate(schemaName, json);
+        boolean isValid = violations.isEmpty();
+        LogUtils.logValidation(isValid, () -> "JSON Schema " + schemaName, () -> "符合", () -> isValid ? "符合" : violations.size() + "处违反");
+        if (!isValid) {
+            Assert.fail(String.format("JSON Schema验证失败。Schema: %s, 违反项: %s", schemaName, violations));
+        }
+    }
+    
+    /**
+     * 使用编译期生成的结构验证器检查响应体（对象或对象数组），不经过反射绑定
+     * @param response 响应对象
+     * @param validator 结构验证器，如 PostStructureValidator.INSTANCE
+     */
+    public static void validateStructure(Response response, StructureValidator validator) {
+        long start = System.nanoTime();
+        JsonNode json = JsonUtils.getJsonNode(response.asByteArray());
+        start = RequestTimings.record(response, RequestTimings.Phase.DESERIALIZE, start);
+        List<String> violations = validator.validate(json);
+        RequestTimings.record(response, RequestTimings.Phase.VALIDATE, start);
+        boolean isValid = violations.isEmpty();
+        LogUtils.logValidation(isValid, () -> "结构 " + validator.schemaName(), () -> "符合", () -> isValid ? "符合" : violations.size() + "处违反");
+        if (!isValid) {
+            Assert.fail(String.format("结构验证失败。模型: %s, 违反项: %s", validator.schemaName(), violations));
+        }
+    }
+    
+    /**
+     * 创建针对单个响应的批量（软断言）检查，响应体只解析一次，全部检查完成后统一报告失败
+     * <pre>
+     * ResponseValidator.checks(response)
+     *         .statusCode(200)
+     *         .field("id", 1)
+     *         .fieldExists("name")
+     *         .verify();
+     * </pre>
+     * @param response 响应对象
+     * @return ResponseChecks
+     */
+    public static ResponseChecks checks(Response response) {
+        return new ResponseChecks(response);
     }
     
     /**
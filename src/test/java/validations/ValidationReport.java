@@ -0,0 +1,157 @@
+package validations;
+
+import org.testng.Assert;
+import utils.LogUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 批量验证报告，紧凑记录失败项（下标、规则、实际值），失败消息仅在需要时才格式化
+ * 通过的检查不产生任何字符串或日志
+ */
+public class ValidationReport {
+    private static final int MAX_RECORDED_FAILURES = 50;
+
+    private final String subject;
+    private int checkedCount;
+    private int failureCount;
+    // 存在失败的元素下标，一个元素违反多条规则只算一个无效元素
+    private final BitSet failedElements = new BitSet();
+
+    private int[] failureIndexes = new int[0];
+    private String[] failureRules = new String[0];
+    private Object[] failureValues = new Object[0];
+
+    /**
+     * @param subject 验证对象名称（如 "Comment列表"）
+     */
+    public ValidationReport(String subject) {
+        this.subject = subject;
+    }
+
+    /**
+     * 记录一次检查，条件不成立时记录失败
+     * @param condition 检查条件
+     * @param index 元素下标
+     * @param rule 规则描述（应为常量字符串）
+     * @param actual 实际值
+     * @return 条件是否成立
+     */
+    public boolean check(boolean condition, int index, String rule, Object actual) {
+        if (!condition) {
+            fail(index, rule, actual);
+        }
+        return condition;
+    }
+
+    /**
+     * 记录一条失败；超出上限后只计数不保存
+     * @param index 元素下标
+     * @param rule 规则描述
+     * @param actual 实际值
+     */
+    public void fail(int index, String rule, Object actual) {
+        if (index >= 0) {
+            failedElements.set(index);
+        }
+        if (failureCount < MAX_RECORDED_FAILURES) {
+            if (failureCount == failureIndexes.length) {
+                int capacity = Math.min(MAX_RECORDED_FAILURES, Math.max(4, failureCount * 2));
+                failureIndexes = Arrays.copyOf(failureIndexes, capacity);
+                failureRules = Arrays.copyOf(failureRules, capacity);
+                failureValues = Arrays.copyOf(failureValues, capacity);
+            }
+            failureIndexes[failureCount] = index;
+            failureRules[failureCount] = rule;
+            failureValues[failureCount] = actual;
+        }
+        failureCount++;
+    }
+
+    /**
+     * 记录已检查的元素数量
+     * @param count 元素数量
+     */
+    public void addChecked(int count) {
+        checkedCount += count;
+    }
+
+    /**
+     * 合并另一份报告的计数和失败项（用于多线程各自验证后汇总）
+     * @param other 另一份报告
+     */
+    public void merge(ValidationReport other) {
+        int recorded = Math.min(other.failureCount, MAX_RECORDED_FAILURES);
+        for (int i = 0; i < recorded; i++) {
+            fail(other.failureIndexes[i], other.failureRules[i], other.failureValues[i]);
+        }
+        failureCount += other.failureCount - recorded;
+        failedElements.or(other.failedElements);
+        checkedCount += other.checkedCount;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+
+    public int getCheckedCount() {
+        return checkedCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return 存在失败的元素数量（不同下标数）
+     */
+    public int getFailedElementCount() {
+        return failedElements.cardinality();
+    }
+
+    /**
+     * @return 所有检查都通过的元素数量
+     */
+    public int getValidCount() {
+        return Math.max(0, checkedCount - failedElements.cardinality());
+    }
+
+    public boolean hasFailures() {
+        return failureCount > 0;
+    }
+
+    /**
+     * 生成失败摘要（仅在调用时格式化）
+     * @return 摘要文本
+     */
+    public String summary() {
+        StringBuilder builder = new StringBuilder()
+                .append(subject).append(": 检查").append(checkedCount).append("项，").append(getFailedElementCount())
+                .append("项无效，失败").append(failureCount).append("次");
+        int recorded = Math.min(failureCount, MAX_RECORDED_FAILURES);
+        for (int i = 0; i < recorded; i++) {
+            builder.append("\n  [").append(failureIndexes[i]).append("] ")
+                    .append(failureRules[i]).append("，实际: ").append(failureValues[i]);
+        }
+        if (failureCount > recorded) {
+            builder.append("\n  ... 其余").append(failureCount - recorded).append("项省略");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 记录一条汇总日志，存在失败时断言失败
+     */
+    public void assertNoFailures() {
+        LogUtils.logValidation(subject, "全部有效", getValidCount() + "/" + checkedCount + "有效", !hasFailures());
+        if (hasFailures()) {
+            Assert.fail(summary());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}